@@ -1,4 +1,4 @@
-import axios from 'axios'
+import axios, { type InternalAxiosRequestConfig } from 'axios'
 import type {
   LoginRequest,
   RegisterRequest,
@@ -7,6 +7,9 @@ import type {
   User,
 } from '../types/auth.js'
 
+// 进行中的刷新请求
+let refreshing: Promise<LoginResponse> | null = null
+
 // 创建axios实例
 const api = axios.create({
   // 移除baseURL，使用Vite代理
@@ -30,22 +33,67 @@ api.interceptors.request.use(
   },
 )
 
+// 访问令牌过期（后台标签页的定时刷新可能被浏览器推迟）时先刷新一次再重试；
+// 刷新也失败时才清除本地存储并重定向到登录页
+function redirectToLogin(): void {
+  AuthService.clearAuthData()
+  window.location.href = '/login'
+}
+
 // 响应拦截器 - 处理token过期
 api.interceptors.response.use(
   (response) => {
     return response
   },
-  (error) => {
+  async (error) => {
+    const config = error.config as (InternalAxiosRequestConfig & { _retried?: boolean }) | undefined
+    if (error.response?.status === 401 && config && !config._retried && !config.url?.startsWith('/api/auth/')) {
+      config._retried = true
+      try {
+        await AuthService.refresh()
+      } catch {
+        redirectToLogin()
+        return Promise.reject(error)
+      }
+      // 请求拦截器会带上新的访问令牌
+      return api(config)
+    }
     if (error.response?.status === 401) {
-      // Token过期，清除本地存储并重定向到登录页
-      localStorage.removeItem('token')
-      localStorage.removeItem('user')
-      window.location.href = '/login'
+      redirectToLogin()
     }
     return Promise.reject(error)
   },
 )
 
+/**
+ * 带认证的 fetch：总是使用当前的访问令牌，返回 401 时刷新一次令牌后重试
+ */
+export async function authFetch(input: string, init: RequestInit = {}): Promise<Response> {
+  const send = () => {
+    const headers = new Headers(init.headers)
+    const token = localStorage.getItem('token')
+    if (token) {
+      headers.set('Authorization', `Bearer ${token}`)
+    }
+    return fetch(input, { ...init, headers })
+  }
+  const response = await send()
+  if (response.status !== 401) {
+    return response
+  }
+  try {
+    await AuthService.refresh()
+  } catch {
+    redirectToLogin()
+    return response
+  }
+  const retried = await send()
+  if (retried.status === 401) {
+    redirectToLogin()
+  }
+  return retried
+}
+
 export class AuthService {
   /**
    * 用户登录
@@ -81,11 +129,62 @@ export class AuthService {
     }
   }
 
+  /**
+   * 用刷新令牌换取新的访问令牌（刷新令牌同时轮换）
+   * 同一时间只发出一个刷新请求：旧刷新令牌使用后即作废，并发刷新会被服务端视为重复使用
+   */
+  static refresh(): Promise<LoginResponse> {
+    if (!refreshing) {
+      const refreshToken = localStorage.getItem('refreshToken')
+      refreshing = (
+        refreshToken
+          ? axios
+              .post<LoginResponse>('/api/auth/refresh', { refreshToken })
+              .then((response) => {
+                this.saveAuthData(response.data)
+                return response.data
+              })
+          : Promise.reject(new Error('没有刷新令牌'))
+      ).finally(() => {
+        refreshing = null
+      })
+    }
+    return refreshing
+  }
+
+  /**
+   * 登出：作废刷新令牌并吊销当前访问令牌，失败时忽略（本地信息总会被清除）
+   */
+  static async logout(): Promise<void> {
+    // 调用方随后会清除本地存储，令牌需要在发出请求前取出
+    const token = localStorage.getItem('token')
+    const refreshToken = localStorage.getItem('refreshToken')
+    try {
+      await axios.post(
+        '/api/auth/logout',
+        { refreshToken },
+        { headers: token ? { Authorization: `Bearer ${token}` } : {} },
+      )
+    } catch {
+      // 令牌已过期或网络错误时服务端无需处理
+    }
+  }
+
+  /**
+   * 距离访问令牌过期的毫秒数，未知时返回 null
+   */
+  static getTokenExpiresIn(): number | null {
+    const expiresAt = localStorage.getItem('tokenExpiresAt')
+    return expiresAt ? Number(expiresAt) - Date.now() : null
+  }
+
   /**
    * 保存认证信息到本地存储
    */
   static saveAuthData(loginResponse: LoginResponse): void {
     localStorage.setItem('token', loginResponse.accessToken)
+    localStorage.setItem('refreshToken', loginResponse.refreshToken)
+    localStorage.setItem('tokenExpiresAt', String(Date.now() + loginResponse.expiresIn * 1000))
     localStorage.setItem(
       'user',
       JSON.stringify({
@@ -101,6 +200,8 @@ export class AuthService {
    */
   static clearAuthData(): void {
     localStorage.removeItem('token')
+    localStorage.removeItem('refreshToken')
+    localStorage.removeItem('tokenExpiresAt')
     localStorage.removeItem('user')
   }
 
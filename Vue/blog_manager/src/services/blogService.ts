@@ -1,5 +1,16 @@
-import type { BlogListItem, BlogDetail } from '../types/blog.js'
-import { AuthService } from './authService.js' // 导入 AuthService
+import type {
+  BlogListItem,
+  BlogDetail,
+  BlogCursor,
+  BlogHtml,
+  BlogRevisionContent,
+  BlogRevisionSummary,
+  BlogSummary,
+  BlogSummaryPage,
+  ContentEdit,
+  ContentVersion,
+} from '../types/blog.js'
+import { AuthService, authFetch } from './authService.js' // 导入 AuthService
 
 const API_BASE_URL = '/api' // 使用相对路径，将通过 Vite 代理转发
 
@@ -20,27 +31,65 @@ export function processBlogContentForDisplay(content: string): string {
   })
 }
 
+// 按游标获取一页博客摘要，cursor 为空时获取第一页
+export async function getBlogPage(
+  cursor: BlogCursor | null = null,
+  size = 50,
+): Promise<BlogSummaryPage | null> {
+  const token = AuthService.getToken() // 获取认证令牌
+  const headers: HeadersInit = {}
+  if (token) {
+    headers['Authorization'] = `Bearer ${token}`
+  }
+
+  const queryParams = new URLSearchParams({ size: String(size) })
+  if (cursor) {
+    queryParams.append('cursorCreatedAt', cursor.createdAt)
+    queryParams.append('cursorId', String(cursor.id))
+  }
+
+  const response = await authFetch(`${API_BASE_URL}/blogs/lists?${queryParams.toString()}`, {
+    headers: headers, // 添加请求头
+  })
+  if (!response.ok) {
+    throw new Error('Network response was not ok')
+  }
+  const result: ApiResponse<BlogSummaryPage> = await response.json()
+  if (result.status === 0 && result.data) {
+    return result.data
+  } else {
+    console.error('Error fetching blogs:', result.error)
+    return null
+  }
+}
+
 export async function getAllBlogs(): Promise<BlogListItem[]> {
   try {
-    const token = AuthService.getToken() // 获取认证令牌
-    const headers: HeadersInit = {}
-    if (token) {
-      headers['Authorization'] = `Bearer ${token}`
-    }
-
-    const response = await fetch(`${API_BASE_URL}/blogs/lists`, {
-      headers: headers, // 添加请求头
-    })
-    if (!response.ok) {
-      throw new Error('Network response was not ok')
-    }
-    const result: ApiResponse<BlogListItem[]> = await response.json()
-    if (result.status === 0 && result.data) {
-      return result.data
-    } else {
-      console.error('Error fetching blogs:', result.error)
-      return []
-    }
+    const blogs: BlogListItem[] = []
+    let cursor: BlogCursor | null = null
+    do {
+      const page: BlogSummaryPage | null = await getBlogPage(cursor)
+      if (!page) {
+        break
+      }
+      for (const item of page.items) {
+        blogs.push({
+          id: item.id,
+          title: item.title,
+          filename: '',
+          categories: item.categories,
+          tags: item.tags ?? [],
+          saying: item.saying,
+          date: item.createdAt,
+          dateTime: item.createdAt,
+          excerpt: item.excerpt,
+          wordCount: item.wordCount,
+          readingMinutes: item.readingMinutes,
+        })
+      }
+      cursor = page.nextCursor
+    } while (cursor)
+    return blogs
   } catch (error) {
     console.error('Failed to fetch blogs:', error)
     return []
@@ -55,7 +104,7 @@ export async function getBlogDetail(id: number): Promise<BlogDetail | null> {
       headers['Authorization'] = `Bearer ${token}`
     }
 
-    const response = await fetch(`${API_BASE_URL}/blogs/${id}`, {
+    const response = await authFetch(`${API_BASE_URL}/blogs/${id}`, {
       headers: headers,
     })
 
@@ -107,7 +156,7 @@ export async function updateBlogContent(
       return { success: false, message: '用户未认证' }
     }
 
-    const response = await fetch(`${API_BASE_URL}/blogs/${id}`, {
+    const response = await authFetch(`${API_BASE_URL}/blogs/${id}`, {
       method: 'PUT',
       headers: {
         'Content-Type': 'application/json',
@@ -147,14 +196,14 @@ export async function updateBlogContent(
 }
 
 // Renamed from updateBlogInfo to reflect its actual operation of updating blog metadata
-// Aligns with API PUT /api/blogs/{id} but only for metadata fields (excluding content)
+// 使用 PATCH /api/blogs/{id} 只发送元数据字段，服务端不会读写正文
 export async function updateBlogMetadata(
   id: number,
   blogMetadata: {
-    title: string
-    categories: string
-    tags: string[]
-    saying: string
+    title?: string
+    categories?: string
+    tags?: string[]
+    saying?: string
     // content is handled by updateBlogContent
   },
 ): Promise<{ success: boolean; message: string }> {
@@ -164,27 +213,13 @@ export async function updateBlogMetadata(
       return { success: false, message: '用户未认证' }
     }
 
-    // Fetch the current blog content first, as the API expects the full blog object for an update.
-    // Alternatively, the backend API could be modified to accept partial updates (PATCH request).
-    // For now, we assume PUT requires all fields. If content is not meant to be changed here,
-    // we need to send the existing content.
-    const currentBlog = await getBlogDetail(id) // This service function already handles token
-    if (!currentBlog) {
-      return { success: false, message: '无法获取当前博客内容以进行更新' }
-    }
-
-    const blogDataForUpdate = {
-      ...blogMetadata, // title, categories, tags, saying from input
-      content: currentBlog.content, // Preserve existing content
-    }
-
-    const response = await fetch(`${API_BASE_URL}/blogs/${id}`, {
-      method: 'PUT',
+    const response = await authFetch(`${API_BASE_URL}/blogs/${id}`, {
+      method: 'PATCH',
       headers: {
         'Content-Type': 'application/json',
         Authorization: `Bearer ${token}`,
       },
-      body: JSON.stringify(blogDataForUpdate),
+      body: JSON.stringify(blogMetadata),
     })
 
     if (!response.ok) {
@@ -217,6 +252,79 @@ export async function updateBlogMetadata(
   }
 }
 
+// 计算两段正文之间的单处修改（去掉相同的前缀和后缀）
+export function diffContent(oldContent: string, newContent: string): ContentEdit[] {
+  if (oldContent === newContent) {
+    return []
+  }
+  let start = 0
+  const minLength = Math.min(oldContent.length, newContent.length)
+  while (start < minLength && oldContent[start] === newContent[start]) {
+    start++
+  }
+  let oldEnd = oldContent.length
+  let newEnd = newContent.length
+  while (oldEnd > start && newEnd > start && oldContent[oldEnd - 1] === newContent[newEnd - 1]) {
+    oldEnd--
+    newEnd--
+  }
+  return [{ start, end: oldEnd, text: newContent.slice(start, newEnd) }]
+}
+
+// 增量保存正文，只上传修改的片段（PATCH /api/blogs/{id}/content）
+// baseContent 必须是服务端保存的原始正文（未经 processBlogContentForDisplay 处理），
+// 成功时返回新版本，作为下一次保存的 baseUpdatedAt；conflict 为 true 时需要重新获取博客
+export async function saveContentDelta(
+  id: number,
+  baseUpdatedAt: string,
+  baseContent: string,
+  newContent: string,
+): Promise<{ success: boolean; conflict: boolean; message: string; version?: ContentVersion }> {
+  try {
+    const token = AuthService.getToken()
+    if (!token) {
+      return { success: false, conflict: false, message: '用户未认证' }
+    }
+
+    const response = await authFetch(`${API_BASE_URL}/blogs/${id}/content`, {
+      method: 'PATCH',
+      headers: {
+        'Content-Type': 'application/json',
+        Authorization: `Bearer ${token}`,
+      },
+      body: JSON.stringify({ baseUpdatedAt, edits: diffContent(baseContent, newContent) }),
+    })
+
+    if (response.status === 409) {
+      const result: ApiResponse<ContentVersion> = await response.json()
+      return {
+        success: false,
+        conflict: true,
+        message: result.error || '博客已被修改，请刷新后重试',
+        version: result.data ?? undefined,
+      }
+    }
+    if (!response.ok) {
+      return { success: false, conflict: false, message: `Network response was not ok (${response.status})` }
+    }
+
+    const result: ApiResponse<ContentVersion> = await response.json()
+    if (result.status === 0 && result.data) {
+      return { success: true, conflict: false, message: '博客内容已保存', version: result.data }
+    } else {
+      console.error('Error saving content delta:', result.error)
+      return { success: false, conflict: false, message: result.error || '保存博客内容失败' }
+    }
+  } catch (error) {
+    console.error('Failed to save content delta:', error)
+    return {
+      success: false,
+      conflict: false,
+      message: error instanceof Error ? error.message : '保存博客内容失败',
+    }
+  }
+}
+
 export async function addBlog(
   title: string,
   categories: string,
@@ -239,7 +347,7 @@ export async function addBlog(
       content, // 使用传入的 content 参数
     }
 
-    const response = await fetch(`${API_BASE_URL}/blogs`, {
+    const response = await authFetch(`${API_BASE_URL}/blogs`, {
       method: 'POST',
       headers: {
         'Content-Type': 'application/json',
@@ -288,7 +396,7 @@ export async function deleteBlog(
       return { success: false, message: '用户未认证' }
     }
 
-    const response = await fetch(`${API_BASE_URL}/blogs/${id}`, {
+    const response = await authFetch(`${API_BASE_URL}/blogs/${id}`, {
       // Updated endpoint
       method: 'DELETE', // Added DELETE method
       headers: {
@@ -340,7 +448,7 @@ export async function uploadImage(
     }
 
     // The API endpoint is /image/upload and is not prefixed with /api
-    const response = await fetch('/image/upload', {
+    const response = await authFetch('/image/upload', {
       // Ensure this matches your server configuration (e.g., http://localhost:8080/image/upload if not using a proxy)
       method: 'POST',
       headers: headers,
@@ -389,7 +497,7 @@ export async function getImageByFilename(filename: string): Promise<Blob | null>
     }
 
     // The API endpoint is /image/{filename}
-    const response = await fetch(`/image/${encodeURIComponent(filename)}`, {
+    const response = await authFetch(`/image/${encodeURIComponent(filename)}`, {
       method: 'GET',
       headers: headers,
     })
@@ -418,6 +526,9 @@ export async function searchBlogs(params: {
   title?: string
   categories?: string
   tags?: string
+  minWords?: number
+  maxWords?: number
+  sort?: 'createdAt' | 'updatedAt' | 'title' | 'wordCount'
 }): Promise<BlogListItem[]> {
   try {
     const token = AuthService.getToken()
@@ -437,8 +548,18 @@ export async function searchBlogs(params: {
     if (params.tags) {
       queryParams.append('tags', params.tags)
     }
+    if (params.minWords != null) {
+      queryParams.append('minWords', String(params.minWords))
+    }
+    if (params.maxWords != null) {
+      queryParams.append('maxWords', String(params.maxWords))
+    }
+    if (params.sort) {
+      queryParams.append('sort', params.sort)
+    }
+    queryParams.append('size', '100')
 
-    const response = await fetch(`${API_BASE_URL}/blogs/search?${queryParams.toString()}`, {
+    const response = await authFetch(`${API_BASE_URL}/blogs/search?${queryParams.toString()}`, {
       headers: headers,
     })
 
@@ -446,9 +567,21 @@ export async function searchBlogs(params: {
       throw new Error('Network response was not ok')
     }
 
-    const result: ApiResponse<BlogListItem[]> = await response.json()
+    const result: ApiResponse<BlogSummary[]> = await response.json()
     if (result.status === 0 && result.data) {
-      return result.data
+      return result.data.map((item) => ({
+        id: item.id,
+        title: item.title,
+        filename: '',
+        categories: item.categories,
+        tags: item.tags ?? [],
+        saying: item.saying,
+        date: item.createdAt,
+        dateTime: item.createdAt,
+        excerpt: item.excerpt,
+        wordCount: item.wordCount,
+        readingMinutes: item.readingMinutes,
+      }))
     } else {
       console.error('Error searching blogs:', result.error)
       return []
@@ -458,3 +591,120 @@ export async function searchBlogs(params: {
     return []
   }
 }
+
+// 获取服务端渲染的博客 HTML，图片路径已改写为 /image/...，失败时返回 null
+export async function getBlogHtml(id: number): Promise<BlogHtml | null> {
+  try {
+    const token = AuthService.getToken()
+    const headers: HeadersInit = {}
+    if (token) {
+      headers['Authorization'] = `Bearer ${token}`
+    }
+
+    const response = await authFetch(`${API_BASE_URL}/blogs/${id}/html`, { headers })
+    if (!response.ok) {
+      throw new Error(`Network response was not ok (${response.status})`)
+    }
+
+    const result: ApiResponse<BlogHtml> = await response.json()
+    if (result.status === 0 && result.data) {
+      return result.data
+    } else {
+      console.error('Error fetching blog html:', result.error)
+      return null
+    }
+  } catch (error) {
+    console.error('Failed to fetch blog html:', error)
+    return null
+  }
+}
+
+// 获取博客的修订列表（按修订号倒序，不含正文）
+export async function getBlogRevisions(id: number): Promise<BlogRevisionSummary[]> {
+  try {
+    const token = AuthService.getToken()
+    const headers: HeadersInit = {}
+    if (token) {
+      headers['Authorization'] = `Bearer ${token}`
+    }
+
+    const response = await authFetch(`${API_BASE_URL}/blogs/${id}/revisions`, { headers })
+    if (!response.ok) {
+      throw new Error(`Network response was not ok (${response.status})`)
+    }
+
+    const result: ApiResponse<BlogRevisionSummary[]> = await response.json()
+    if (result.status === 0 && result.data) {
+      return result.data
+    } else {
+      console.error('Error fetching blog revisions:', result.error)
+      return []
+    }
+  } catch (error) {
+    console.error('Failed to fetch blog revisions:', error)
+    return []
+  }
+}
+
+// 获取一条修订的完整内容
+export async function getBlogRevision(id: number, revisionNo: number): Promise<BlogRevisionContent | null> {
+  try {
+    const token = AuthService.getToken()
+    const headers: HeadersInit = {}
+    if (token) {
+      headers['Authorization'] = `Bearer ${token}`
+    }
+
+    const response = await authFetch(`${API_BASE_URL}/blogs/${id}/revisions/${revisionNo}`, { headers })
+    if (!response.ok) {
+      throw new Error(`Network response was not ok (${response.status})`)
+    }
+
+    const result: ApiResponse<BlogRevisionContent> = await response.json()
+    if (result.status === 0 && result.data) {
+      return result.data
+    } else {
+      console.error('Error fetching blog revision:', result.error)
+      return null
+    }
+  } catch (error) {
+    console.error('Failed to fetch blog revision:', error)
+    return null
+  }
+}
+
+// 把博客恢复到指定修订，恢复本身也会产生一条新修订
+export async function restoreBlogRevision(
+  id: number,
+  revisionNo: number,
+): Promise<{ success: boolean; message: string }> {
+  try {
+    const token = AuthService.getToken()
+    if (!token) {
+      return { success: false, message: '用户未认证' }
+    }
+
+    const response = await authFetch(`${API_BASE_URL}/blogs/${id}/revisions/${revisionNo}/restore`, {
+      method: 'POST',
+      headers: {
+        Authorization: `Bearer ${token}`,
+      },
+    })
+    if (!response.ok) {
+      return { success: false, message: `Network response was not ok (${response.status})` }
+    }
+
+    const result: ApiResponse<null> = await response.json()
+    if (result.status === 0) {
+      return { success: true, message: result.error || '博客已恢复' }
+    } else {
+      return { success: false, message: result.error || '恢复修订失败' }
+    }
+  } catch (error) {
+    console.error('Failed to restore blog revision:', error)
+    return {
+      success: false,
+      message: error instanceof Error ? error.message : '恢复修订失败',
+    }
+  }
+}
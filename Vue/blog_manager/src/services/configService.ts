@@ -1,4 +1,4 @@
-import { AuthService } from './authService.js'
+import { AuthService, authFetch } from './authService.js'
 
 export interface SystemConfig {
   blogStoragePath: string
@@ -19,7 +19,7 @@ export class ConfigService {
         headers['Authorization'] = `Bearer ${token}`
       }
 
-      const response = await fetch('/config/get', {
+      const response = await authFetch('/config/get', {
         headers: headers,
       })
 
@@ -45,7 +45,7 @@ export class ConfigService {
         throw new Error('用户未认证')
       }
 
-      const response = await fetch('/config/set', {
+      const response = await authFetch('/config/set', {
         method: 'POST',
         headers: {
           'Content-Type': 'application/json',
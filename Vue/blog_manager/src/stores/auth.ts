@@ -11,6 +11,31 @@ export const useAuthStore = defineStore('auth', () => {
   // 计算属性
   const isAuthenticated = computed(() => !!token.value)
 
+  // 访问令牌过期前一分钟自动刷新
+  let refreshTimer: ReturnType<typeof setTimeout> | null = null
+
+  function scheduleRefresh() {
+    if (refreshTimer) {
+      clearTimeout(refreshTimer)
+    }
+    const expiresIn = AuthService.getTokenExpiresIn()
+    if (expiresIn === null) {
+      return
+    }
+    refreshTimer = setTimeout(refreshToken, Math.max(expiresIn - 60_000, 0))
+  }
+
+  async function refreshToken() {
+    try {
+      const response = await AuthService.refresh()
+      token.value = response.accessToken
+      scheduleRefresh()
+    } catch {
+      // 刷新令牌无效或已过期，需要重新登录
+      logout()
+    }
+  }
+
   // 初始化 - 从本地存储加载认证信息
   function initAuth() {
     const savedToken = AuthService.getToken()
@@ -19,6 +44,7 @@ export const useAuthStore = defineStore('auth', () => {
     if (savedToken && savedUser) {
       token.value = savedToken
       user.value = savedUser
+      scheduleRefresh()
     }
   }
 
@@ -37,6 +63,7 @@ export const useAuthStore = defineStore('auth', () => {
         username: response.username,
         email: response.email,
       }
+      scheduleRefresh()
 
       return response
     } catch (error) {
@@ -56,6 +83,14 @@ export const useAuthStore = defineStore('auth', () => {
 
   // 登出
   function logout() {
+    if (refreshTimer) {
+      clearTimeout(refreshTimer)
+      refreshTimer = null
+    }
+    // 通知服务端作废令牌，不等待结果
+    if (token.value) {
+      AuthService.logout()
+    }
     // 清除本地存储
     AuthService.clearAuthData()
 
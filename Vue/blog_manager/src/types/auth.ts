@@ -19,6 +19,8 @@ export interface RegisterRequest {
 
 export interface LoginResponse {
   accessToken: string
+  refreshToken: string
+  expiresIn: number // 访问令牌有效期（秒）
   tokenType: string
   id: number
   username: string
@@ -7,9 +7,91 @@ export interface BlogListItem {
   tags: string[]
   saying: string
   dateTime: string // 将 date 修改为 dateTime
+  date?: string // 后端 Blog 实际返回的日期字段
+  excerpt?: string | null // 纯文本预览，来自摘要接口
+  wordCount?: number | null // 字数（中日韩文字逐字计数）
+  readingMinutes?: number | null // 预计阅读分钟数
 }
 
 export interface BlogDetail extends BlogListItem {
   filepath: string
   content: string
+  updatedAt?: string // 最后更新时间，增量更新正文时作为基准版本
+}
+
+// PATCH /api/blogs/{id}/content 返回的正文版本
+export interface ContentVersion {
+  updatedAt: string
+  hash: string
+  length: number
+}
+
+// 正文修改：把基准正文 [start, end) 替换为 text
+export interface ContentEdit {
+  start: number
+  end: number
+  text: string
+}
+
+// GET /api/blogs/{id}/revisions 返回的修订摘要（不含正文）
+export interface BlogRevisionSummary {
+  revisionNo: number
+  snapshot: boolean
+  title: string
+  contentLength: number
+  contentHash: string
+  storedSize: number
+  createdAt: string
+}
+
+// GET /api/blogs/{id}/revisions/{revisionNo} 返回的修订内容
+export interface BlogRevisionContent {
+  blogId: number
+  revisionNo: number
+  title: string
+  categories: string
+  tags: string[] | null
+  saying: string
+  content: string
+  contentHash: string
+  createdAt: string
+}
+
+// GET /api/blogs/{id}/html 返回的服务端渲染结果（不含 Markdown 原文）
+export interface BlogHtml {
+  id: number
+  title: string
+  categories: string
+  tags: string[] | null
+  saying: string
+  date: string
+  updatedAt: string
+  contentHash: string
+  html: string
+}
+
+// GET /api/blogs/lists 返回的摘要（不含正文）
+export interface BlogSummary {
+  id: number
+  title: string
+  categories: string
+  tags: string[] | null
+  saying: string
+  excerpt: string | null // 写入时计算的纯文本预览，回填完成前可能为 null
+  charCount: number | null
+  wordCount: number | null
+  readingMinutes: number | null
+  createdAt: string
+  updatedAt: string
+}
+
+export interface BlogCursor {
+  createdAt: string
+  id: number
+}
+
+export interface BlogSummaryPage {
+  items: BlogSummary[]
+  nextCursor: BlogCursor | null
+  hasMore: boolean
 }
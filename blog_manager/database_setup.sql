@@ -16,6 +16,8 @@ CREATE TABLE IF NOT EXISTS users (
     email VARCHAR(255) NOT NULL UNIQUE,
     password VARCHAR(255) NOT NULL,
     role VARCHAR(20) NOT NULL DEFAULT 'USER',
+    token_version INT NOT NULL DEFAULT 0,
+    tokens_revoked_at DATETIME(6),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     INDEX idx_username (username),
@@ -23,22 +25,111 @@ CREATE TABLE IF NOT EXISTS users (
 ) ENGINE=InnoDB CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci;
 
 -- 创建博客表
+-- id 由 blogs_seq 分配，不使用自增列
 CREATE TABLE IF NOT EXISTS blogs (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     title VARCHAR(200) NOT NULL,
-    content TEXT NOT NULL,
+    content TEXT,
+    content_packed LONGBLOB,
+    excerpt VARCHAR(500),
+    char_count INT,
+    word_count INT,
+    reading_minutes INT,
     categories VARCHAR(255),
     tags VARCHAR(500),
     saying VARCHAR(500),
     filename VARCHAR(255),
     user_id BIGINT NOT NULL,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    -- updated_at 是增量更新和 ETag 使用的版本号，需要微秒精度；由应用写入，不使用 ON UPDATE
+    created_at DATETIME(6) DEFAULT CURRENT_TIMESTAMP(6),
+    updated_at DATETIME(6) DEFAULT CURRENT_TIMESTAMP(6),
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
     INDEX idx_user_id (user_id),
     INDEX idx_title (title),
     INDEX idx_created_at (created_at),
-    FULLTEXT idx_content_search (title, content)
+    INDEX idx_user_created_id (user_id, created_at, id),
+    INDEX idx_user_updated (user_id, updated_at),
+    INDEX idx_user_words (user_id, word_count),
+    UNIQUE KEY uk_user_filename (user_id, filename),
+    -- 使用 ngram 解析器以支持中文分词（MySQL 5.7.6+），默认 ngram_token_size=2
+    FULLTEXT idx_content_search (title, content) WITH PARSER ngram
+) ENGINE=InnoDB CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci;
+
+-- 创建标签字典表
+CREATE TABLE IF NOT EXISTS tag (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    UNIQUE KEY uk_tag_name (name)
+) ENGINE=InnoDB CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci;
+
+-- 创建博客-标签关联表（冗余 user_id 以便按用户查询和统计）
+CREATE TABLE IF NOT EXISTS blog_tag (
+    blog_id BIGINT NOT NULL,
+    tag_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    PRIMARY KEY (blog_id, tag_id),
+    FOREIGN KEY (blog_id) REFERENCES blogs(id) ON DELETE CASCADE,
+    FOREIGN KEY (tag_id) REFERENCES tag(id) ON DELETE CASCADE,
+    INDEX idx_blog_tag_user_tag (user_id, tag_id, blog_id),
+    INDEX idx_blog_tag_tag (tag_id, blog_id)
+) ENGINE=InnoDB CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci;
+
+-- 创建博客修订表（快照 + 压缩增量，data 为 Deflate 压缩数据）
+CREATE TABLE IF NOT EXISTS blog_revision (
+    id BIGINT PRIMARY KEY,
+    blog_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    revision_no INT NOT NULL,
+    snapshot BIT NOT NULL,
+    chain_length INT NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    categories VARCHAR(255),
+    -- 与 blogs 表对应列的长度一致
+    tags VARCHAR(500),
+    saying VARCHAR(500),
+    content_length INT NOT NULL,
+    content_hash VARCHAR(64) NOT NULL,
+    data MEDIUMBLOB NOT NULL,
+    stored_size INT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    UNIQUE KEY uk_revision_blog_no (blog_id, revision_no),
+    INDEX idx_revision_created (created_at),
+    FOREIGN KEY (blog_id) REFERENCES blogs(id) ON DELETE CASCADE
+) ENGINE=InnoDB CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci;
+
+-- 修订ID序列，与 blogs_seq 相同按 50 个一段预分配
+CREATE TABLE IF NOT EXISTS blog_revision_seq (
+    next_val BIGINT
+) ENGINE=InnoDB;
+INSERT INTO blog_revision_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM blog_revision_seq);
+
+-- 创建刷新令牌表（只保存令牌的 SHA-256，轮换后 revoked_at 非空）
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    token_hash VARCHAR(64) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    revoked_at DATETIME(6),
+    UNIQUE KEY uk_refresh_token_hash (token_hash),
+    INDEX idx_refresh_user (user_id),
+    INDEX idx_refresh_expires (expires_at)
+) ENGINE=InnoDB CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci;
+
+-- 创建已吊销访问令牌表（按 JWT 的 jti 记录，令牌过期后由定时任务删除）
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    jti VARCHAR(36) PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    revoked_at DATETIME(6) NOT NULL,
+    INDEX idx_revoked_expires (expires_at)
+) ENGINE=InnoDB CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci;
+
+-- 创建应用内部设置表（记录已应用到数据上的配置，如正文存储方式）
+CREATE TABLE IF NOT EXISTS app_settings (
+    name VARCHAR(100) PRIMARY KEY,
+    setting_value VARCHAR(255),
+    updated_at DATETIME(6) NOT NULL
 ) ENGINE=InnoDB CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci;
 
 -- 插入默认管理员用户（密码是加密的"admin123"）
@@ -48,8 +139,9 @@ INSERT INTO users (username, email, password, role) VALUES
 ON DUPLICATE KEY UPDATE username=username;
 
 -- 创建示例博客数据
-INSERT INTO blogs (title, content, categories, tags, saying, user_id) VALUES 
+INSERT INTO blogs (id, title, content, categories, tags, saying, user_id) VALUES 
 (
+    1,
     '欢迎使用博客管理系统',
     '# 欢迎使用博客管理系统\n\n这是一个基于Spring Boot开发的现代化博客管理系统。\n\n## 主要功能\n\n- 用户注册和登录\n- 博客文章的创建、编辑和删除\n- 分类和标签管理\n- 响应式用户界面\n\n开始你的博客之旅吧！',
     '系统公告',
@@ -58,6 +150,7 @@ INSERT INTO blogs (title, content, categories, tags, saying, user_id) VALUES
     1
 ),
 (
+    2,
     'Spring Boot 开发指南',
     '# Spring Boot 开发指南\n\n## 简介\n\nSpring Boot 是一个基于 Spring 框架的开源 Java 应用程序框架...\n\n## 核心特性\n\n1. 自动配置\n2. 嵌入式服务器\n3. 生产就绪的功能\n\n## 快速开始\n\n```java\n@SpringBootApplication\npublic class Application {\n    public static void main(String[] args) {\n        SpringApplication.run(Application.class, args);\n    }\n}\n```',
     '技术教程',
@@ -67,6 +160,14 @@ INSERT INTO blogs (title, content, categories, tags, saying, user_id) VALUES
 )
 ON DUPLICATE KEY UPDATE title=title;
 
+-- 博客ID序列（MySQL 没有 SEQUENCE，由 Hibernate 以单行表模拟，每次预分配 50 个ID）
+-- 在示例数据之后创建，从当前最大ID之后一个完整的预分配段开始，避免与已有博客冲突
+CREATE TABLE IF NOT EXISTS blogs_seq (
+    next_val BIGINT
+) ENGINE=InnoDB;
+INSERT INTO blogs_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM blogs_seq);
+UPDATE blogs_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 51 FROM blogs));
+
 -- 显示创建结果
 SHOW TABLES;
 SELECT COUNT(*) as user_count FROM users;
@@ -0,0 +1,38 @@
+package com.ulna.blog_manager.Config;
+
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+/**
+ * 按目标耗时选择 BCrypt 成本
+ *
+ * 在较低成本下测量几次哈希耗时，成本每加 1 耗时翻倍，取耗时不超过目标的最大成本，
+ * 并限制在 [minStrength, maxStrength] 范围内。只在启动时执行一次。
+ */
+public final class BCryptCalibrator {
+
+    private static final int PROBE_STRENGTH = 8;
+    private static final int PROBE_ROUNDS = 5;
+
+    private BCryptCalibrator() {
+    }
+
+    public static int calibrate(long targetMillis, int minStrength, int maxStrength) {
+        String salt = BCrypt.gensalt(PROBE_STRENGTH);
+        // 第一次包含类加载和 JIT 预热，不计入
+        BCrypt.hashpw("calibration", salt);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < PROBE_ROUNDS; i++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw("calibration", salt);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double probeMillis = Math.max(best / 1_000_000.0, 0.001);
+        int strength = PROBE_STRENGTH;
+        double millis = probeMillis;
+        while (strength < maxStrength && millis * 2 <= targetMillis) {
+            millis *= 2;
+            strength++;
+        }
+        return Math.max(minStrength, Math.min(maxStrength, strength));
+    }
+}
@@ -0,0 +1,19 @@
+package com.ulna.blog_manager.Config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 注入当前登录用户（JwtUserPrincipal）
+ *
+ * 用户由 JwtAuthenticationFilter 在每个请求中构建一次，控制器直接使用其中的ID和用户名，
+ * 不再按用户名查询 users 表。只能用于需要认证的接口。
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+}
@@ -1,6 +1,8 @@
 package com.ulna.blog_manager.Config;
 
+import com.ulna.blog_manager.model.User;
 import com.ulna.blog_manager.service.UserService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,7 +12,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -27,17 +29,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private UserTokenRevocations tokenRevocations;
+    
+    @Autowired
+    private RevokedTokenIds revokedTokenIds;
+    
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
                                     FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUsernameFromJwtToken(jwt);
-                
-                UserDetails userDetails = userService.loadUserByUsername(username);
+            Claims claims = jwt != null ? jwtUtils.parseJwtToken(jwt) : null;
+            if (claims != null && !revokedTokenIds.isRevoked(claims.getId())
+                    && !tokenRevocations.isRevoked(claims.getSubject(), claims.get(JwtUtils.CLAIM_TOKEN_VERSION, Integer.class))) {
+                JwtUserPrincipal principal = toPrincipal(claims);
                 UsernamePasswordAuthenticationToken authentication = 
-                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                    new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -49,6 +57,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    // 用户ID和角色取自令牌声明；缺少这两个声明的旧令牌仍按用户名从数据库加载，过期后不再出现
+    private JwtUserPrincipal toPrincipal(Claims claims) {
+        Long userId = claims.get(JwtUtils.CLAIM_USER_ID, Long.class);
+        String role = claims.get(JwtUtils.CLAIM_ROLE, String.class);
+        if (userId == null || role == null) {
+            User user = userService.findByUsername(claims.getSubject())
+                    .orElseThrow(() -> new UsernameNotFoundException("用户不存在: " + claims.getSubject()));
+            return new JwtUserPrincipal(user.getId(), user.getUsername(), user.getRole().name());
+        }
+        return new JwtUserPrincipal(userId, claims.getSubject(), role);
+    }
+    
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
         
@@ -0,0 +1,57 @@
+package com.ulna.blog_manager.Config;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 由 JWT 声明构建的当前用户
+ *
+ * 用户ID、用户名和角色都来自已验证签名的令牌，认证时不需要查询 users 表。
+ * 不持有密码；实现 UserDetails 是为了兼容按 UserDetails 读取用户名的代码。
+ */
+public final class JwtUserPrincipal implements UserDetails {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+    private final String username;
+    private final String role;
+
+    public JwtUserPrincipal(Long id, String username, String role) {
+        this.id = id;
+        this.username = username;
+        this.role = role;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role));
+    }
+
+    @Override
+    public String toString() {
+        return username;
+    }
+}
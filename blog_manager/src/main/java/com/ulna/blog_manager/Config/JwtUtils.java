@@ -1,7 +1,13 @@
 package com.ulna.blog_manager.Config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.ulna.blog_manager.model.User;
+import com.ulna.blog_manager.service.ContentHash;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -9,47 +15,113 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtUtils {
     
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
     
+    // 签名保护的用户声明，认证时据此构建 JwtUserPrincipal，不再查询数据库
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    // 用户的令牌版本，低于当前版本的令牌已被吊销（见 UserTokenRevocations）
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+    
     @Value("${jwt.secret}")
     private String jwtSecret;
     
     @Value("${jwt.expiration}")
     private int jwtExpirationMs;
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    // 最近验证通过的令牌数量上限
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private long verifiedCacheMaxSize;
+    
+    // 密钥和解析器只构建一次，JwtParser 是线程安全的
+    private SecretKey signingKey;
+    
+    private JwtParser jwtParser;
+    
+    // 令牌的 SHA-256 -> 已验证的声明，条目在令牌过期时一起过期，缓存中不保存令牌原文
+    private Cache<String, Claims> verifiedTokens;
+    
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                        Date expiration = claims.getExpiration();
+                        long remainingMs = expiration != null
+                                ? expiration.getTime() - System.currentTimeMillis()
+                                : jwtExpirationMs;
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMs, 0));
+                    }
+                    
+                    @Override
+                    public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                    
+                    @Override
+                    public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
     
-    public String generateJwtToken(String username) {
+    // 每个令牌带随机 jti，登出时按 jti 吊销单个令牌
+    public String generateJwtToken(User user) {
         return Jwts.builder()
-                .setSubject(username)
+                .setId(UUID.randomUUID().toString())
+                .setSubject(user.getUsername())
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_ROLE, user.getRole().name())
+                .claim(CLAIM_TOKEN_VERSION, user.getTokenVersion())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
     
+    public int getJwtExpirationMs() {
+        return jwtExpirationMs;
+    }
+    
     public String getUsernameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        Claims claims = parseJwtToken(token);
+        return claims != null ? claims.getSubject() : null;
     }
     
     public boolean validateJwtToken(String authToken) {
+        return parseJwtToken(authToken) != null;
+    }
+    
+    /**
+     * 验证签名和有效期并返回声明，令牌无效时返回 null
+     * 同一令牌验证通过后直接返回缓存的声明，不再重复解码和计算 HMAC
+     */
+    public Claims parseJwtToken(String authToken) {
+        if (authToken == null || authToken.isEmpty()) {
+            return null;
+        }
+        String tokenHash = ContentHash.sha256(authToken);
+        Claims cached = verifiedTokens.getIfPresent(tokenHash);
+        if (cached != null) {
+            return cached;
+        }
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
+            Claims claims = jwtParser.parseClaimsJws(authToken).getBody();
+            verifiedTokens.put(tokenHash, claims);
+            return claims;
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -59,6 +131,6 @@ public class JwtUtils {
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty: {}", e.getMessage());
         }
-        return false;
+        return null;
     }
 }
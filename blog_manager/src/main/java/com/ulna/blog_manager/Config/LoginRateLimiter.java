@@ -0,0 +1,88 @@
+package com.ulna.blog_manager.Config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * 登录限流：按客户端IP和用户名分别使用令牌桶
+ *
+ * 每次登录尝试在验证密码之前从两个桶中各取一个令牌，任一桶为空时立即拒绝，不占用 BCrypt 计算。
+ * 桶按 capacity / refill-per-minute 匀速补充，空闲一段时间后从缓存中淘汰（淘汰即回到满桶）。
+ * IP 取自连接的远端地址；部署在反向代理之后时需要由代理（或 server.forward-headers-strategy）提供真实地址。
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final Cache<String, TokenBucket> ipBuckets;
+    private final Cache<String, TokenBucket> userBuckets;
+
+    private final int ipCapacity;
+    private final double ipRefillPerNano;
+    private final int userCapacity;
+    private final double userRefillPerNano;
+
+    public LoginRateLimiter(@Value("${blog.login.rate.ip.capacity:20}") int ipCapacity,
+                            @Value("${blog.login.rate.ip.refill-per-minute:20}") int ipRefillPerMinute,
+                            @Value("${blog.login.rate.user.capacity:5}") int userCapacity,
+                            @Value("${blog.login.rate.user.refill-per-minute:5}") int userRefillPerMinute,
+                            @Value("${blog.login.rate.max-keys:100000}") long maxKeys) {
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPerNano = ipRefillPerMinute / (double) Duration.ofMinutes(1).toNanos();
+        this.userCapacity = userCapacity;
+        this.userRefillPerNano = userRefillPerMinute / (double) Duration.ofMinutes(1).toNanos();
+        this.ipBuckets = Caffeine.newBuilder().maximumSize(maxKeys).expireAfterAccess(Duration.ofMinutes(10)).build();
+        this.userBuckets = Caffeine.newBuilder().maximumSize(maxKeys).expireAfterAccess(Duration.ofMinutes(10)).build();
+    }
+
+    /**
+     * 尝试登录一次
+     *
+     * @return 0 表示允许；否则为建议的重试等待秒数
+     */
+    public long tryAcquire(String ip, String username) {
+        TokenBucket ipBucket = ipBuckets.get(ip, k -> new TokenBucket(ipCapacity, ipRefillPerNano));
+        long ipWait = ipBucket.tryConsume();
+        if (ipWait > 0) {
+            return ipWait;
+        }
+        String key = username != null ? username.toLowerCase(Locale.ROOT) : "";
+        TokenBucket userBucket = userBuckets.get(key, k -> new TokenBucket(userCapacity, userRefillPerNano));
+        return userBucket.tryConsume();
+    }
+
+    private static final class TokenBucket {
+
+        private final int capacity;
+        private final double refillPerNano;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(int capacity, double refillPerNano) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerNano;
+            this.tokens = capacity;
+            this.lastRefill = System.nanoTime();
+        }
+
+        // 成功时返回 0，否则返回攒够一个令牌还需要的秒数（至少 1）
+        synchronized long tryConsume() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            if (refillPerNano <= 0) {
+                return 60;
+            }
+            long waitNanos = (long) Math.ceil((1 - tokens) / refillPerNano);
+            return Math.max(1, Duration.ofNanos(waitNanos).toSeconds());
+        }
+    }
+}
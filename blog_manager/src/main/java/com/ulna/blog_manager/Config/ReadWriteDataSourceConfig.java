@@ -0,0 +1,76 @@
+package com.ulna.blog_manager.Config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * 读写分离数据源配置
+ *
+ * 配置了 blog.datasource.replica.url 时生效：spring.datasource.* 为主库连接池，
+ * blog.datasource.replica.* 为从库连接池，应用使用的 DataSource 为按事务只读属性路由的代理。
+ * 未配置从库时不创建这些 Bean，由 Spring Boot 自动配置单一数据源。
+ *
+ * 本地可以把从库指向另一个嵌入式数据库验证路由（见测试 profile replica 和 ReadWriteRoutingTest）。
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "blog.datasource.replica", name = "url")
+public class ReadWriteDataSourceConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadWriteDataSourceConfig.class);
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties primaryDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("blog.datasource.replica")
+    public DataSourceProperties replicaDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(@Qualifier("primaryDataSourceProperties") DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("blog.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Qualifier("replicaDataSourceProperties") DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReadYourWritesTracker tracker) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(tracker);
+        routing.setTargetDataSources(Map.of(ReadWriteRoutingDataSource.PRIMARY, primary,
+                ReadWriteRoutingDataSource.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        logger.info("已启用读写分离：只读事务使用从库连接池");
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
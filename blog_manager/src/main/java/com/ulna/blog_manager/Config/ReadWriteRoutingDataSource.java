@@ -0,0 +1,44 @@
+package com.ulna.blog_manager.Config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 读写分离路由数据源
+ *
+ * 只读事务（@Transactional(readOnly = true)）路由到从库，其余（读写事务、无事务的访问）路由到主库。
+ * 读写事务获取连接时记录当前用户，该用户在读己之写窗口内的只读事务也走主库。
+ * 需要包在 LazyConnectionDataSourceProxy 中使用：事务开始时还不知道是否只读，
+ * 延迟到第一条语句执行时才决定路由。
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private final ReadYourWritesTracker tracker;
+
+    public ReadWriteRoutingDataSource(ReadYourWritesTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String username = tracker.currentUser();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                tracker.recordWrite(username);
+            }
+            return PRIMARY;
+        }
+        if (tracker.mustReadPrimary(username)) {
+            logger.debug("用户 {} 处于读己之写窗口内，只读事务使用主库", username);
+            return PRIMARY;
+        }
+        return REPLICA;
+    }
+}
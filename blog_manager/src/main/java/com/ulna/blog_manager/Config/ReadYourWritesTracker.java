@@ -0,0 +1,84 @@
+package com.ulna.blog_manager.Config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * 读己之写窗口
+ *
+ * 记录每个用户最近一次写入的时间。用户写入后的 blog.datasource.replica.read-your-writes-window 内，
+ * 该用户的只读事务仍然路由到主库，避免从库复制延迟导致刚保存的内容“消失”。
+ * 当前用户取自 SecurityContext；登录等尚未认证的请求可以用 readAs 指定。
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private final Cache<String, Long> recentWriters;
+
+    // 未认证请求中由调用方指定的用户名
+    private final ThreadLocal<String> subject = new ThreadLocal<>();
+
+    public ReadYourWritesTracker(@Value("${blog.datasource.replica.read-your-writes-window:5s}") Duration window) {
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    /**
+     * 记录用户刚刚写入
+     */
+    public void recordWrite(String username) {
+        if (username != null) {
+            recentWriters.put(username, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * 用户是否仍在写入后的窗口内，需要从主库读取
+     */
+    public boolean mustReadPrimary(String username) {
+        return username != null && recentWriters.getIfPresent(username) != null;
+    }
+
+    /**
+     * 以指定用户的身份执行读取，用于还没有认证信息的请求（如登录）
+     */
+    public <T> T readAs(String username, Supplier<T> action) {
+        String previous = subject.get();
+        subject.set(username);
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                subject.set(previous);
+            } else {
+                subject.remove();
+            }
+        }
+    }
+
+    /**
+     * 当前请求的用户名，没有时返回 null
+     */
+    public String currentUser() {
+        String username = subject.get();
+        if (username != null) {
+            return username;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,157 @@
+package com.ulna.blog_manager.Config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 已吊销访问令牌的 jti 集合
+ *
+ * 每个认证请求都要检查，因此只在内存中判断：先查布隆过滤器，绝大多数未吊销的令牌在这里就返回，
+ * 过滤器命中时再查精确集合排除误判。布隆过滤器按 jwt.revocation.expected-ids 和
+ * jwt.revocation.false-positive-rate 确定大小；吊销记录保存在 revoked_tokens 表中，
+ * 启动时和定时同步时从表中合并。
+ */
+@Component
+public class RevokedTokenIds {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevokedTokenIds.class);
+
+    private final long expectedIds;
+    private final double falsePositiveRate;
+
+    // jti -> 令牌过期时间（毫秒）
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    // 读取不加锁；写入和重建在同一把锁内，避免重建时漏掉并发加入的 jti
+    private volatile BloomFilter filter;
+    private long filterCapacity;
+    private final Object writeLock = new Object();
+
+    public RevokedTokenIds(@Value("${jwt.revocation.expected-ids:100000}") long expectedIds,
+                           @Value("${jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.expectedIds = Math.max(1, expectedIds);
+        this.falsePositiveRate = falsePositiveRate;
+        this.filterCapacity = this.expectedIds;
+        this.filter = new BloomFilter(this.expectedIds, falsePositiveRate);
+    }
+
+    /**
+     * 记录一个吊销的 jti，expiresAtMillis 为令牌本身的过期时间
+     */
+    public void add(String jti, long expiresAtMillis) {
+        synchronized (writeLock) {
+            revoked.put(jti, expiresAtMillis);
+            filter.put(jti);
+            if (revoked.size() == filterCapacity + 1) {
+                logger.warn("已吊销令牌数超过布隆过滤器容量 {}，下次同步时扩容", filterCapacity);
+            }
+        }
+    }
+
+    public boolean isRevoked(String jti) {
+        return jti != null && filter.mightContain(jti) && revoked.containsKey(jti);
+    }
+
+    /**
+     * 合并数据库中的记录并移除已过期的 jti（令牌本身已经无法通过验证）
+     *
+     * 只合并不替换：本进程刚加入、所在事务尚未提交的 jti 不会因为数据库中暂时查不到而丢失。
+     * 启动时和定时同步时调用，多实例部署时其他实例吊销的 jti 在下一次同步后生效。
+     *
+     * @return 移除的过期条数
+     */
+    public int merge(Map<String, Long> entries) {
+        long now = System.currentTimeMillis();
+        synchronized (writeLock) {
+            for (Map.Entry<String, Long> entry : entries.entrySet()) {
+                if (entry.getValue() > now && revoked.putIfAbsent(entry.getKey(), entry.getValue()) == null) {
+                    filter.put(entry.getKey());
+                }
+            }
+            int before = revoked.size();
+            revoked.values().removeIf(expiresAt -> expiresAt <= now);
+            int removed = before - revoked.size();
+            // 布隆过滤器不支持删除，有条目移除或容量不足时按剩余条目重新构建
+            if (removed > 0 || revoked.size() > filterCapacity) {
+                rebuildFilter();
+            }
+            return removed;
+        }
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    private void rebuildFilter() {
+        filterCapacity = Math.max(expectedIds, revoked.size() * 2L);
+        BloomFilter rebuilt = new BloomFilter(filterCapacity, falsePositiveRate);
+        for (String jti : revoked.keySet()) {
+            rebuilt.put(jti);
+        }
+        filter = rebuilt;
+    }
+
+    // 位数组按 m = -n·ln(p) / ln(2)²、哈希函数个数 k = m/n·ln(2) 计算；k 个位置由两个 64 位哈希组合得到
+    private static final class BloomFilter {
+
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+
+        BloomFilter(long expected, double fpp) {
+            double p = Math.min(Math.max(fpp, 1e-9), 0.5);
+            long m = (long) Math.ceil(-expected * Math.log(p) / (Math.log(2) * Math.log(2)));
+            int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (m + 63) >>> 6));
+            this.bits = new AtomicLongArray(words);
+            this.bitCount = (long) words << 6;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expected * Math.log(2)));
+        }
+
+        void put(String value) {
+            long h1 = hash(value, 0x9E3779B97F4A7C15L);
+            long h2 = hash(value, 0xC2B2AE3D27D4EB4FL);
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = bits.get(word);
+                } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String value) {
+            long h1 = hash(value, 0x9E3779B97F4A7C15L);
+            long h2 = hash(value, 0xC2B2AE3D27D4EB4FL);
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // FNV-1a 逐字符累加后做 64 位混淆（MurmurHash3 的 fmix64），种子不同得到两个独立的哈希
+        private static long hash(String value, long seed) {
+            long h = seed;
+            for (int i = 0; i < value.length(); i++) {
+                h = (h ^ value.charAt(i)) * 0x100000001B3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            h *= 0xC4CEB9FE1A85EC53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.ulna.blog_manager.Config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.ulna.blog_manager.model.CacheRegions;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.spi.CachingProvider;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * Hibernate 二级缓存配置
+ *
+ * 使用 Caffeine 实现的 JCache 作为 Hibernate 二级缓存和查询缓存，缓存区域见 CacheRegions。
+ * 每个区域在这里按 blog.cache.l2.* 配置创建，Hibernate 遇到未配置的区域时启动失败，
+ * 避免误用提供者默认的无上限缓存。blog.cache.l2.enabled=false 时显式关闭二级缓存。
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(SecondLevelCacheConfig.class);
+
+    @Value("${blog.cache.l2.user.max-entries:10000}")
+    private long userMaxEntries;
+
+    @Value("${blog.cache.l2.user.ttl:30m}")
+    private Duration userTtl;
+
+    @Value("${blog.cache.l2.blog.max-entries:2000}")
+    private long blogMaxEntries;
+
+    @Value("${blog.cache.l2.blog.ttl:10m}")
+    private Duration blogTtl;
+
+    @Value("${blog.cache.l2.query.max-entries:10000}")
+    private long queryMaxEntries;
+
+    @Value("${blog.cache.l2.query.ttl:10m}")
+    private Duration queryTtl;
+
+    @Value("${blog.cache.l2.statistics:true}")
+    private boolean statistics;
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "blog.cache.l2.enabled", havingValue = "true", matchIfMissing = true)
+    public CacheManager hibernateCacheManager() {
+        CachingProvider provider = new CaffeineCachingProvider();
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+        createRegion(cacheManager, CacheRegions.USERS, userMaxEntries, userTtl);
+        createRegion(cacheManager, CacheRegions.BLOGS, blogMaxEntries, blogTtl);
+        createRegion(cacheManager, CacheRegions.USER_QUERIES, queryMaxEntries, queryTtl);
+        createRegion(cacheManager, CacheRegions.BLOG_QUERIES, queryMaxEntries, queryTtl);
+        createRegion(cacheManager, CacheRegions.DEFAULT_QUERIES, queryMaxEntries, queryTtl);
+        // 更新时间戳区域的条目数等于表数，不能淘汰或过期，否则查询缓存会返回已失效的结果
+        createRegion(cacheManager, CacheRegions.UPDATE_TIMESTAMPS, 0, null);
+        logger.info("已启用 Hibernate 二级缓存：用户 {} 条/{}，博客 {} 条/{}，查询 {} 条/{}",
+                userMaxEntries, userTtl, blogMaxEntries, blogTtl, queryMaxEntries, queryTtl);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(ObjectProvider<CacheManager> hibernateCacheManager) {
+        return properties -> {
+            CacheManager cacheManager = hibernateCacheManager.getIfAvailable();
+            // classpath 上有 hibernate-jcache 时 Hibernate 会自动启用，关闭时必须显式设置
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, cacheManager != null);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, cacheManager != null);
+            if (cacheManager == null) {
+                return;
+            }
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            properties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            properties.put(AvailableSettings.GENERATE_STATISTICS, statistics);
+            // 统计只用于缓存接口，不需要每个 Session 结束时输出指标日志
+            properties.put(AvailableSettings.LOG_SESSION_METRICS, false);
+        };
+    }
+
+    // maxEntries 为 0 表示不限条数，ttl 为 null 表示不过期；按引用保存，不复制缓存值
+    private void createRegion(CacheManager cacheManager, String name, long maxEntries, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        if (maxEntries > 0) {
+            configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        }
+        if (ttl != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        cacheManager.createCache(name, configuration);
+    }
+}
@@ -1,7 +1,11 @@
 package com.ulna.blog_manager.Config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -10,6 +14,7 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -21,9 +26,17 @@ import java.util.Arrays;
 @EnableWebSecurity
 public class SecurityConfig {
     
+    private static final Logger logger = LoggerFactory.getLogger(SecurityConfig.class);
+    
+    // strength 为 0 时在启动时按 target-ms 测算成本；已有密码在下次登录成功时按新成本重新哈希（只升不降）
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${blog.security.bcrypt.strength:0}") int strength,
+                                           @Value("${blog.security.bcrypt.target-ms:250}") long targetMillis) {
+        if (strength <= 0) {
+            strength = BCryptCalibrator.calibrate(targetMillis, 10, 16);
+            logger.info("BCrypt 成本按目标耗时 {}ms 测算为 {}", targetMillis, strength);
+        }
+        return new BCryptPasswordEncoder(strength);
     }
     
     @Bean
@@ -56,11 +69,16 @@ public class SecurityConfig {
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
                 .requestMatchers("/api/auth/**").permitAll()
+                .requestMatchers("/error").permitAll() // 错误转发不带认证信息，否则 404/500 会变成认证失败
                 .requestMatchers("/api/public/**").permitAll()
                 .requestMatchers("/image/**").permitAll() // 允许公开访问图片资源
                 .requestMatchers("/llm/**").permitAll() // 允许对LLM控制器的所有请求，以便测试CORS
+                .requestMatchers("/api/admin/**").hasAuthority("ADMIN") // 管理接口仅管理员可访问
                 .anyRequest().authenticated()
             )
+            // 未认证（令牌缺失、过期或已吊销）返回 401，前端据此刷新令牌后重试；已认证但权限不足仍为 403
+            .exceptionHandling(exceptions -> exceptions
+                .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
             .addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
         
         return http.build();
@@ -0,0 +1,82 @@
+package com.ulna.blog_manager.Config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按用户吊销已签发的 JWT
+ *
+ * 每个用户有一个令牌版本（users.token_version），签发访问令牌时写入 ver 声明。
+ * 用户信息变更（如修改角色、密码）或刷新令牌被重复使用时版本加 1，
+ * 版本低于用户当前版本的令牌一律拒绝，需要重新登录或刷新取得新的声明。
+ * 版本保存在数据库中，这里只缓存最近一个访问令牌有效期内变更过版本的用户（更早签发的令牌已经过期），
+ * 由 UserService 在启动时和定时同步时加载，因此条目很少且认证时不需要访问数据库。
+ * jwt.revocation.max-users 只是预期规模，超出时记录警告，不会丢弃吊销记录。
+ */
+@Component
+public class UserTokenRevocations {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserTokenRevocations.class);
+
+    private final long ttlMillis;
+    private final long maxUsers;
+
+    // 用户名 -> 当前令牌版本；只包含版本大于 0 且最近变更过的用户。
+    // 条目只在一个访问令牌有效期后移除，不按容量淘汰：淘汰掉的用户旧令牌会重新通过认证
+    private final Map<String, Revocation> currentVersions = new ConcurrentHashMap<>();
+
+    public UserTokenRevocations(@Value("${jwt.expiration}") long jwtExpirationMs,
+                                @Value("${jwt.revocation.max-users:10000}") long maxUsers) {
+        this.ttlMillis = jwtExpirationMs;
+        this.maxUsers = maxUsers;
+    }
+
+    /**
+     * 记录用户的当前令牌版本（只会增大），有效期从这次记录开始重新计算
+     */
+    public void record(String username, int version) {
+        if (version <= 0) {
+            return;
+        }
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        Revocation previous = currentVersions.get(username);
+        currentVersions.merge(username, new Revocation(version, expiresAt),
+                (old, added) -> new Revocation(Math.max(old.version, added.version), added.expiresAt));
+        if (previous == null && currentVersions.size() == maxUsers + 1) {
+            logger.warn("令牌版本变更过的用户数超过 jwt.revocation.max-users（{}），条目只在令牌有效期后移除，内存占用会继续增长", maxUsers);
+        }
+    }
+
+    /**
+     * 合并从数据库加载的版本，多实例部署时其他实例的变更在下一次同步后生效；同时移除已过期的条目
+     */
+    public void merge(Map<String, Integer> versions) {
+        versions.forEach(this::record);
+        long now = System.currentTimeMillis();
+        currentVersions.values().removeIf(revocation -> revocation.expiresAt <= now);
+    }
+
+    /**
+     * 令牌版本是否低于用户当前版本；没有 ver 声明的令牌按版本 0 处理
+     */
+    public boolean isRevoked(String username, Integer tokenVersion) {
+        Revocation current = currentVersions.get(username);
+        if (current == null) {
+            return false;
+        }
+        if (current.expiresAt <= System.currentTimeMillis()) {
+            // 变更之前签发的令牌都已过期
+            currentVersions.remove(username, current);
+            return false;
+        }
+        return (tokenVersion != null ? tokenVersion : 0) < current.version;
+    }
+
+    private record Revocation(int version, long expiresAt) {
+    }
+}
@@ -1,22 +1,31 @@
 package com.ulna.blog_manager.controller;
 
 import com.ulna.blog_manager.Config.JwtUtils;
+import com.ulna.blog_manager.Config.LoginRateLimiter;
 import com.ulna.blog_manager.model.User;
+import com.ulna.blog_manager.service.LoginService;
+import com.ulna.blog_manager.service.RefreshTokenService;
 import com.ulna.blog_manager.service.UserService;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -26,7 +35,18 @@ public class AuthController {
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
     
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private LoginService loginService;
+    
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+    
+    // 验证通过后查询用户、签发刷新令牌的线程池（Spring Boot 的默认任务线程池），数据库延迟不占用 BCrypt 线程
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor taskExecutor;
+    
+    @Autowired
+    private RefreshTokenService refreshTokenService;
     
     @Autowired
     private UserService userService;
@@ -61,33 +81,92 @@ public class AuthController {
         }
     }
     
+    // 限流在验证密码之前完成，被拒绝的请求不占用 BCrypt 计算；密码验证在登录线程池中执行，不阻塞 Tomcat 工作线程；
+    // 验证通过后的查询和签发在任务线程池中执行，登录线程池的大小只对应 BCrypt 的 CPU 开销
     @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest,
+                                                                 HttpServletRequest request) {
+        long retryAfter = loginRateLimiter.tryAcquire(request.getRemoteAddr(), loginRequest.getUsername());
+        if (retryAfter > 0) {
+            logger.warn("登录请求过于频繁: ip={}, username={}", request.getRemoteAddr(), loginRequest.getUsername());
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                .body(new MessageResponse("登录请求过于频繁，请稍后再试")));
+        }
+        
+        CompletableFuture<Authentication> authentication;
         try {
-            Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                    loginRequest.getUsername(),
-                    loginRequest.getPassword())
-            );
-            
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-            String jwt = jwtUtils.generateJwtToken(loginRequest.getUsername());
-            
+            authentication = loginService.authenticate(loginRequest.getUsername(), loginRequest.getPassword());
+        } catch (RejectedExecutionException e) {
+            logger.warn("登录验证线程池已满，拒绝登录请求");
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new MessageResponse("登录服务繁忙，请稍后再试")));
+        }
+        
+        return authentication.<ResponseEntity<?>>thenApplyAsync(auth -> {
             Optional<User> userOptional = userService.findByUsername(loginRequest.getUsername());
             if (userOptional.isPresent()) {
                 User user = userOptional.get();
-                return ResponseEntity.ok(new JwtResponse(jwt, user.getId(), user.getUsername(), user.getEmail()));
+                return ResponseEntity.ok(tokenResponse(user, refreshTokenService.issue(user.getId())));
             } else {
                 return ResponseEntity.badRequest()
                     .body(new MessageResponse("用户不存在"));
             }
-        } catch (Exception e) {
-            logger.error("登录失败: {}", e.getMessage());
+        }, taskExecutor).exceptionally(e -> {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            logger.error("登录失败: {}", cause.getMessage());
             return ResponseEntity.badRequest()
                 .body(new MessageResponse("登录失败: 用户名或密码错误"));
+        });
+    }
+    
+    // 用刷新令牌换取新的访问令牌，刷新令牌同时轮换，旧令牌作废
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshToken(@RequestBody RefreshRequest refreshRequest) {
+        try {
+            RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshRequest.getRefreshToken());
+            if (rotation == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new MessageResponse("刷新令牌无效或已过期，请重新登录"));
+            }
+            return ResponseEntity.ok(tokenResponse(rotation.getUser(), rotation.getRefreshToken()));
+        } catch (Exception e) {
+            logger.error("刷新令牌失败: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(new MessageResponse("刷新令牌失败"));
+        }
+    }
+    
+    // 作废请求体中的刷新令牌，并吊销 Authorization 头中的访问令牌（仍在有效期内时）
+    @PostMapping("/logout")
+    public ResponseEntity<?> logoutUser(@RequestBody(required = false) RefreshRequest refreshRequest,
+                                        @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        try {
+            String refreshToken = refreshRequest != null ? refreshRequest.getRefreshToken() : null;
+            Claims claims = authorization != null && authorization.startsWith("Bearer ")
+                ? jwtUtils.parseJwtToken(authorization.substring(7)) : null;
+            if (claims != null) {
+                refreshTokenService.logout(refreshToken, claims.get(JwtUtils.CLAIM_USER_ID, Long.class),
+                    claims.getId(), claims.getExpiration());
+            } else {
+                refreshTokenService.logout(refreshToken, null, null, null);
+            }
+            return ResponseEntity.ok(new MessageResponse("已登出"));
+        } catch (Exception e) {
+            logger.error("登出失败: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .body(new MessageResponse("登出失败"));
         }
     }
     
+    // 令牌携带用户ID和角色，之后的请求认证时不再查询用户
+    private JwtResponse tokenResponse(User user, String refreshToken) {
+        String jwt = jwtUtils.generateJwtToken(user);
+        return new JwtResponse(jwt, refreshToken, jwtUtils.getJwtExpirationMs() / 1000,
+            user.getId(), user.getUsername(), user.getEmail());
+    }
+    
     // 内部类：请求和响应DTO
     public static class RegisterRequest {
         private String username;
@@ -114,6 +193,13 @@ public class AuthController {
         public void setPassword(String password) { this.password = password; }
     }
     
+    public static class RefreshRequest {
+        private String refreshToken;
+        
+        public String getRefreshToken() { return refreshToken; }
+        public void setRefreshToken(String refreshToken) { this.refreshToken = refreshToken; }
+    }
+    
     public static class MessageResponse {
         private String message;
         
@@ -128,12 +214,17 @@ public class AuthController {
     public static class JwtResponse {
         private String token;
         private String type = "Bearer";
+        private String refreshToken;
+        // 访问令牌有效期（秒）
+        private long expiresIn;
         private Long id;
         private String username;
         private String email;
         
-        public JwtResponse(String accessToken, Long id, String username, String email) {
+        public JwtResponse(String accessToken, String refreshToken, long expiresIn, Long id, String username, String email) {
             this.token = accessToken;
+            this.refreshToken = refreshToken;
+            this.expiresIn = expiresIn;
             this.id = id;
             this.username = username;
             this.email = email;
@@ -144,6 +235,10 @@ public class AuthController {
         public void setAccessToken(String accessToken) { this.token = accessToken; }
         public String getTokenType() { return type; }
         public void setTokenType(String tokenType) { this.type = tokenType; }
+        public String getRefreshToken() { return refreshToken; }
+        public void setRefreshToken(String refreshToken) { this.refreshToken = refreshToken; }
+        public long getExpiresIn() { return expiresIn; }
+        public void setExpiresIn(long expiresIn) { this.expiresIn = expiresIn; }
         public Long getId() { return id; }
         public void setId(Long id) { this.id = id; }
         public String getUsername() { return username; }
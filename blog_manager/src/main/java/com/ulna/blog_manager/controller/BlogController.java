@@ -1,21 +1,52 @@
 package com.ulna.blog_manager.controller;
 
+import com.ulna.blog_manager.Config.CurrentUser;
+import com.ulna.blog_manager.Config.JwtUserPrincipal;
 import com.ulna.blog_manager.model.Message;
 import com.ulna.blog_manager.model.Blog;
-import com.ulna.blog_manager.model.User;
+import com.ulna.blog_manager.model.BlogEntity;
+import com.ulna.blog_manager.model.BlogFacets;
+import com.ulna.blog_manager.model.BlogHtml;
+import com.ulna.blog_manager.model.BlogImportReport;
+import com.ulna.blog_manager.model.BlogListVersion;
+import com.ulna.blog_manager.model.BlogPatch;
+import com.ulna.blog_manager.model.BlogSearchCriteria;
+import com.ulna.blog_manager.model.BlogSearchHit;
+import com.ulna.blog_manager.model.BlogSummary;
+import com.ulna.blog_manager.model.BlogSummaryPage;
+import com.ulna.blog_manager.model.ContentDelta;
+import com.ulna.blog_manager.model.ContentDeltaResult;
 import com.ulna.blog_manager.service.BlogDatabaseService;
-import com.ulna.blog_manager.service.UserService;
+import com.ulna.blog_manager.service.BlogImportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Objects;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 
 
@@ -28,62 +59,216 @@ public class BlogController {
     @Autowired
     private BlogDatabaseService blogDatabaseService;
     
-    @Autowired 
-    private UserService userService;
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private BlogImportService blogImportService;
 
     /**
-     * 获取当前登录用户
+     * 处理条件请求（If-None-Match / If-Modified-Since）
+     * 设置 ETag、Last-Modified 和 Cache-Control 响应头，客户端版本仍然有效时返回 true，此时响应状态已设为 304
+     *
+     * @param updatedAt 为 null 时不设置 Last-Modified，只按 ETag 校验
      */
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication != null && authentication.getPrincipal() instanceof UserDetails) {
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            String username = userDetails.getUsername();
-            Optional<User> user = userService.findByUsername(username);
-            if (user.isPresent()) {
-                return user.get();
-            } else {
-                // 可以根据业务逻辑处理用户不存在的情况，例如抛出异常
-                throw new RuntimeException("当前登录用户在数据库中不存在: " + username);
-            }
-        } else {
-            // 处理无法获取认证信息或 Principal 不是 UserDetails 的情况
-            // 例如，对于匿名访问或测试环境，可以返回一个匿名用户或抛出异常
-            throw new RuntimeException("无法获取当前登录用户信息");
+    private boolean checkNotModified(WebRequest webRequest, HttpServletResponse response, String etag, LocalDateTime updatedAt) {
+        // 允许客户端缓存，但每次使用前必须重新校验
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (updatedAt == null) {
+            return webRequest.checkNotModified(etag);
         }
+        long lastModified = updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return webRequest.checkNotModified(etag, lastModified);
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        return ChronoUnit.MICROS.between(LocalDateTime.of(1970, 1, 1, 0, 0), time);
     }
 
     /**
-     * 获取当前用户的所有博客列表
+     * 按游标分页获取当前用户的博客摘要列表
+     * 第一页不传游标，后续页传入上一页返回的 nextCursor
      */
     @GetMapping("/lists")
-    public Message listUserBlogs() {
-        System.out.println("获取用户博客列表");
+    public Message listUserBlogs(
+            @CurrentUser JwtUserPrincipal currentUser,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorCreatedAt,
+            @RequestParam(required = false) Long cursorId,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest webRequest, HttpServletResponse response) {
         try {
-            User currentUser = getCurrentUser();
             logger.info("获取用户 {} 的博客列表", currentUser.getUsername());
             
-            List<Blog> blogs = blogDatabaseService.listUserBlogs(currentUser);
-            logger.debug("找到 {} 个博客", blogs.size());
+            // 先用索引查询列表版本，未变化时直接返回 304。
+            // 列表只按 ETag 校验：最近更新时间在删除非最新的博客后不变，也区分不了游标和每页条数
+            BlogListVersion version = blogDatabaseService.getUserBlogsVersion(currentUser.getId());
+            if (version != null && version.getLastUpdatedAt() != null) {
+                String etag = "\"l" + currentUser.getId() + "-" + version.getCount() + "-"
+                        + Long.toHexString(toMicros(version.getLastUpdatedAt())) + "-"
+                        + Integer.toHexString(Objects.hash(cursorCreatedAt, cursorId, size)) + "\"";
+                if (checkNotModified(webRequest, response, etag, null)) {
+                    logger.debug("用户 {} 的博客列表未变化", currentUser.getUsername());
+                    return null;
+                }
+            }
             
-            return new Message(0, blogs, null);
+            BlogSummaryPage page = blogDatabaseService.listUserBlogSummaries(currentUser.getId(), cursorCreatedAt, cursorId, size);
+            logger.debug("本页找到 {} 个博客", page.getItems().size());
+            
+            return new Message(0, page, null);
         } catch (Exception e) {
             logger.error("获取博客列表失败：{}", e.getMessage());
             return new Message(1, null, "获取博客列表失败");
         }
     }
 
+    /**
+     * 流式导出当前用户的完整博客（包含正文）
+     * 筛选条件与 /search 相同但不分页。数据库按游标逐行读取，每条博客直接写入响应，
+     * 响应格式与其他接口一致：{"status":0,"data":[...],"error":null}
+     */
+    @GetMapping("/stream")
+    public void streamBlogs(
+            @CurrentUser JwtUserPrincipal currentUser,
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String categories,
+            @RequestParam(required = false) List<String> tags,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+            @RequestParam(required = false) Integer minWords,
+            @RequestParam(required = false) Integer maxWords,
+            @RequestParam(defaultValue = "createdAt") String sort,
+            @RequestParam(defaultValue = "desc") String direction,
+            HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        
+        logger.info("用户 {} 流式获取博客", currentUser.getUsername());
+        
+        BlogSearchCriteria criteria = new BlogSearchCriteria();
+        criteria.setTitle(title);
+        criteria.setCategories(categories);
+        criteria.setTags(tags);
+        criteria.setCreatedFrom(createdFrom);
+        criteria.setCreatedTo(createdTo);
+        criteria.setUpdatedSince(updatedSince);
+        criteria.setMinWords(minWords);
+        criteria.setMaxWords(maxWords);
+        criteria.setSort(sort);
+        criteria.setDirection(direction);
+        
+        // 出错时不能由 close() 自动补全 ]} ——那样客户端会得到格式完整、但只有部分博客的 status:0 响应
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream());
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+        try {
+            generator.writeStartObject();
+            generator.writeNumberField("status", 0);
+            generator.writeArrayFieldStart("data");
+            long count = blogDatabaseService.streamUserBlogs(currentUser.getId(), criteria, blog -> {
+                try {
+                    objectMapper.writeValue(generator, blog);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+            generator.writeNullField("error");
+            generator.writeEndObject();
+            generator.close();
+            logger.debug("流式输出 {} 篇博客", count);
+        } catch (IOException | RuntimeException e) {
+            // 响应已经开始输出，无法再改为错误消息；异常交给容器中断连接，客户端得到的是不完整的 JSON
+            logger.error("流式获取博客失败：{}", e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * 导出当前用户的全部博客为 zip 压缩包
+     * 每篇博客是一个 Hexo 格式的 .md 文件，路径为 分类/文件名，与 BlogFileService.addBlog 的目录结构一致。
+     * 数据库按游标逐行读取，每篇博客直接写入响应中的 ZipOutputStream
+     */
+    @GetMapping("/export")
+    public void exportBlogs(@CurrentUser JwtUserPrincipal currentUser, HttpServletResponse response) throws IOException {
+        logger.info("用户 {} 导出全部博客", currentUser.getUsername());
+        
+        String zipName = "blogs_" + currentUser.getUsername() + LocalDateTime.now().format(DateTimeFormatter.ofPattern("'_'yyyyMMdd'_'HHmmss")) + ".zip";
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(zipName, StandardCharsets.UTF_8).build().toString());
+        
+        BlogSearchCriteria criteria = new BlogSearchCriteria();
+        criteria.setDirection("asc");
+        Set<String> entryNames = new HashSet<>();
+        // 出错时不能 finish()/close()：那样会写入中央目录，客户端得到一个缺少博客、但能正常打开的压缩包
+        ZipOutputStream zip = new ZipOutputStream(response.getOutputStream(), StandardCharsets.UTF_8);
+        try {
+            long count = blogDatabaseService.streamUserBlogs(currentUser.getId(), criteria, blog -> {
+                try {
+                    if (blog.getDate() == null) {
+                        blog.setDate(LocalDateTime.now());
+                    }
+                    zip.putNextEntry(new ZipEntry(exportEntryName(blog, entryNames)));
+                    zip.write(blog.toString().getBytes(StandardCharsets.UTF_8));
+                    zip.closeEntry();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            zip.close();
+            logger.info("用户 {} 导出 {} 篇博客", currentUser.getUsername(), count);
+        } catch (IOException | RuntimeException e) {
+            // 响应已经开始输出，异常交给容器中断连接，客户端得到的是没有中央目录、无法打开的压缩包
+            logger.error("导出博客失败：{}", e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * zip 条目名：分类/文件名。去掉路径穿越和绝对路径，重名时追加序号
+     */
+    private static String exportEntryName(Blog blog, Set<String> used) {
+        String filename = sanitizePathPart(blog.getFilename());
+        if (filename.isEmpty()) {
+            filename = "blog_" + blog.getId() + ".md";
+        }
+        String category = sanitizePathPart(blog.getCategories());
+        String name = category.isEmpty() ? filename : category + "/" + filename;
+        String base = name.endsWith(".md") ? name.substring(0, name.length() - 3) : name;
+        for (int i = 1; !used.add(name); i++) {
+            name = base + "_" + i + ".md";
+        }
+        return name;
+    }
+
+    private static String sanitizePathPart(String part) {
+        if (part == null) {
+            return "";
+        }
+        return part.replace('\\', '_').replace('/', '_').replace("..", "_").trim();
+    }
+
     /**
      * 根据ID获取博客详情
      */
     @GetMapping("/{id}")
-    public Message getBlogById(@PathVariable Long id) {
+    public Message getBlogById(@CurrentUser JwtUserPrincipal currentUser, @PathVariable Long id, WebRequest webRequest, HttpServletResponse response) {
         System.out.println("获取博客详情，ID: " + id);
         try {
-            User currentUser = getCurrentUser();
             logger.info("用户 {} 获取博客 {}", currentUser.getUsername(), id);
             
-            Blog blog = blogDatabaseService.findUserBlogById(id, currentUser);
+            // 只读取 updated_at 判断客户端持有的版本是否最新，不加载正文
+            LocalDateTime updatedAt = blogDatabaseService.getBlogUpdatedAt(id, currentUser.getId());
+            if (updatedAt != null) {
+                String etag = "\"b" + id + "-" + Long.toHexString(toMicros(updatedAt)) + "\"";
+                if (checkNotModified(webRequest, response, etag, updatedAt)) {
+                    logger.debug("博客 {} 未变化", id);
+                    return null;
+                }
+            }
+            
+            Blog blog = blogDatabaseService.findUserBlogById(id, currentUser.getId());
             if (blog == null) {
                 return new Message(1, null, "博客不存在或无权限访问");
             }
@@ -95,16 +280,45 @@ public class BlogController {
         }
     }
 
+    /**
+     * 获取服务端渲染的博客 HTML
+     * 与详情接口共用 ETag/Last-Modified 语义，正文未变化时返回 304
+     */
+    @GetMapping("/{id}/html")
+    public Message getBlogHtml(@CurrentUser JwtUserPrincipal currentUser, @PathVariable Long id, WebRequest webRequest, HttpServletResponse response) {
+        try {
+            logger.info("用户 {} 获取博客 {} 的 HTML", currentUser.getUsername(), id);
+            
+            LocalDateTime updatedAt = blogDatabaseService.getBlogUpdatedAt(id, currentUser.getId());
+            if (updatedAt != null) {
+                String etag = "\"h" + id + "-" + Long.toHexString(toMicros(updatedAt)) + "\"";
+                if (checkNotModified(webRequest, response, etag, updatedAt)) {
+                    logger.debug("博客 {} 未变化", id);
+                    return null;
+                }
+            }
+            
+            BlogHtml html = blogDatabaseService.renderUserBlog(id, currentUser.getId());
+            if (html == null) {
+                return new Message(1, null, "博客不存在或无权限访问");
+            }
+            
+            return new Message(0, html, null);
+        } catch (Exception e) {
+            logger.error("获取博客 HTML 失败：{}", e.getMessage());
+            return new Message(1, null, "获取博客 HTML 失败");
+        }
+    }
+
     /**
      * 创建新博客
      */
     @PostMapping
-    public Message createBlog(@RequestBody Blog blog) {
+    public Message createBlog(@CurrentUser JwtUserPrincipal currentUser, @RequestBody Blog blog) {
         try {
-            User currentUser = getCurrentUser();
             logger.info("用户 {} 创建博客：{}", currentUser.getUsername(), blog.getTitle());
             
-            boolean success = blogDatabaseService.saveBlog(blog, currentUser);
+            boolean success = blogDatabaseService.saveBlog(blog, currentUser.getId());
             if (success) {
                 return new Message(0, null, "博客创建成功");
             } else {
@@ -116,17 +330,49 @@ public class BlogController {
         }
     }
 
+    /**
+     * 批量导入博客（JSON 数组）
+     * 按文件名 upsert，逐条返回处理结果
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Message importBlogs(@CurrentUser JwtUserPrincipal currentUser, @RequestBody List<Blog> blogs) {
+        try {
+            logger.info("用户 {} 批量导入 {} 篇博客", currentUser.getUsername(), blogs.size());
+            
+            BlogImportReport report = blogImportService.importBlogs(blogs, currentUser.getId());
+            return new Message(0, report, null);
+        } catch (Exception e) {
+            logger.error("批量导入博客失败：{}", e.getMessage());
+            return new Message(1, null, "批量导入博客失败");
+        }
+    }
+
+    /**
+     * 批量导入博客（上传带 Front-matter 的 .md 文件）
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public Message importMarkdownFiles(@CurrentUser JwtUserPrincipal currentUser, @RequestParam("files") List<MultipartFile> files) {
+        try {
+            logger.info("用户 {} 批量导入 {} 个 Markdown 文件", currentUser.getUsername(), files.size());
+            
+            BlogImportReport report = blogImportService.importMarkdownFiles(files, currentUser.getId());
+            return new Message(0, report, null);
+        } catch (Exception e) {
+            logger.error("批量导入博客失败：{}", e.getMessage());
+            return new Message(1, null, "批量导入博客失败");
+        }
+    }
+
     /**
      * 更新博客
      */
     @PutMapping("/{id}")
-    public Message updateBlog(@PathVariable Long id, @RequestBody Blog blog) {
+    public Message updateBlog(@CurrentUser JwtUserPrincipal currentUser, @PathVariable Long id, @RequestBody Blog blog) {
         try {
-            User currentUser = getCurrentUser();
             logger.info("用户 {} 更新博客 {}", currentUser.getUsername(), id);
             
             blog.setId(id);
-            boolean success = blogDatabaseService.updateBlog(blog, currentUser);
+            boolean success = blogDatabaseService.updateBlog(blog, currentUser.getId());
             if (success) {
                 return new Message(0, null, "博客更新成功");
             } else {
@@ -138,16 +384,69 @@ public class BlogController {
         }
     }
 
+    /**
+     * 部分更新博客
+     * 请求体只需包含要修改的字段（title、categories、tags、saying、content），
+     * 只修改元数据时服务端不会读写正文
+     */
+    @PatchMapping("/{id}")
+    public Message patchBlog(@CurrentUser JwtUserPrincipal currentUser, @PathVariable Long id, @RequestBody BlogPatch patch) {
+        try {
+            logger.info("用户 {} 部分更新博客 {}", currentUser.getUsername(), id);
+            
+            if (patch.isEmpty()) {
+                return new Message(1, null, "没有需要更新的字段");
+            }
+            String lengthError = BlogEntity.checkLengths(patch);
+            if (lengthError != null) {
+                return new Message(1, null, lengthError);
+            }
+            boolean success = blogDatabaseService.patchBlog(id, patch, currentUser.getId());
+            if (success) {
+                return new Message(0, null, "博客更新成功");
+            } else {
+                return new Message(1, null, "博客更新失败或无权限");
+            }
+        } catch (Exception e) {
+            logger.error("部分更新博客失败：{}", e.getMessage());
+            return new Message(1, null, "更新博客失败");
+        }
+    }
+
+    /**
+     * 增量更新博客正文（编辑器自动保存）
+     * 请求体包含基准版本和相对基准正文的修改列表；基准版本已过期时返回 409，
+     * data 中为服务端当前版本
+     */
+    @PatchMapping("/{id}/content")
+    public ResponseEntity<Message> applyContentDelta(@CurrentUser JwtUserPrincipal currentUser, @PathVariable Long id, @RequestBody ContentDelta delta) {
+        try {
+            logger.debug("用户 {} 增量更新博客 {}", currentUser.getUsername(), id);
+            
+            ContentDeltaResult result = blogDatabaseService.applyContentDelta(id, delta, currentUser.getId());
+            switch (result.getStatus()) {
+                case APPLIED:
+                    return ResponseEntity.ok(new Message(0, result.getVersion(), null));
+                case CONFLICT:
+                    return ResponseEntity.status(HttpStatus.CONFLICT).body(new Message(1, result.getVersion(), result.getError()));
+                default:
+                    return ResponseEntity.ok(new Message(1, null, result.getError()));
+            }
+        } catch (Exception e) {
+            logger.error("增量更新博客失败：{}", e.getMessage());
+            return ResponseEntity.ok(new Message(1, null, "更新博客失败"));
+        }
+    }
+
     /**
      * 删除博客
      */
     @DeleteMapping("/{id}")
-    public Message deleteBlog(@PathVariable Long id) {
+    public Message deleteBlog(@CurrentUser JwtUserPrincipal currentUser, @PathVariable Long id) {
         try {
-            User currentUser = getCurrentUser();
             logger.info("用户 {} 删除博客 {}", currentUser.getUsername(), id);
             
-            boolean success = blogDatabaseService.deleteUserBlog(id, currentUser);
+            boolean success = blogDatabaseService.deleteUserBlog(id, currentUser.getId());
             if (success) {
                 return new Message(0, null, "博客删除成功");
             } else {
@@ -160,22 +459,106 @@ public class BlogController {
     }
 
     /**
-     * 搜索博客
+     * 组合条件搜索博客
+     * 所有条件以 AND 组合，tags 为逗号分隔且需全部包含，返回不含正文的摘要
      */
     @GetMapping("/search")
     public Message searchBlogs(
+            @CurrentUser JwtUserPrincipal currentUser,
             @RequestParam(required = false) String title,
             @RequestParam(required = false) String categories,
-            @RequestParam(required = false) String tags) {
+            @RequestParam(required = false) List<String> tags,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+            @RequestParam(required = false) Integer minWords,
+            @RequestParam(required = false) Integer maxWords,
+            @RequestParam(defaultValue = "createdAt") String sort,
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
         try {
-            User currentUser = getCurrentUser();
             logger.info("用户 {} 搜索博客", currentUser.getUsername());
             
-            List<Blog> blogs = blogDatabaseService.searchUserBlogs(currentUser, title, categories, tags);
+            BlogSearchCriteria criteria = new BlogSearchCriteria();
+            criteria.setTitle(title);
+            criteria.setCategories(categories);
+            criteria.setTags(tags);
+            criteria.setCreatedFrom(createdFrom);
+            criteria.setCreatedTo(createdTo);
+            criteria.setUpdatedSince(updatedSince);
+            criteria.setMinWords(minWords);
+            criteria.setMaxWords(maxWords);
+            criteria.setSort(sort);
+            criteria.setDirection(direction);
+            criteria.setPage(page);
+            criteria.setSize(size);
+            
+            List<BlogSummary> blogs = blogDatabaseService.searchUserBlogs(currentUser.getId(), criteria);
             return new Message(0, blogs, null);
         } catch (Exception e) {
             logger.error("搜索博客失败：{}", e.getMessage());
             return new Message(1, null, "搜索博客失败");
         }
     }
+
+    /**
+     * 按标签查询博客（精确匹配标签名）
+     * match 为 all（默认，同时包含全部标签）或 any（包含任意一个）
+     */
+    @GetMapping("/by-tags")
+    public Message findBlogsByTags(
+            @CurrentUser JwtUserPrincipal currentUser,
+            @RequestParam List<String> tags,
+            @RequestParam(defaultValue = "all") String match,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            logger.info("用户 {} 按标签查询博客：{}", currentUser.getUsername(), tags);
+            
+            List<BlogSummary> blogs = blogDatabaseService.findBlogsByTags(currentUser.getId(), tags, match, page, size);
+            return new Message(0, blogs, null);
+        } catch (Exception e) {
+            logger.error("按标签查询博客失败：{}", e.getMessage());
+            return new Message(1, null, "按标签查询博客失败");
+        }
+    }
+
+    /**
+     * 获取当前用户每个标签和分类的文章数
+     */
+    @GetMapping("/facets")
+    public Message getBlogFacets(@CurrentUser JwtUserPrincipal currentUser) {
+        try {
+            logger.info("用户 {} 获取标签和分类统计", currentUser.getUsername());
+            
+            BlogFacets facets = blogDatabaseService.getBlogFacets(currentUser.getId());
+            return new Message(0, facets, null);
+        } catch (Exception e) {
+            logger.error("获取标签和分类统计失败：{}", e.getMessage());
+            return new Message(1, null, "获取标签和分类统计失败");
+        }
+    }
+
+    /**
+     * 全文检索博客（标题、正文、标签、分类），按相关度排序并返回高亮片段
+     * mode 为 natural（默认）或 boolean，后端由 blog.search.backend 配置
+     */
+    @GetMapping("/fulltext")
+    public Message fullTextSearch(
+            @CurrentUser JwtUserPrincipal currentUser,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "natural") String mode,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            logger.info("用户 {} 全文检索博客：{}", currentUser.getUsername(), q);
+            
+            List<BlogSearchHit> hits = blogDatabaseService.fullTextSearch(currentUser.getId(), q, mode, page, size);
+            return new Message(0, hits, null);
+        } catch (Exception e) {
+            logger.error("全文检索失败：{}", e.getMessage());
+            return new Message(1, null, "全文检索失败");
+        }
+    }
 }
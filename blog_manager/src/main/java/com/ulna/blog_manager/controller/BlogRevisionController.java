@@ -0,0 +1,86 @@
+package com.ulna.blog_manager.controller;
+
+import com.ulna.blog_manager.Config.CurrentUser;
+import com.ulna.blog_manager.Config.JwtUserPrincipal;
+import com.ulna.blog_manager.model.BlogRevisionContent;
+import com.ulna.blog_manager.model.BlogRevisionSummary;
+import com.ulna.blog_manager.model.Message;
+import com.ulna.blog_manager.service.BlogDatabaseService;
+import com.ulna.blog_manager.service.BlogRevisionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 博客修订历史接口
+ */
+@RestController
+@RequestMapping("/api/blogs/{id}/revisions")
+public class BlogRevisionController {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlogRevisionController.class);
+
+    @Autowired
+    private BlogRevisionService blogRevisionService;
+
+    @Autowired
+    private BlogDatabaseService blogDatabaseService;
+
+    /**
+     * 获取博客的修订列表（按修订号倒序，不含正文）
+     */
+    @GetMapping
+    public Message listRevisions(@CurrentUser JwtUserPrincipal currentUser, @PathVariable Long id) {
+        try {
+            logger.info("用户 {} 获取博客 {} 的修订列表", currentUser.getUsername(), id);
+
+            List<BlogRevisionSummary> revisions = blogRevisionService.listRevisions(id, currentUser.getId());
+            return new Message(0, revisions, null);
+        } catch (Exception e) {
+            logger.error("获取修订列表失败：{}", e.getMessage());
+            return new Message(1, null, "获取修订列表失败");
+        }
+    }
+
+    /**
+     * 获取一条修订的完整内容（由快照和增量还原）
+     */
+    @GetMapping("/{revisionNo}")
+    public Message getRevision(@CurrentUser JwtUserPrincipal currentUser, @PathVariable Long id, @PathVariable Integer revisionNo) {
+        try {
+            logger.info("用户 {} 获取博客 {} 的修订 {}", currentUser.getUsername(), id, revisionNo);
+
+            BlogRevisionContent revision = blogRevisionService.getRevision(id, currentUser.getId(), revisionNo);
+            if (revision == null) {
+                return new Message(1, null, "修订不存在或无权限");
+            }
+            return new Message(0, revision, null);
+        } catch (Exception e) {
+            logger.error("获取修订失败：{}", e.getMessage());
+            return new Message(1, null, "获取修订失败");
+        }
+    }
+
+    /**
+     * 把博客恢复到指定修订
+     */
+    @PostMapping("/{revisionNo}/restore")
+    public Message restoreRevision(@CurrentUser JwtUserPrincipal currentUser, @PathVariable Long id, @PathVariable Integer revisionNo) {
+        try {
+            logger.info("用户 {} 将博客 {} 恢复到修订 {}", currentUser.getUsername(), id, revisionNo);
+
+            boolean success = blogDatabaseService.restoreRevision(id, revisionNo, currentUser.getId());
+            if (success) {
+                return new Message(0, null, "博客已恢复");
+            } else {
+                return new Message(1, null, "恢复失败，修订不存在或无权限");
+            }
+        } catch (Exception e) {
+            logger.error("恢复修订失败：{}", e.getMessage());
+            return new Message(1, null, "恢复修订失败");
+        }
+    }
+}
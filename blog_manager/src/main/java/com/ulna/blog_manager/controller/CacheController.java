@@ -0,0 +1,49 @@
+package com.ulna.blog_manager.controller;
+
+import com.ulna.blog_manager.model.Message;
+import com.ulna.blog_manager.service.BlogReadCache;
+import com.ulna.blog_manager.service.MarkdownRenderer;
+import com.ulna.blog_manager.service.SecondLevelCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 缓存管理接口（仅管理员）
+ */
+@RestController
+@RequestMapping("/api/admin/cache")
+public class CacheController {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheController.class);
+
+    @Autowired
+    private BlogReadCache blogReadCache;
+
+    @Autowired
+    private MarkdownRenderer markdownRenderer;
+
+    @Autowired
+    private SecondLevelCache secondLevelCache;
+
+    /**
+     * 获取博客读缓存、HTML 渲染缓存和 Hibernate 二级缓存的命中、未命中和淘汰统计
+     */
+    @GetMapping("/stats")
+    public Message getStats() {
+        try {
+            Map<String, Object> stats = blogReadCache.stats();
+            stats.put("render", markdownRenderer.stats());
+            stats.put("hibernate", secondLevelCache.stats());
+            return new Message(0, stats, null);
+        } catch (Exception e) {
+            logger.error("获取缓存统计失败: {}", e.getMessage(), e);
+            return new Message(1, null, "获取缓存统计失败");
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.ulna.blog_manager.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 应用自身维护的键值设置（不是用户配置）
+ *
+ * 目前用于记录已经应用到数据上的配置，例如 BlogContentMigrator 记录正文已按哪种存储方式迁移，
+ * 配置没有变化时启动不再扫描全表。
+ */
+@Entity
+@Table(name = "app_settings")
+public class AppSetting {
+
+    @Id
+    @Column(name = "name", length = 100)
+    private String name;
+
+    @Column(name = "setting_value", length = 255)
+    private String value;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public AppSetting() {
+    }
+
+    public AppSetting(String name, String value) {
+        this.name = name;
+        this.value = value;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getValue() { return value; }
+    public void setValue(String value) { this.value = value; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
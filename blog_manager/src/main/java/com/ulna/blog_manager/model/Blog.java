@@ -27,6 +27,7 @@ public class Blog implements Comparable<Blog>,Cloneable {
     private String[] tags;      //标签
     private String saying;      //谚语
     private String content;     //博客内容
+    private LocalDateTime updatedAt;    // 最后更新时间，作为增量更新正文时的基准版本
 
     // 用于解析日期时间字符串的格式化器
     // 用于解析日期时间字符串的格式化器 - 更灵活的格式
@@ -216,7 +217,7 @@ public class Blog implements Comparable<Blog>,Cloneable {
      * 
      * @param fileContent 完整的文件内容
      */
-    private String extractContentFromFile(String fileContent) {
+    public String extractContentFromFile(String fileContent) {
         if (fileContent == null || !fileContent.startsWith(FRONT_MATTER_DELIMITER)) {
             return null;
         }
@@ -248,6 +249,8 @@ public class Blog implements Comparable<Blog>,Cloneable {
     }
     
     public void setContent(String content) { this.content = content; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
     public String getContent() { return content; }
     
     
@@ -0,0 +1,77 @@
+package com.ulna.blog_manager.model;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 博客正文的存储方式，按 blog.content.storage 配置
+ *
+ * text（默认）：正文全部保存在 TEXT 列 content。
+ * compressed：长度达到 blog.content.compress-threshold 的正文由 CompressedContentConverter 压缩后
+ * 保存在 content_packed 列，此时 content 列为 NULL；较短的正文仍保存在 content 列。
+ * 实体由 BlogContentStorageListener 在写入前拆分，JDBC / 批量更新的写入直接注入本类；
+ * 已有数据由 BlogContentMigrator 在配置变化后迁移到对应的列。
+ *
+ * MySQL FULLTEXT 索引建在 (title, content) 上，压缩后的正文无法被检索；blog.search.backend=mysql 时
+ * 忽略 compressed 配置按 text 保存，已压缩的正文由 BlogContentMigrator 解压回 content 列。
+ */
+@Component
+public class BlogContentStorage {
+
+    public static final String TEXT = "text";
+    public static final String COMPRESSED = "compressed";
+
+    private static final Logger logger = LoggerFactory.getLogger(BlogContentStorage.class);
+
+    private final boolean compressed;
+    private final int threshold;
+
+    public BlogContentStorage(@Value("${blog.content.storage:text}") String storage,
+                              @Value("${blog.content.compress-threshold:4096}") int threshold,
+                              @Value("${blog.search.backend:memory}") String searchBackend) {
+        boolean fullTextSearch = "mysql".equalsIgnoreCase(searchBackend);
+        if (COMPRESSED.equalsIgnoreCase(storage) && fullTextSearch) {
+            logger.warn("MySQL 全文检索只能索引 content 列，忽略 blog.content.storage=compressed，正文按 text 保存");
+        }
+        this.compressed = COMPRESSED.equalsIgnoreCase(storage) && !fullTextSearch;
+        this.threshold = Math.max(0, threshold);
+    }
+
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * 配置的描述，如 text、compressed:4096；BlogContentMigrator 以此判断配置是否变化
+     */
+    public String describe() {
+        return compressed ? COMPRESSED + ":" + threshold : TEXT;
+    }
+
+    /**
+     * 正文是否应保存到压缩列
+     */
+    public boolean shouldPack(String content) {
+        return compressed && content != null && content.length() >= threshold;
+    }
+
+    /**
+     * 应写入 content 列的值
+     */
+    public String textPart(String content) {
+        return shouldPack(content) ? null : content;
+    }
+
+    /**
+     * 应写入 content_packed 列的值（转换前）
+     */
+    public String packedPart(String content) {
+        return shouldPack(content) ? content : null;
+    }
+}
@@ -0,0 +1,22 @@
+package com.ulna.blog_manager.model;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * 写入前按 BlogContentStorage 把正文拆分到 content / content_packed 列
+ *
+ * 由 Hibernate 通过 Spring 的 BeanContainer 创建，因此可以注入存储配置。
+ */
+public class BlogContentStorageListener {
+
+    @Autowired
+    private BlogContentStorage storage;
+
+    @PrePersist
+    @PreUpdate
+    public void splitContent(BlogEntity blog) {
+        blog.applyStorage(storage);
+    }
+}
@@ -3,33 +3,76 @@ package com.ulna.blog_manager.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "blogs")
+@Table(name = "blogs", indexes = {
+    @Index(name = "idx_user_created_id", columnList = "user_id, created_at, id"),
+    @Index(name = "idx_user_updated", columnList = "user_id, updated_at"),
+    @Index(name = "idx_user_words", columnList = "user_id, word_count")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_user_filename", columnNames = {"user_id", "filename"})
+})
+// 绕过 Hibernate 的 JDBC 写入需要通过 SecondLevelCache 失效对应条目
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.BLOGS)
+@EntityListeners(BlogContentStorageListener.class)
 public class BlogEntity {
     
+    // ID 预分配步长，与 blogs_seq 的步进一致
+    public static final int ID_ALLOCATION_SIZE = 50;
+    
+    // 元数据列的长度上限；不经过实体校验的写入（部分更新和写缓冲的 JDBC 更新、批量导入）写入前用 checkLengths 检查
+    public static final int MAX_TITLE_LENGTH = 200;
+    public static final int MAX_CATEGORIES_LENGTH = 255;
+    public static final int MAX_TAGS_LENGTH = 500;
+    public static final int MAX_SAYING_LENGTH = 500;
+    
+    // 使用序列（MySQL 上由 blogs_seq 表模拟）并按 50 个一段预分配，
+    // 插入前即可得到ID，Hibernate 才能把多条 INSERT 合并为 JDBC 批量执行
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "blogs_seq")
+    @SequenceGenerator(name = "blogs_seq", sequenceName = "blogs_seq", allocationSize = BlogEntity.ID_ALLOCATION_SIZE)
     private Long id;
     
     @NotBlank(message = "博客标题不能为空")
-    @Size(max = 200, message = "标题长度不能超过200字符")
+    @Size(max = MAX_TITLE_LENGTH, message = "标题长度不能超过200字符")
     @Column(nullable = false)
     private String title;
     
-    @NotBlank(message = "博客内容不能为空")
+    // 正文按 BlogContentStorage 的配置保存在 content 或 content_packed 其中一列，另一列为 NULL；
+    // setContent 先放在 content，写入前由 BlogContentStorageListener 拆分
     @Lob
-    @Column(nullable = false, columnDefinition = "TEXT")
+    @Column(columnDefinition = "TEXT")
     private String content;
     
-    @Column(name = "categories")
+    // 压缩后的正文（带格式头），见 CompressedContentConverter
+    @Convert(converter = CompressedContentConverter.class)
+    @Column(name = "content_packed", columnDefinition = "LONGBLOB")
+    private String contentPacked;
+    
+    // 以下四列由 setContent 根据正文计算（见 ContentStats），列表查询直接读取，不需要加载正文
+    @Column(name = "excerpt", length = 500)
+    private String excerpt;
+    
+    @Column(name = "char_count")
+    private Integer charCount;
+    
+    @Column(name = "word_count")
+    private Integer wordCount;
+    
+    @Column(name = "reading_minutes")
+    private Integer readingMinutes;
+    
+    @Column(name = "categories", length = MAX_CATEGORIES_LENGTH)
     private String categories;
     
-    @Column(name = "tags")
+    @Column(name = "tags", length = MAX_TAGS_LENGTH)
     private String tags; // 存储为逗号分隔的字符串
     
-    @Column(name = "saying")
+    @Column(name = "saying", length = MAX_SAYING_LENGTH)
     private String saying;
     
     @Column(name = "filename")
@@ -47,14 +90,16 @@ public class BlogEntity {
     
     // 构造函数
     public BlogEntity() {
-        this.createdAt = LocalDateTime.now();
-        this.updatedAt = LocalDateTime.now();
+        // 新博客的创建时间和更新时间相同
+        LocalDateTime now = LocalDateTime.now();
+        this.createdAt = now;
+        this.updatedAt = now;
     }
     
     public BlogEntity(String title, String content, String categories, String tags, String saying, User user) {
         this();
         this.title = title;
-        this.content = content;
+        setContent(content);
         this.categories = categories;
         this.tags = tags;
         this.saying = saying;
@@ -65,7 +110,7 @@ public class BlogEntity {
     public BlogEntity(Blog blog, User user) {
         this();
         this.title = blog.getTitle();
-        this.content = blog.getContent() != null ? blog.getContent() : blog.loadContent();
+        setContent(blog.getContent() != null ? blog.getContent() : blog.loadContent());
         this.categories = blog.getCategories();
         this.tags = blog.getTags() != null ? String.join(",", blog.getTags()) : null;
         this.saying = blog.getSaying();
@@ -73,14 +118,54 @@ public class BlogEntity {
         this.user = user;
         if (blog.getDate() != null) {
             this.createdAt = blog.getDate();
-        }    }
+        }
+    }
+    
+    /**
+     * 检查博客的标题、分类、标签和引言是否超出列长度
+     * 
+     * @return 超出时返回错误信息，否则返回 null
+     */
+    public static String checkLengths(Blog blog) {
+        return checkLengths(blog.getTitle(), blog.getCategories(),
+                blog.getTags() != null ? String.join(",", blog.getTags()) : null, blog.getSaying());
+    }
+    
+    /**
+     * 检查部分更新中出现的字段是否超出列长度，未出现的字段不检查
+     * 
+     * @return 超出时返回错误信息，否则返回 null
+     */
+    public static String checkLengths(BlogPatch patch) {
+        return checkLengths(patch.hasTitle() ? patch.getTitle() : null,
+                patch.hasCategories() ? patch.getCategories() : null,
+                patch.hasTags() ? patch.joinedTags() : null,
+                patch.hasSaying() ? patch.getSaying() : null);
+    }
+    
+    // 值为 null 的字段不检查；tags 为逗号拼接后的列值
+    private static String checkLengths(String title, String categories, String tags, String saying) {
+        if (title != null && title.length() > MAX_TITLE_LENGTH) {
+            return "标题长度不能超过" + MAX_TITLE_LENGTH + "字符";
+        }
+        if (categories != null && categories.length() > MAX_CATEGORIES_LENGTH) {
+            return "分类长度不能超过" + MAX_CATEGORIES_LENGTH + "字符";
+        }
+        if (tags != null && tags.length() > MAX_TAGS_LENGTH) {
+            return "标签总长度不能超过" + MAX_TAGS_LENGTH + "字符";
+        }
+        if (saying != null && saying.length() > MAX_SAYING_LENGTH) {
+            return "引言长度不能超过" + MAX_SAYING_LENGTH + "字符";
+        }
+        return null;
+    }
     
     // 转换为Blog对象
     public Blog toBlog() {
         Blog blog = new Blog();
         blog.setId(this.id);
         blog.setTitle(this.title);
-        blog.setContent(this.content);
+        blog.setContent(getContent());
         blog.setCategories(this.categories);
         if (this.tags != null && !this.tags.isEmpty()) {
             blog.setTags(this.tags.split(","));
@@ -88,6 +173,7 @@ public class BlogEntity {
         blog.setSaying(this.saying);
         blog.setFilename(this.filename);
         blog.setDate(this.createdAt);
+        blog.setUpdatedAt(this.updatedAt);
         return blog;
     }
     
@@ -108,12 +194,41 @@ public class BlogEntity {
         this.title = title;
     }
     
+    @NotBlank(message = "博客内容不能为空")
     public String getContent() {
-        return content;
+        return content != null ? content : contentPacked;
     }
     
     public void setContent(String content) {
         this.content = content;
+        this.contentPacked = null;
+        ContentStats stats = ContentStats.of(content);
+        this.excerpt = stats.getExcerpt();
+        this.charCount = stats.getCharCount();
+        this.wordCount = stats.getWordCount();
+        this.readingMinutes = stats.getReadingMinutes();
+    }
+    
+    void applyStorage(BlogContentStorage storage) {
+        String current = getContent();
+        this.content = storage.textPart(current);
+        this.contentPacked = storage.packedPart(current);
+    }
+    
+    public String getExcerpt() {
+        return excerpt;
+    }
+    
+    public Integer getCharCount() {
+        return charCount;
+    }
+    
+    public Integer getWordCount() {
+        return wordCount;
+    }
+    
+    public Integer getReadingMinutes() {
+        return readingMinutes;
     }
     
     public String getCategories() {
@@ -0,0 +1,19 @@
+package com.ulna.blog_manager.model;
+
+import java.util.List;
+
+/**
+ * 当前用户的标签与分类分面统计
+ */
+public class BlogFacets {
+    private List<FacetCount> tags;
+    private List<FacetCount> categories;
+
+    public BlogFacets(List<FacetCount> tags, List<FacetCount> categories) {
+        this.tags = tags;
+        this.categories = categories;
+    }
+
+    public List<FacetCount> getTags() { return tags; }
+    public List<FacetCount> getCategories() { return categories; }
+}
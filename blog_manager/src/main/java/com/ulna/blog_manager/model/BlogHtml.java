@@ -0,0 +1,40 @@
+package com.ulna.blog_manager.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * 服务端渲染后的博客：元数据和正文 HTML（不含 Markdown 原文）
+ */
+public class BlogHtml {
+    private Long id;
+    private String title;
+    private String categories;
+    private String[] tags;
+    private String saying;
+    private LocalDateTime date;
+    private LocalDateTime updatedAt;
+    private String contentHash;
+    private String html;
+
+    public BlogHtml(Blog blog, String contentHash, String html) {
+        this.id = blog.getId();
+        this.title = blog.getTitle();
+        this.categories = blog.getCategories();
+        this.tags = blog.getTags();
+        this.saying = blog.getSaying();
+        this.date = blog.getDate();
+        this.updatedAt = blog.getUpdatedAt();
+        this.contentHash = contentHash;
+        this.html = html;
+    }
+
+    public Long getId() { return id; }
+    public String getTitle() { return title; }
+    public String getCategories() { return categories; }
+    public String[] getTags() { return tags; }
+    public String getSaying() { return saying; }
+    public LocalDateTime getDate() { return date; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public String getContentHash() { return contentHash; }
+    public String getHtml() { return html; }
+}
@@ -0,0 +1,34 @@
+package com.ulna.blog_manager.model;
+
+import java.util.List;
+
+/**
+ * 批量导入结果汇总，items 与请求中的博客一一对应
+ */
+public class BlogImportReport {
+    private int created;
+    private int updated;
+    private int failed;
+    private long elapsedMillis;
+    private List<BlogImportResult> items;
+
+    public BlogImportReport(List<BlogImportResult> items, long elapsedMillis) {
+        this.items = items;
+        this.elapsedMillis = elapsedMillis;
+        for (BlogImportResult item : items) {
+            if (BlogImportResult.CREATED.equals(item.getStatus())) {
+                created++;
+            } else if (BlogImportResult.UPDATED.equals(item.getStatus())) {
+                updated++;
+            } else {
+                failed++;
+            }
+        }
+    }
+
+    public int getCreated() { return created; }
+    public int getUpdated() { return updated; }
+    public int getFailed() { return failed; }
+    public long getElapsedMillis() { return elapsedMillis; }
+    public List<BlogImportResult> getItems() { return items; }
+}
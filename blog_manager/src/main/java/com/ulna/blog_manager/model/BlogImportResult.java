@@ -0,0 +1,43 @@
+package com.ulna.blog_manager.model;
+
+/**
+ * 批量导入中单篇博客的处理结果
+ */
+public class BlogImportResult {
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String FAILED = "failed";
+
+    private int index;
+    private String filename;
+    private String title;
+    private String status;
+    private Long id;
+    private String error;
+
+    public BlogImportResult(int index, String filename, String title) {
+        this.index = index;
+        this.filename = filename;
+        this.title = title;
+    }
+
+    public void succeed(String status, Long id) {
+        this.status = status;
+        this.id = id;
+        this.error = null;
+    }
+
+    public void fail(String error) {
+        this.status = FAILED;
+        this.id = null;
+        this.error = error;
+    }
+
+    public int getIndex() { return index; }
+    public String getFilename() { return filename; }
+    public void setFilename(String filename) { this.filename = filename; }
+    public String getTitle() { return title; }
+    public String getStatus() { return status; }
+    public Long getId() { return id; }
+    public String getError() { return error; }
+}
@@ -0,0 +1,20 @@
+package com.ulna.blog_manager.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户博客列表的版本信息：最近更新时间和博客数量
+ * 新增、修改会改变 lastUpdatedAt，删除会改变 count，用于生成列表的 ETag
+ */
+public class BlogListVersion {
+    private LocalDateTime lastUpdatedAt;
+    private long count;
+
+    public BlogListVersion(LocalDateTime lastUpdatedAt, long count) {
+        this.lastUpdatedAt = lastUpdatedAt;
+        this.count = count;
+    }
+
+    public LocalDateTime getLastUpdatedAt() { return lastUpdatedAt; }
+    public long getCount() { return count; }
+}
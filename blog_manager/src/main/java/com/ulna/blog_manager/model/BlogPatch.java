@@ -0,0 +1,55 @@
+package com.ulna.blog_manager.model;
+
+/**
+ * 博客的部分更新（PATCH 请求体）
+ * 只有请求中出现的字段才会被更新，出现但值为 null 表示清空该字段。
+ * Jackson 只会为请求中出现的字段调用 setter，以此记录字段是否出现。
+ */
+public class BlogPatch {
+    private String title;
+    private String categories;
+    private String[] tags;
+    private String saying;
+    private String content;
+
+    private boolean titleSet;
+    private boolean categoriesSet;
+    private boolean tagsSet;
+    private boolean sayingSet;
+    private boolean contentSet;
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; this.titleSet = true; }
+    public String getCategories() { return categories; }
+    public void setCategories(String categories) { this.categories = categories; this.categoriesSet = true; }
+    public String[] getTags() { return tags; }
+    public void setTags(String[] tags) { this.tags = tags; this.tagsSet = true; }
+    public String getSaying() { return saying; }
+    public void setSaying(String saying) { this.saying = saying; this.sayingSet = true; }
+    public String getContent() { return content; }
+    public void setContent(String content) { this.content = content; this.contentSet = true; }
+
+    public boolean hasTitle() { return titleSet; }
+    public boolean hasCategories() { return categoriesSet; }
+    public boolean hasTags() { return tagsSet; }
+    public boolean hasSaying() { return sayingSet; }
+    public boolean hasContent() { return contentSet; }
+
+    /**
+     * 是否包含正文以外的字段
+     */
+    public boolean hasMetadata() {
+        return titleSet || categoriesSet || tagsSet || sayingSet;
+    }
+
+    public boolean isEmpty() {
+        return !hasMetadata() && !contentSet;
+    }
+
+    /**
+     * 标签按 blogs.tags 列的格式拼接为逗号分隔的字符串
+     */
+    public String joinedTags() {
+        return tags != null ? String.join(",", tags) : null;
+    }
+}
@@ -0,0 +1,112 @@
+package com.ulna.blog_manager.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 博客修订
+ *
+ * 每次修改博客后记录一条修订。正文按修订链保存：快照修订保存压缩后的完整正文，
+ * 增量修订保存相对于同一博客上一条修订的压缩差异（公共前缀、公共后缀之外的中间部分），
+ * 读取任意修订时从其前最近的快照开始依次应用增量。标题等元数据很小，每条修订都完整保存。
+ */
+@Entity
+@Table(name = "blog_revision", indexes = {
+    @Index(name = "idx_revision_created", columnList = "created_at")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_revision_blog_no", columnNames = {"blog_id", "revision_no"})
+})
+public class BlogRevision {
+
+    // 与 blogs 表相同，按序列预分配ID，批量导入时可以合并 INSERT
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "blog_revision_seq")
+    @SequenceGenerator(name = "blog_revision_seq", sequenceName = "blog_revision_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "blog_id", nullable = false)
+    private Long blogId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // 博客内的修订号，从 1 开始递增；压缩后可能不连续
+    @Column(name = "revision_no", nullable = false)
+    private Integer revisionNo;
+
+    // true 为完整快照，false 为相对上一条修订的增量
+    @Column(name = "snapshot", nullable = false)
+    private boolean snapshot;
+
+    // 距离最近快照的增量条数，快照为 0
+    @Column(name = "chain_length", nullable = false)
+    private Integer chainLength;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(name = "categories")
+    private String categories;
+
+    @Column(name = "tags", length = 500)
+    private String tags;
+
+    @Column(name = "saying", length = 500)
+    private String saying;
+
+    @Column(name = "content_length", nullable = false)
+    private Integer contentLength;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    // Deflate 压缩后的快照或增量；空数组表示正文与上一条修订相同
+    @Lob
+    @Column(name = "data", nullable = false, columnDefinition = "MEDIUMBLOB")
+    private byte[] data;
+
+    // data 的字节数，修订列表和存储统计直接读取该列
+    @Column(name = "stored_size", nullable = false)
+    private Integer storedSize;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public BlogRevision() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getBlogId() { return blogId; }
+    public void setBlogId(Long blogId) { this.blogId = blogId; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public Integer getRevisionNo() { return revisionNo; }
+    public void setRevisionNo(Integer revisionNo) { this.revisionNo = revisionNo; }
+    public boolean isSnapshot() { return snapshot; }
+    public void setSnapshot(boolean snapshot) { this.snapshot = snapshot; }
+    public Integer getChainLength() { return chainLength; }
+    public void setChainLength(Integer chainLength) { this.chainLength = chainLength; }
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    public String getCategories() { return categories; }
+    public void setCategories(String categories) { this.categories = categories; }
+    public String getTags() { return tags; }
+    public void setTags(String tags) { this.tags = tags; }
+    public String getSaying() { return saying; }
+    public void setSaying(String saying) { this.saying = saying; }
+    public Integer getContentLength() { return contentLength; }
+    public void setContentLength(Integer contentLength) { this.contentLength = contentLength; }
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+    public byte[] getData() { return data; }
+    public void setData(byte[] data) {
+        this.data = data;
+        this.storedSize = data != null ? data.length : 0;
+    }
+    public Integer getStoredSize() { return storedSize; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
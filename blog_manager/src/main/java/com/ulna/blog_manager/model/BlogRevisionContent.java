@@ -0,0 +1,56 @@
+package com.ulna.blog_manager.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * 还原后的一条修订：元数据和完整正文
+ */
+public class BlogRevisionContent {
+    private Long blogId;
+    private Integer revisionNo;
+    private String title;
+    private String categories;
+    private String[] tags;
+    private String saying;
+    private String content;
+    private String contentHash;
+    private LocalDateTime createdAt;
+
+    public BlogRevisionContent(BlogRevision revision, String content) {
+        this.blogId = revision.getBlogId();
+        this.revisionNo = revision.getRevisionNo();
+        this.title = revision.getTitle();
+        this.categories = revision.getCategories();
+        if (revision.getTags() != null && !revision.getTags().isEmpty()) {
+            this.tags = revision.getTags().split(",");
+        }
+        this.saying = revision.getSaying();
+        this.content = content;
+        this.contentHash = revision.getContentHash();
+        this.createdAt = revision.getCreatedAt();
+    }
+
+    /**
+     * 转换为 Blog，用于按原有更新流程恢复
+     */
+    public Blog toBlog() {
+        Blog blog = new Blog();
+        blog.setId(blogId);
+        blog.setTitle(title);
+        blog.setCategories(categories);
+        blog.setTags(tags);
+        blog.setSaying(saying);
+        blog.setContent(content);
+        return blog;
+    }
+
+    public Long getBlogId() { return blogId; }
+    public Integer getRevisionNo() { return revisionNo; }
+    public String getTitle() { return title; }
+    public String getCategories() { return categories; }
+    public String[] getTags() { return tags; }
+    public String getSaying() { return saying; }
+    public String getContent() { return content; }
+    public String getContentHash() { return contentHash; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,36 @@
+package com.ulna.blog_manager.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * 修订摘要（修订列表使用），不包含正文数据
+ */
+public class BlogRevisionSummary {
+    private Integer revisionNo;
+    private boolean snapshot;
+    private String title;
+    private Integer contentLength;
+    private String contentHash;
+    private Integer storedSize;
+    private LocalDateTime createdAt;
+
+    // JPQL 投影使用的构造函数
+    public BlogRevisionSummary(Integer revisionNo, boolean snapshot, String title, Integer contentLength,
+                               String contentHash, Integer storedSize, LocalDateTime createdAt) {
+        this.revisionNo = revisionNo;
+        this.snapshot = snapshot;
+        this.title = title;
+        this.contentLength = contentLength;
+        this.contentHash = contentHash;
+        this.storedSize = storedSize;
+        this.createdAt = createdAt;
+    }
+
+    public Integer getRevisionNo() { return revisionNo; }
+    public boolean isSnapshot() { return snapshot; }
+    public String getTitle() { return title; }
+    public Integer getContentLength() { return contentLength; }
+    public String getContentHash() { return contentHash; }
+    public Integer getStoredSize() { return storedSize; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
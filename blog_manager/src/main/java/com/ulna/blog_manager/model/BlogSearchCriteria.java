@@ -0,0 +1,48 @@
+package com.ulna.blog_manager.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 组合搜索条件
+ * 所有非空条件以 AND 方式组合，编译为一条 SQL 查询。
+ */
+public class BlogSearchCriteria {
+    private String title;               // 标题包含
+    private String categories;          // 分类包含
+    private List<String> tags;          // 必须同时包含的标签
+    private LocalDateTime createdFrom;  // 创建时间下限（含）
+    private LocalDateTime createdTo;    // 创建时间上限（不含）
+    private LocalDateTime updatedSince; // 在此时间之后更新过（含）
+    private Integer minWords;           // 字数下限（含）
+    private Integer maxWords;           // 字数上限（含）
+    private String sort = "createdAt";  // 排序字段：createdAt / updatedAt / title / wordCount
+    private String direction = "desc";  // 排序方向：asc / desc
+    private int page = 0;
+    private int size = 20;
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    public String getCategories() { return categories; }
+    public void setCategories(String categories) { this.categories = categories; }
+    public List<String> getTags() { return tags; }
+    public void setTags(List<String> tags) { this.tags = tags; }
+    public LocalDateTime getCreatedFrom() { return createdFrom; }
+    public void setCreatedFrom(LocalDateTime createdFrom) { this.createdFrom = createdFrom; }
+    public LocalDateTime getCreatedTo() { return createdTo; }
+    public void setCreatedTo(LocalDateTime createdTo) { this.createdTo = createdTo; }
+    public LocalDateTime getUpdatedSince() { return updatedSince; }
+    public void setUpdatedSince(LocalDateTime updatedSince) { this.updatedSince = updatedSince; }
+    public Integer getMinWords() { return minWords; }
+    public void setMinWords(Integer minWords) { this.minWords = minWords; }
+    public Integer getMaxWords() { return maxWords; }
+    public void setMaxWords(Integer maxWords) { this.maxWords = maxWords; }
+    public String getSort() { return sort; }
+    public void setSort(String sort) { this.sort = sort; }
+    public String getDirection() { return direction; }
+    public void setDirection(String direction) { this.direction = direction; }
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+}
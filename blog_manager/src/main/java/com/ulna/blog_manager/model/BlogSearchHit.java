@@ -0,0 +1,53 @@
+package com.ulna.blog_manager.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * 全文检索命中结果
+ * 包含博客摘要信息、相关度得分以及带 &lt;mark&gt; 高亮的正文片段。
+ */
+public class BlogSearchHit {
+    private Long id;
+    private String title;
+    private String categories;
+    private String[] tags;
+    private String saying;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private double score;
+    private String snippet;
+
+    public BlogSearchHit() {}
+
+    public BlogSearchHit(Long id, String title, String categories, String[] tags, String saying,
+                         LocalDateTime createdAt, LocalDateTime updatedAt, double score, String snippet) {
+        this.id = id;
+        this.title = title;
+        this.categories = categories;
+        this.tags = tags;
+        this.saying = saying;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.score = score;
+        this.snippet = snippet;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    public String getCategories() { return categories; }
+    public void setCategories(String categories) { this.categories = categories; }
+    public String[] getTags() { return tags; }
+    public void setTags(String[] tags) { this.tags = tags; }
+    public String getSaying() { return saying; }
+    public void setSaying(String saying) { this.saying = saying; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; }
+    public String getSnippet() { return snippet; }
+    public void setSnippet(String snippet) { this.snippet = snippet; }
+}
@@ -0,0 +1,66 @@
+package com.ulna.blog_manager.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * 博客摘要（列表页使用）
+ * 只包含列表展示需要的字段（摘要、字数等为写入时预先计算的列），不包含正文 content，
+ * 由 JPQL 构造器表达式直接投影，查询时不会读取 content 列。
+ */
+public class BlogSummary {
+    private Long id;
+    private String title;
+    private String categories;
+    private String[] tags;
+    private String saying;
+    private String excerpt;
+    private Integer charCount;
+    private Integer wordCount;
+    private Integer readingMinutes;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public BlogSummary() {}
+
+    // JPQL 投影使用的构造函数，tags 在数据库中是逗号分隔的字符串
+    public BlogSummary(Long id, String title, String categories, String tags, String saying,
+                       String excerpt, Integer charCount, Integer wordCount, Integer readingMinutes,
+                       LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.categories = categories;
+        if (tags != null && !tags.isEmpty()) {
+            this.tags = tags.split(",");
+        }
+        this.saying = saying;
+        this.excerpt = excerpt;
+        this.charCount = charCount;
+        this.wordCount = wordCount;
+        this.readingMinutes = readingMinutes;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    public String getCategories() { return categories; }
+    public void setCategories(String categories) { this.categories = categories; }
+    public String[] getTags() { return tags; }
+    public void setTags(String[] tags) { this.tags = tags; }
+    public String getSaying() { return saying; }
+    public void setSaying(String saying) { this.saying = saying; }
+    public String getExcerpt() { return excerpt; }
+    public void setExcerpt(String excerpt) { this.excerpt = excerpt; }
+    public Integer getCharCount() { return charCount; }
+    public void setCharCount(Integer charCount) { this.charCount = charCount; }
+    public Integer getWordCount() { return wordCount; }
+    public void setWordCount(Integer wordCount) { this.wordCount = wordCount; }
+    public Integer getReadingMinutes() { return readingMinutes; }
+    public void setReadingMinutes(Integer readingMinutes) { this.readingMinutes = readingMinutes; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
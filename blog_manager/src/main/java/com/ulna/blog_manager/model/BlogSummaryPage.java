@@ -0,0 +1,38 @@
+package com.ulna.blog_manager.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 基于游标（createdAt, id）的博客摘要分页结果
+ * nextCursor 为 null 表示已经是最后一页。
+ */
+public class BlogSummaryPage {
+    private List<BlogSummary> items;
+    private Cursor nextCursor;
+
+    public BlogSummaryPage(List<BlogSummary> items, Cursor nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<BlogSummary> getItems() { return items; }
+    public Cursor getNextCursor() { return nextCursor; }
+    public boolean isHasMore() { return nextCursor != null; }
+
+    /**
+     * 分页游标：上一页最后一条记录的创建时间和ID
+     */
+    public static class Cursor {
+        private LocalDateTime createdAt;
+        private Long id;
+
+        public Cursor(LocalDateTime createdAt, Long id) {
+            this.createdAt = createdAt;
+            this.id = id;
+        }
+
+        public LocalDateTime getCreatedAt() { return createdAt; }
+        public Long getId() { return id; }
+    }
+}
@@ -0,0 +1,113 @@
+package com.ulna.blog_manager.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * 博客-标签关联
+ * 冗余保存 user_id，使按用户的标签查询和标签统计只需要扫描 blog_tag 上的组合索引。
+ */
+@Entity
+@Table(name = "blog_tag", indexes = {
+    @Index(name = "idx_blog_tag_user_tag", columnList = "user_id, tag_id, blog_id"),
+    @Index(name = "idx_blog_tag_tag", columnList = "tag_id, blog_id")
+})
+@IdClass(BlogTag.Key.class)
+public class BlogTag implements Persistable<BlogTag.Key> {
+
+    @Id
+    @Column(name = "blog_id")
+    private Long blogId;
+
+    @Id
+    @Column(name = "tag_id")
+    private Long tagId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // 主键由调用方指定，用该标记让 save() 直接 INSERT，而不是先 SELECT 再 merge
+    @Transient
+    private boolean isNew = true;
+
+    public BlogTag() {}
+
+    public BlogTag(Long blogId, Long tagId, Long userId) {
+        this.blogId = blogId;
+        this.tagId = tagId;
+        this.userId = userId;
+    }
+
+    public Long getBlogId() {
+        return blogId;
+    }
+
+    public void setBlogId(Long blogId) {
+        this.blogId = blogId;
+    }
+
+    public Long getTagId() {
+        return tagId;
+    }
+
+    public void setTagId(Long tagId) {
+        this.tagId = tagId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    @Override
+    public Key getId() {
+        return new Key(blogId, tagId);
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    /**
+     * 复合主键 (blog_id, tag_id)
+     */
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private Long blogId;
+        private Long tagId;
+
+        public Key() {}
+
+        public Key(Long blogId, Long tagId) {
+            this.blogId = blogId;
+            this.tagId = tagId;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Key)) return false;
+            Key other = (Key) obj;
+            return Objects.equals(blogId, other.blogId) && Objects.equals(tagId, other.tagId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(blogId, tagId);
+        }
+    }
+}
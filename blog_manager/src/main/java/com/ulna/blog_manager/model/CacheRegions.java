@@ -0,0 +1,25 @@
+package com.ulna.blog_manager.model;
+
+/**
+ * Hibernate 二级缓存区域名称
+ *
+ * 实体注解、仓库查询提示和缓存配置（SecondLevelCacheConfig）共用，
+ * 每个区域的容量和过期时间在配置中单独设置。
+ */
+public final class CacheRegions {
+
+    // 实体缓存
+    public static final String USERS = "users";
+    public static final String BLOGS = "blogs";
+
+    // 查询缓存：博客查询单独一个区域，只缓存不受 JDBC 部分更新影响的查询（见 BlogRepository）
+    public static final String USER_QUERIES = "user-queries";
+    public static final String BLOG_QUERIES = "blog-queries";
+
+    // Hibernate 内置区域：未指定区域的查询结果、各表最后更新时间（查询缓存据此判断结果是否过期）
+    public static final String DEFAULT_QUERIES = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    private CacheRegions() {
+    }
+}
@@ -0,0 +1,112 @@
+package com.ulna.blog_manager.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 压缩正文转换器：String <-> 带格式头的二进制
+ *
+ * 第 1 个字节为格式：
+ * 0 - 未压缩，其后为 UTF-8 正文（压缩后反而更大时使用）；
+ * 1 - Deflate，其后 4 个字节为原始 UTF-8 长度，再之后为 zlib 数据。
+ * 格式头使以后可以更换压缩算法而不需要重写已有数据。
+ */
+@Converter
+public class CompressedContentConverter implements AttributeConverter<String, byte[]> {
+
+    static final byte FORMAT_RAW = 0;
+    static final byte FORMAT_DEFLATE = 1;
+
+    @Override
+    public byte[] convertToDatabaseColumn(String content) {
+        return encode(content);
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] data) {
+        return decode(data);
+    }
+
+    /**
+     * 编码正文，供不经过 JPA 的写入（JDBC 批量更新、迁移任务）使用
+     */
+    public static byte[] encode(String content) {
+        if (content == null) {
+            return null;
+        }
+        byte[] raw = content.getBytes(StandardCharsets.UTF_8);
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 3 + 16);
+            out.write(FORMAT_DEFLATE);
+            out.writeBytes(ByteBuffer.allocate(4).putInt(raw.length).array());
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            if (out.size() < raw.length + 1) {
+                return out.toByteArray();
+            }
+        } finally {
+            deflater.end();
+        }
+        byte[] stored = new byte[raw.length + 1];
+        stored[0] = FORMAT_RAW;
+        System.arraycopy(raw, 0, stored, 1, raw.length);
+        return stored;
+    }
+
+    /**
+     * 解码 encode 生成的数据
+     */
+    public static String decode(byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (data.length == 0) {
+            return "";
+        }
+        switch (data[0]) {
+            case FORMAT_RAW:
+                return new String(data, 1, data.length - 1, StandardCharsets.UTF_8);
+            case FORMAT_DEFLATE:
+                return new String(inflate(data), StandardCharsets.UTF_8);
+            default:
+                throw new IllegalStateException("未知的正文存储格式: " + data[0]);
+        }
+    }
+
+    private static byte[] inflate(byte[] data) {
+        int length = ByteBuffer.wrap(data, 1, 4).getInt();
+        byte[] raw = new byte[length];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, 5, data.length - 5);
+            int n = 0;
+            while (n < length && !inflater.finished()) {
+                int read = inflater.inflate(raw, n, length - n);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                n += read;
+            }
+            if (n != length) {
+                throw new IllegalStateException("压缩正文不完整");
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("压缩正文损坏", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.ulna.blog_manager.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 正文增量更新请求
+ * 客户端声明修改所基于的版本（baseUpdatedAt 或 baseHash，至少一个），
+ * 以及相对该版本的修改列表。修改之间不能重叠，偏移量都相对于基准正文。
+ */
+public class ContentDelta {
+    private LocalDateTime baseUpdatedAt;
+    private String baseHash;
+    private List<ContentEdit> edits;
+
+    public LocalDateTime getBaseUpdatedAt() { return baseUpdatedAt; }
+    public void setBaseUpdatedAt(LocalDateTime baseUpdatedAt) { this.baseUpdatedAt = baseUpdatedAt; }
+    public String getBaseHash() { return baseHash; }
+    public void setBaseHash(String baseHash) { this.baseHash = baseHash; }
+    public List<ContentEdit> getEdits() { return edits; }
+    public void setEdits(List<ContentEdit> edits) { this.edits = edits; }
+}
@@ -0,0 +1,39 @@
+package com.ulna.blog_manager.model;
+
+/**
+ * 正文增量更新的结果
+ * APPLIED 时 version 为更新后的版本；CONFLICT 时 version 为服务端当前版本
+ */
+public class ContentDeltaResult {
+    public enum Status { APPLIED, CONFLICT, NOT_FOUND, INVALID }
+
+    private final Status status;
+    private final ContentVersion version;
+    private final String error;
+
+    private ContentDeltaResult(Status status, ContentVersion version, String error) {
+        this.status = status;
+        this.version = version;
+        this.error = error;
+    }
+
+    public static ContentDeltaResult applied(ContentVersion version) {
+        return new ContentDeltaResult(Status.APPLIED, version, null);
+    }
+
+    public static ContentDeltaResult conflict(ContentVersion current) {
+        return new ContentDeltaResult(Status.CONFLICT, current, "基准版本已过期，请重新获取博客内容");
+    }
+
+    public static ContentDeltaResult notFound() {
+        return new ContentDeltaResult(Status.NOT_FOUND, null, "博客不存在或无权限");
+    }
+
+    public static ContentDeltaResult invalid(String error) {
+        return new ContentDeltaResult(Status.INVALID, null, error);
+    }
+
+    public Status getStatus() { return status; }
+    public ContentVersion getVersion() { return version; }
+    public String getError() { return error; }
+}
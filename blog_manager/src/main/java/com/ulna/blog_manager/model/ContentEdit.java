@@ -0,0 +1,26 @@
+package com.ulna.blog_manager.model;
+
+/**
+ * 正文的一处文本修改：把基准正文中 [start, end) 区间替换为 text
+ * 偏移量按 UTF-16 代码单元计算，与 JavaScript 字符串下标一致
+ */
+public class ContentEdit {
+    private int start;
+    private int end;
+    private String text;
+
+    public ContentEdit() {}
+
+    public ContentEdit(int start, int end, String text) {
+        this.start = start;
+        this.end = end;
+        this.text = text;
+    }
+
+    public int getStart() { return start; }
+    public void setStart(int start) { this.start = start; }
+    public int getEnd() { return end; }
+    public void setEnd(int end) { this.end = end; }
+    public String getText() { return text; }
+    public void setText(String text) { this.text = text; }
+}
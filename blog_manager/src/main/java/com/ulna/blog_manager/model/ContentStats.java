@@ -0,0 +1,108 @@
+package com.ulna.blog_manager.model;
+
+import java.util.regex.Pattern;
+
+/**
+ * 正文统计：纯文本摘要、字数和预计阅读时间
+ *
+ * 写入正文时计算并保存在 blogs 表中，列表可以直接显示预览、按字数排序和筛选，不需要读取正文。
+ * 字数统计区分中日韩文字和其他文字：汉字、假名、谚文每个字计 1，其他文字按连续的字母数字计 1 个词。
+ * 阅读时间按每分钟 300 个中日韩字符、200 个词估算，至少 1 分钟。
+ */
+public final class ContentStats {
+
+    public static final int EXCERPT_LENGTH = 200;
+
+    private static final int CJK_PER_MINUTE = 300;
+    private static final int WORDS_PER_MINUTE = 200;
+
+    private static final Pattern FENCE_MARKER = Pattern.compile("(?m)^\\s*(```|~~~).*$");
+    private static final Pattern IMAGE = Pattern.compile("!\\[([^\\]]*)\\]\\([^)]*\\)");
+    private static final Pattern LINK = Pattern.compile("\\[([^\\]]*)\\]\\([^)]*\\)");
+    private static final Pattern HTML_TAG = Pattern.compile("<[^>]+>");
+    private static final Pattern LINE_PREFIX = Pattern.compile("(?m)^\\s*(#{1,6}\\s+|>\\s?|[-*+]\\s+|\\d+[.)]\\s+)");
+    private static final Pattern TABLE_RULE = Pattern.compile("(?m)^\\s*\\|?\\s*:?-{3,}.*$");
+    private static final Pattern MARKUP = Pattern.compile("[*_~`|]+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final String excerpt;
+    private final int charCount;
+    private final int wordCount;
+    private final int readingMinutes;
+
+    private ContentStats(String excerpt, int charCount, int wordCount, int readingMinutes) {
+        this.excerpt = excerpt;
+        this.charCount = charCount;
+        this.wordCount = wordCount;
+        this.readingMinutes = readingMinutes;
+    }
+
+    public static ContentStats of(String content) {
+        String text = plainText(content);
+
+        int charCount = 0;
+        int cjkCount = 0;
+        int otherWords = 0;
+        boolean inWord = false;
+        for (int i = 0; i < text.length(); ) {
+            int cp = text.codePointAt(i);
+            i += Character.charCount(cp);
+            if (Character.isWhitespace(cp)) {
+                inWord = false;
+                continue;
+            }
+            charCount++;
+            if (isCjk(cp)) {
+                cjkCount++;
+                inWord = false;
+            } else if (Character.isLetterOrDigit(cp)) {
+                if (!inWord) {
+                    otherWords++;
+                    inWord = true;
+                }
+            } else if (cp != '\'' && cp != '-') {
+                inWord = false;
+            }
+        }
+
+        int wordCount = cjkCount + otherWords;
+        double minutes = (double) cjkCount / CJK_PER_MINUTE + (double) otherWords / WORDS_PER_MINUTE;
+        int readingMinutes = Math.max(1, (int) Math.ceil(minutes));
+        return new ContentStats(excerpt(text), charCount, wordCount, readingMinutes);
+    }
+
+    // 去掉 Markdown 标记，保留可读文字（代码块内容保留，只去掉围栏）
+    private static String plainText(String content) {
+        if (content == null || content.isEmpty()) {
+            return "";
+        }
+        String text = FENCE_MARKER.matcher(content).replaceAll("");
+        text = IMAGE.matcher(text).replaceAll("$1");
+        text = LINK.matcher(text).replaceAll("$1");
+        text = HTML_TAG.matcher(text).replaceAll(" ");
+        text = TABLE_RULE.matcher(text).replaceAll("");
+        text = LINE_PREFIX.matcher(text).replaceAll("");
+        text = MARKUP.matcher(text).replaceAll(" ");
+        return WHITESPACE.matcher(text).replaceAll(" ").trim();
+    }
+
+    private static String excerpt(String text) {
+        if (text.codePointCount(0, text.length()) <= EXCERPT_LENGTH) {
+            return text;
+        }
+        return text.substring(0, text.offsetByCodePoints(0, EXCERPT_LENGTH)).trim() + "…";
+    }
+
+    private static boolean isCjk(int cp) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(cp);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+
+    public String getExcerpt() { return excerpt; }
+    public int getCharCount() { return charCount; }
+    public int getWordCount() { return wordCount; }
+    public int getReadingMinutes() { return readingMinutes; }
+}
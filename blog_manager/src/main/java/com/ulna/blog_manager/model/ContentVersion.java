@@ -0,0 +1,22 @@
+package com.ulna.blog_manager.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * 正文版本：更新时间、SHA-256 摘要和长度，客户端用作下一次增量更新的基准
+ */
+public class ContentVersion {
+    private LocalDateTime updatedAt;
+    private String hash;
+    private int length;
+
+    public ContentVersion(LocalDateTime updatedAt, String hash, int length) {
+        this.updatedAt = updatedAt;
+        this.hash = hash;
+        this.length = length;
+    }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public String getHash() { return hash; }
+    public int getLength() { return length; }
+}
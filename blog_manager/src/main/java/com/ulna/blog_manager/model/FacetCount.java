@@ -0,0 +1,17 @@
+package com.ulna.blog_manager.model;
+
+/**
+ * 分面统计项：标签名或分类名及其文章数
+ */
+public class FacetCount {
+    private String name;
+    private long count;
+
+    public FacetCount(String name, long count) {
+        this.name = name;
+        this.count = count;
+    }
+
+    public String getName() { return name; }
+    public long getCount() { return count; }
+}
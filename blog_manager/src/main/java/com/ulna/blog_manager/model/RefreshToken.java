@@ -0,0 +1,69 @@
+package com.ulna.blog_manager.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 刷新令牌
+ *
+ * 令牌原文只返回给客户端一次，表中只保存其 SHA-256。每次刷新都作废旧令牌并签发新令牌（轮换），
+ * 已作废的令牌再次出现说明令牌泄露，此时作废该用户全部刷新令牌。
+ */
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+    @Index(name = "idx_refresh_user", columnList = "user_id"),
+    @Index(name = "idx_refresh_expires", columnList = "expires_at")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_refresh_token_hash", columnNames = "token_hash")
+})
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "token_hash", nullable = false, length = 64)
+    private String tokenHash;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // 轮换时设置，之后该令牌不能再使用（登出时直接删除）
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
+
+    public RefreshToken() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public RefreshToken(Long userId, String tokenHash, LocalDateTime expiresAt) {
+        this();
+        this.userId = userId;
+        this.tokenHash = tokenHash;
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public String getTokenHash() { return tokenHash; }
+    public void setTokenHash(String tokenHash) { this.tokenHash = tokenHash; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+    public LocalDateTime getRevokedAt() { return revokedAt; }
+    public void setRevokedAt(LocalDateTime revokedAt) { this.revokedAt = revokedAt; }
+
+    public boolean isExpired(LocalDateTime now) {
+        return !expiresAt.isAfter(now);
+    }
+}
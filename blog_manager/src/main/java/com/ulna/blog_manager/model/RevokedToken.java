@@ -0,0 +1,51 @@
+package com.ulna.blog_manager.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 已吊销的访问令牌（按 JWT 的 jti 记录）
+ *
+ * 访问令牌过期后记录就没有意义，由清理任务删除；启动时按未过期的记录重建内存中的吊销集合。
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+    @Index(name = "idx_revoked_expires", columnList = "expires_at")
+})
+public class RevokedToken {
+
+    @Id
+    @Column(name = "jti", length = 36)
+    private String jti;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // 令牌本身的过期时间
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+
+    public RevokedToken() {
+        this.revokedAt = LocalDateTime.now();
+    }
+
+    public RevokedToken(String jti, Long userId, LocalDateTime expiresAt) {
+        this();
+        this.jti = jti;
+        this.userId = userId;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getJti() { return jti; }
+    public void setJti(String jti) { this.jti = jti; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+    public LocalDateTime getRevokedAt() { return revokedAt; }
+    public void setRevokedAt(LocalDateTime revokedAt) { this.revokedAt = revokedAt; }
+}
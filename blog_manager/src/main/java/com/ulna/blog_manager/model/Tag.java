@@ -0,0 +1,46 @@
+package com.ulna.blog_manager.model;
+
+import jakarta.persistence.*;
+
+/**
+ * 标签字典
+ * 每个标签名只存一行，博客与标签的关系保存在 blog_tag 表中。
+ */
+@Entity
+@Table(name = "tag", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_tag_name", columnNames = "name")
+})
+public class Tag {
+
+    // 标签名长度上限，超长的标签名由 TagService.normalize 截断后再写入
+    public static final int MAX_NAME_LENGTH = 100;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = MAX_NAME_LENGTH)
+    private String name;
+
+    public Tag() {}
+
+    public Tag(String name) {
+        this.name = name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
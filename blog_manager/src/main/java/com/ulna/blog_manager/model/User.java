@@ -4,11 +4,16 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import java.util.Set;
 
 @Entity
 @Table(name = "users")
+// 每个认证请求都按用户名加载用户，放入二级缓存；blogs 集合不缓存
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.USERS)
 public class User {
     
     @Id
@@ -40,6 +45,14 @@ public class User {
     @Column(nullable = false)
     private Role role = Role.USER;
     
+    // 令牌版本，签发时写入 JWT 的 ver 声明；加 1 即吊销之前签发的全部令牌（为空视为 0）
+    @Column(name = "token_version")
+    private Integer tokenVersion;
+    
+    // 最近一次吊销令牌的时间，启动时只加载访问令牌有效期内吊销过的用户
+    @Column(name = "tokens_revoked_at")
+    private LocalDateTime tokensRevokedAt;
+    
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<BlogEntity> blogs;
     
@@ -118,6 +131,22 @@ public class User {
         this.role = role;
     }
     
+    public int getTokenVersion() {
+        return tokenVersion != null ? tokenVersion : 0;
+    }
+    
+    public void setTokenVersion(int tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+    
+    public LocalDateTime getTokensRevokedAt() {
+        return tokensRevokedAt;
+    }
+    
+    public void setTokensRevokedAt(LocalDateTime tokensRevokedAt) {
+        this.tokensRevokedAt = tokensRevokedAt;
+    }
+    
     public Set<BlogEntity> getBlogs() {
         return blogs;
     }
@@ -0,0 +1,9 @@
+package com.ulna.blog_manager.repository;
+
+import com.ulna.blog_manager.model.AppSetting;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AppSettingRepository extends JpaRepository<AppSetting, String> {
+}
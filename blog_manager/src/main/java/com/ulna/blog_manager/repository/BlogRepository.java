@@ -1,18 +1,158 @@
 package com.ulna.blog_manager.repository;
 
 import com.ulna.blog_manager.model.BlogEntity;
-import com.ulna.blog_manager.model.User;
+import com.ulna.blog_manager.model.BlogListVersion;
+import com.ulna.blog_manager.model.BlogSummary;
+import com.ulna.blog_manager.model.CacheRegions;
+import com.ulna.blog_manager.model.FacetCount;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BlogRepository extends JpaRepository<BlogEntity, Long> {
-    List<BlogEntity> findByUser(User user);
-    List<BlogEntity> findByUserAndTitleContaining(User user, String title);
-    List<BlogEntity> findByUserAndCategoriesContaining(User user, String category);
-    List<BlogEntity> findByUserAndTagsContaining(User user, String tags);
-    List<BlogEntity> findByUserOrderByCreatedAtDesc(User user);
-    Optional<BlogEntity> findByIdAndUser(Long id, User user);
+public interface BlogRepository extends JpaRepository<BlogEntity, Long>, JpaSpecificationExecutor<BlogEntity>, BlogRepositoryCustom {
+    // 以下按 user_id 外键查询，调用方只需要用户ID，不加载 User
+    List<BlogEntity> findByUserIdAndTitleContaining(Long userId, String title);
+    List<BlogEntity> findByUserIdAndCategoriesContaining(Long userId, String category);
+    List<BlogEntity> findByUserIdOrderByCreatedAtDesc(Long userId);
+    // 带 HINT_CACHEABLE 的查询进入 blog-queries 查询缓存，blogs 表经 Hibernate 写入后自动失效。
+    // 只缓存按 id / user_id / filename 定位、返回实体或ID的查询：部分更新、自动保存等 JDBC 写入不改变这些结果，
+    // 只需失效对应的实体缓存。投影了可修改列（标题、updated_at 等）的查询不缓存，列表分页由 BlogReadCache 按用户缓存
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.BLOG_QUERIES)})
+    Optional<BlogEntity> findByIdAndUserId(Long id, Long userId);
+    // 按 (user_id, filename) 唯一索引直接定位单篇博客
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.BLOG_QUERIES)})
+    Optional<BlogEntity> findByUserIdAndFilename(Long userId, String filename);
+    // 批量导入时一次查出本批中已存在的文件
+    List<BlogEntity> findByUserIdAndFilenameIn(Long userId, Collection<String> filenames);
+
+    // 条件请求的新鲜度检查：只读取 updated_at，不加载 content
+    @Query("select b.updatedAt from BlogEntity b where b.id = :id and b.user.id = :userId")
+    Optional<LocalDateTime> findUpdatedAtByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    // 列表版本：在 idx_user_updated (user_id, updated_at) 上即可完成，无需回表
+    @Query("select new com.ulna.blog_manager.model.BlogListVersion(max(b.updatedAt), count(b)) from BlogEntity b where b.user.id = :userId")
+    BlogListVersion findListVersion(@Param("userId") Long userId);
+
+    // 增量更新正文时读取当前正文和版本，返回列：content, content_packed（已解压）, updated_at
+    @Query("select b.content, b.contentPacked, b.updatedAt from BlogEntity b where b.id = :id and b.user.id = :userId")
+    List<Object[]> findContentState(@Param("id") Long id, @Param("userId") Long userId);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.BLOG_QUERIES)})
+    @Query("select b.id from BlogEntity b where b.user.id = :userId and b.filename = :filename")
+    Optional<Long> findIdByUserIdAndFilename(@Param("userId") Long userId, @Param("filename") String filename);
+
+    @Transactional
+    @Modifying
+    @Query("delete from BlogEntity b where b.user.id = :userId and b.filename = :filename")
+    int deleteByUserIdAndFilename(@Param("userId") Long userId, @Param("filename") String filename);
+    // MySQL FULLTEXT 检索（自然语言模式），使用 idx_content_search (ngram) 索引，不读取 content
+    // 返回列：id, title, categories, tags, saying, created_at, updated_at, score
+    @Query(value = "SELECT b.id, b.title, b.categories, b.tags, b.saying, b.created_at, b.updated_at, " +
+                   "MATCH(b.title, b.content) AGAINST(:query IN NATURAL LANGUAGE MODE) AS score " +
+                   "FROM blogs b WHERE b.user_id = :userId " +
+                   "AND MATCH(b.title, b.content) AGAINST(:query IN NATURAL LANGUAGE MODE) " +
+                   "ORDER BY score DESC, b.id DESC LIMIT :limit OFFSET :offset",
+           nativeQuery = true)
+    List<Object[]> fullTextSearchNatural(@Param("userId") Long userId, @Param("query") String query,
+                                         @Param("limit") int limit, @Param("offset") int offset);
+
+    // MySQL FULLTEXT 检索（布尔模式），支持 +必须 -排除 "短语" 等运算符
+    @Query(value = "SELECT b.id, b.title, b.categories, b.tags, b.saying, b.created_at, b.updated_at, " +
+                   "MATCH(b.title, b.content) AGAINST(:query IN BOOLEAN MODE) AS score " +
+                   "FROM blogs b WHERE b.user_id = :userId " +
+                   "AND MATCH(b.title, b.content) AGAINST(:query IN BOOLEAN MODE) " +
+                   "ORDER BY score DESC, b.id DESC LIMIT :limit OFFSET :offset",
+           nativeQuery = true)
+    List<Object[]> fullTextSearchBoolean(@Param("userId") Long userId, @Param("query") String query,
+                                         @Param("limit") int limit, @Param("offset") int offset);
+
+    // 标签精确匹配（通过 blog_tag 关联表，不再有 java 匹配到 javascript 的问题）
+    @Query("select new com.ulna.blog_manager.model.BlogSummary(b.id, b.title, b.categories, b.tags, b.saying, " +
+           "b.excerpt, b.charCount, b.wordCount, b.readingMinutes, b.createdAt, b.updatedAt) " +
+           "from BlogEntity b where b.user.id = :userId and b.id in (" +
+           "  select bt.blogId from BlogTag bt join Tag t on t.id = bt.tagId " +
+           "  where bt.userId = :userId and t.name = :tag) " +
+           "order by b.createdAt desc, b.id desc")
+    List<BlogSummary> findSummariesByTag(@Param("userId") Long userId, @Param("tag") String tag, Pageable pageable);
+
+    // 包含任意一个标签
+    @Query("select new com.ulna.blog_manager.model.BlogSummary(b.id, b.title, b.categories, b.tags, b.saying, " +
+           "b.excerpt, b.charCount, b.wordCount, b.readingMinutes, b.createdAt, b.updatedAt) " +
+           "from BlogEntity b where b.user.id = :userId and b.id in (" +
+           "  select bt.blogId from BlogTag bt join Tag t on t.id = bt.tagId " +
+           "  where bt.userId = :userId and t.name in :tags) " +
+           "order by b.createdAt desc, b.id desc")
+    List<BlogSummary> findSummariesByAnyTag(@Param("userId") Long userId, @Param("tags") Collection<String> tags, Pageable pageable);
+
+    // 同时包含全部标签（tagCount 为去重后的标签个数）
+    @Query("select new com.ulna.blog_manager.model.BlogSummary(b.id, b.title, b.categories, b.tags, b.saying, " +
+           "b.excerpt, b.charCount, b.wordCount, b.readingMinutes, b.createdAt, b.updatedAt) " +
+           "from BlogEntity b where b.user.id = :userId and b.id in (" +
+           "  select bt.blogId from BlogTag bt join Tag t on t.id = bt.tagId " +
+           "  where bt.userId = :userId and t.name in :tags " +
+           "  group by bt.blogId having count(distinct bt.tagId) = :tagCount) " +
+           "order by b.createdAt desc, b.id desc")
+    List<BlogSummary> findSummariesByAllTags(@Param("userId") Long userId, @Param("tags") Collection<String> tags,
+                                             @Param("tagCount") long tagCount, Pageable pageable);
+
+    // 当前用户每个分类的文章数
+    @Query("select new com.ulna.blog_manager.model.FacetCount(b.categories, count(b)) " +
+           "from BlogEntity b where b.user.id = :userId and b.categories is not null " +
+           "group by b.categories order by count(b) desc, b.categories asc")
+    List<FacetCount> countByCategory(@Param("userId") Long userId);
+
+    // 标签迁移任务使用：按ID分批读取 (id, user_id, tags)，不读取 content
+    @Query("select b.id, b.user.id, b.tags from BlogEntity b " +
+           "where b.id > :lastId and b.tags is not null and b.tags <> '' order by b.id asc")
+    List<Object[]> findTagColumnsAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+    // 按ID顺序分批读取重建检索索引需要的列，不加载实体、不经过二级缓存
+    // 返回列：id, user_id, title, categories, tags, saying, content, content_packed（已解压）, created_at, updated_at
+    @Query("select b.id, b.user.id, b.title, b.categories, b.tags, b.saying, b.content, b.contentPacked, b.createdAt, b.updatedAt " +
+           "from BlogEntity b where b.id > :lastId order by b.id")
+    List<Object[]> findIndexColumnsAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+    // 摘要分页（第一页），只投影列表字段，不读取 content
+    @Query("select new com.ulna.blog_manager.model.BlogSummary(b.id, b.title, b.categories, b.tags, b.saying, " +
+           "b.excerpt, b.charCount, b.wordCount, b.readingMinutes, b.createdAt, b.updatedAt) " +
+           "from BlogEntity b where b.user.id = :userId " +
+           "order by b.createdAt desc, b.id desc")
+    List<BlogSummary> findSummaryFirstPage(@Param("userId") Long userId, Pageable pageable);
+
+    // 摘要分页（后续页），按 (createdAt, id) 游标定位，深分页与第一页代价相同
+    @Query("select new com.ulna.blog_manager.model.BlogSummary(b.id, b.title, b.categories, b.tags, b.saying, " +
+           "b.excerpt, b.charCount, b.wordCount, b.readingMinutes, b.createdAt, b.updatedAt) " +
+           "from BlogEntity b where b.user.id = :userId " +
+           "and (b.createdAt < :createdAt or (b.createdAt = :createdAt and b.id < :id)) " +
+           "order by b.createdAt desc, b.id desc")
+    List<BlogSummary> findSummaryPageAfter(@Param("userId") Long userId,
+                                           @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") Long id,
+                                           Pageable pageable);
+
+    // 全部博客正文占用的字节数（含压缩列），用于衡量修订历史的存储比例
+    @Query(value = "select coalesce(sum(coalesce(length(content), 0) + coalesce(length(content_packed), 0)), 0) from blogs", nativeQuery = true)
+    long sumContentBytes();
+
+    // 博客的作者ID，写缓冲用于校验归属而不读取整行
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.BLOG_QUERIES)})
+    @Query("select b.user.id from BlogEntity b where b.id = :id")
+    Optional<Long> findUserIdById(@Param("id") Long id);
 }
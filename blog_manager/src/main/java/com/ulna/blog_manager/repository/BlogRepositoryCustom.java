@@ -0,0 +1,49 @@
+package com.ulna.blog_manager.repository;
+
+import com.ulna.blog_manager.model.Blog;
+import com.ulna.blog_manager.model.BlogEntity;
+import com.ulna.blog_manager.model.BlogPatch;
+import com.ulna.blog_manager.model.BlogSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * BlogRepository 的自定义查询片段
+ */
+public interface BlogRepositoryCustom {
+    /**
+     * 按组合条件查询博客摘要，只投影列表字段，不读取 content
+     */
+    List<BlogSummary> findSummaries(Specification<BlogEntity> spec, Pageable pageable);
+
+    /**
+     * 按组合条件以游标方式逐行读取完整博客
+     * 每行转换为 Blog 后立即从持久化上下文中分离，内存占用与结果数量无关；读取期间不读写二级缓存。
+     * 必须在事务内消费并关闭返回的 Stream
+     *
+     * @param fetchSize JDBC fetch size，MySQL 使用 Integer.MIN_VALUE 开启逐行流式读取
+     */
+    Stream<Blog> streamBlogs(Specification<BlogEntity> spec, Sort sort, int fetchSize);
+
+    /**
+     * 按 PATCH 内容更新博客，只在 SET 子句中写入出现的字段，不读取博客
+     * 请求中没有 content 时既不读也不写正文。
+     * 以 JDBC 直接更新并只失效这篇博客的实体缓存；JPQL/Criteria 批量更新会清空整个 blogs 实体缓存区域
+     *
+     * @return 更新的行数，博客不存在或不属于该用户时为 0
+     */
+    int patchBlog(Long id, Long userId, BlogPatch patch, LocalDateTime updatedAt);
+
+    /**
+     * 以 updated_at 作为版本号的正文条件更新：基准版本已被其他写入改变时更新 0 行
+     * 正文按 BlogContentStorage 拆分并重新计算统计列，缓存失效方式与 patchBlog 相同
+     *
+     * @return 更新的行数
+     */
+    int updateContentIfUnchanged(Long id, Long userId, String content, LocalDateTime updatedAt, LocalDateTime baseUpdatedAt);
+}
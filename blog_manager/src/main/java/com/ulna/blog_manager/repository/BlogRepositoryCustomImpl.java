@@ -0,0 +1,199 @@
+package com.ulna.blog_manager.repository;
+
+import com.ulna.blog_manager.model.Blog;
+import com.ulna.blog_manager.model.BlogContentStorage;
+import com.ulna.blog_manager.model.BlogEntity;
+import com.ulna.blog_manager.model.BlogPatch;
+import com.ulna.blog_manager.model.BlogSummary;
+import com.ulna.blog_manager.model.CompressedContentConverter;
+import com.ulna.blog_manager.model.ContentStats;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Cache;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class BlogRepositoryCustomImpl implements BlogRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private BlogContentStorage contentStorage;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // 正文相关的列，参数顺序见 addContentArgs
+    private static final String CONTENT_COLUMNS = "content = ?, content_packed = ?, excerpt = ?, char_count = ?, "
+            + "word_count = ?, reading_minutes = ?";
+
+    @Override
+    public List<BlogSummary> findSummaries(Specification<BlogEntity> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BlogSummary> query = cb.createQuery(BlogSummary.class);
+        Root<BlogEntity> root = query.from(BlogEntity.class);
+
+        query.select(cb.construct(BlogSummary.class,
+                root.get("id"), root.get("title"), root.get("categories"), root.get("tags"),
+                root.get("saying"), root.get("excerpt"), root.get("charCount"), root.get("wordCount"),
+                root.get("readingMinutes"), root.get("createdAt"), root.get("updatedAt")));
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        TypedQuery<BlogSummary> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultList();
+    }
+
+    @Override
+    public Stream<Blog> streamBlogs(Specification<BlogEntity> spec, Sort sort, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BlogEntity> query = cb.createQuery(BlogEntity.class);
+        Root<BlogEntity> root = query.from(BlogEntity.class);
+
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+
+        TypedQuery<BlogEntity> typedQuery = entityManager.createQuery(query)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(AvailableHints.HINT_READ_ONLY, true);
+        // 导出会逐条读取全部博客，不读写二级缓存，避免挤掉 blogs 区域中的热点条目。
+        // 查询上的 HINT_CACHE_MODE 在游标打开后就恢复，流式读取的行不受其影响，因此在流关闭前设置在会话上
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode previousCacheMode = session.getCacheMode();
+        session.setCacheMode(CacheMode.IGNORE);
+        try {
+            return typedQuery.getResultStream()
+                    .map(entity -> {
+                        Blog blog = entity.toBlog();
+                        // 不保留已读取的实体，避免持久化上下文随结果数量增长
+                        entityManager.detach(entity);
+                        return blog;
+                    })
+                    .onClose(() -> session.setCacheMode(previousCacheMode));
+        } catch (RuntimeException e) {
+            session.setCacheMode(previousCacheMode);
+            throw e;
+        }
+    }
+
+    @Override
+    @Transactional
+    public int patchBlog(Long id, Long userId, BlogPatch patch, LocalDateTime updatedAt) {
+        StringBuilder sql = new StringBuilder("UPDATE blogs SET ");
+        List<Object> args = new ArrayList<>();
+        if (patch.hasTitle()) {
+            sql.append("title = ?, ");
+            args.add(patch.getTitle());
+        }
+        if (patch.hasCategories()) {
+            sql.append("categories = ?, ");
+            args.add(patch.getCategories());
+        }
+        if (patch.hasTags()) {
+            sql.append("tags = ?, ");
+            args.add(patch.joinedTags());
+        }
+        if (patch.hasSaying()) {
+            sql.append("saying = ?, ");
+            args.add(patch.getSaying());
+        }
+        if (patch.hasContent()) {
+            sql.append(CONTENT_COLUMNS).append(", ");
+            addContentArgs(args, patch.getContent());
+        }
+        // 不经过实体，不会触发 @PreUpdate，需要显式维护 updated_at
+        sql.append("updated_at = ? WHERE id = ? AND user_id = ?");
+        args.add(Timestamp.valueOf(updatedAt));
+        args.add(id);
+        args.add(userId);
+        return updated(id, jdbcTemplate.update(sql.toString(), args.toArray()));
+    }
+
+    @Override
+    @Transactional
+    public int updateContentIfUnchanged(Long id, Long userId, String content, LocalDateTime updatedAt, LocalDateTime baseUpdatedAt) {
+        List<Object> args = new ArrayList<>();
+        addContentArgs(args, content);
+        args.add(Timestamp.valueOf(updatedAt));
+        args.add(id);
+        args.add(userId);
+        args.add(Timestamp.valueOf(baseUpdatedAt));
+        return updated(id, jdbcTemplate.update("UPDATE blogs SET " + CONTENT_COLUMNS
+                + ", updated_at = ? WHERE id = ? AND user_id = ? AND updated_at = ?", args.toArray()));
+    }
+
+    // 正文按 BlogContentStorage 拆分到 content / content_packed，同时写入预计算的统计列
+    private void addContentArgs(List<Object> args, String content) {
+        ContentStats stats = ContentStats.of(content);
+        args.add(contentStorage.textPart(content));
+        args.add(CompressedContentConverter.encode(contentStorage.packedPart(content)));
+        args.add(stats.getExcerpt());
+        args.add(stats.getCharCount());
+        args.add(stats.getWordCount());
+        args.add(stats.getReadingMinutes());
+    }
+
+    // 更新了行时失效这篇博客的实体缓存。提交前失效一次，让本事务及提交后的回调读到新内容；
+    // 提交后再失效一次，清掉提交前其他请求按旧数据放回的条目。
+    // blog-queries 中的查询结果只有实体ID，不受这里修改的列影响（见 BlogRepository），不需要清空
+    private int updated(Long id, int rows) {
+        if (rows > 0) {
+            evict(id);
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        evict(id);
+                    }
+                });
+            }
+        }
+        return rows;
+    }
+
+    private void evict(Long id) {
+        Cache cache = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(BlogEntity.class, id);
+    }
+}
@@ -0,0 +1,47 @@
+package com.ulna.blog_manager.repository;
+
+import com.ulna.blog_manager.model.BlogRevision;
+import com.ulna.blog_manager.model.BlogRevisionSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BlogRevisionRepository extends JpaRepository<BlogRevision, Long> {
+
+    Optional<BlogRevision> findFirstByBlogIdOrderByRevisionNoDesc(Long blogId);
+
+    Optional<BlogRevision> findByBlogIdAndUserIdAndRevisionNo(Long blogId, Long userId, Integer revisionNo);
+
+    // 指定修订之前（含）最近的一条快照，还原时从它开始应用增量
+    Optional<BlogRevision> findFirstByBlogIdAndSnapshotTrueAndRevisionNoLessThanEqualOrderByRevisionNoDesc(Long blogId, Integer revisionNo);
+
+    List<BlogRevision> findByBlogIdAndRevisionNoBetweenOrderByRevisionNoAsc(Long blogId, Integer from, Integer to);
+
+    List<BlogRevision> findByBlogIdOrderByRevisionNoAsc(Long blogId);
+
+    // 修订列表只投影元数据，不读取 data 列
+    @Query("select new com.ulna.blog_manager.model.BlogRevisionSummary(r.revisionNo, r.snapshot, r.title, " +
+           "r.contentLength, r.contentHash, r.storedSize, r.createdAt) " +
+           "from BlogRevision r where r.blogId = :blogId and r.userId = :userId order by r.revisionNo desc")
+    List<BlogRevisionSummary> findSummaries(@Param("blogId") Long blogId, @Param("userId") Long userId);
+
+    // 修订数超过保留条数的博客，按博客ID分批返回，由压缩任务处理
+    @Query("select r.blogId from BlogRevision r where r.blogId > :afterId " +
+           "group by r.blogId having count(r) > :keep order by r.blogId")
+    List<Long> findBlogIdsWithMoreThan(@Param("keep") long keep, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("delete from BlogRevision r where r.blogId = :blogId")
+    int deleteByBlogId(@Param("blogId") Long blogId);
+
+    // 修订数据占用的字节数
+    @Query(value = "select coalesce(sum(stored_size), 0) from blog_revision", nativeQuery = true)
+    long sumStoredBytes();
+}
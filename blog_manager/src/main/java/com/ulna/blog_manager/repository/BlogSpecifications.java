@@ -0,0 +1,96 @@
+package com.ulna.blog_manager.repository;
+
+import com.ulna.blog_manager.model.BlogEntity;
+import com.ulna.blog_manager.model.BlogTag;
+import com.ulna.blog_manager.model.Tag;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * 博客查询条件（JPA Specification）
+ * 每个方法返回一个可组合的条件，参数为空时返回 null（Specification.and 会忽略 null）。
+ */
+public final class BlogSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private BlogSpecifications() {}
+
+    public static Specification<BlogEntity> ofUser(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    public static Specification<BlogEntity> titleContains(String title) {
+        if (title == null || title.isBlank()) {
+            return null;
+        }
+        return (root, query, cb) -> cb.like(root.get("title"), "%" + escapeLike(title.trim()) + "%", LIKE_ESCAPE);
+    }
+
+    public static Specification<BlogEntity> categoriesContain(String categories) {
+        if (categories == null || categories.isBlank()) {
+            return null;
+        }
+        return (root, query, cb) -> cb.like(root.get("categories"), "%" + escapeLike(categories.trim()) + "%", LIKE_ESCAPE);
+    }
+
+    /**
+     * 精确匹配一个标签：通过 blog_tag 关联表子查询，多个 hasTag 以 AND 组合即为“同时包含全部标签”
+     */
+    public static Specification<BlogEntity> hasTag(String tag) {
+        if (tag == null || tag.isBlank()) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            Subquery<Long> sub = query.subquery(Long.class);
+            Root<BlogTag> blogTag = sub.from(BlogTag.class);
+            Root<Tag> tagRoot = sub.from(Tag.class);
+            sub.select(blogTag.get("blogId")).where(
+                    cb.equal(blogTag.get("tagId"), tagRoot.get("id")),
+                    cb.equal(blogTag.get("userId"), root.get("user").get("id")),
+                    cb.equal(tagRoot.get("name"), tag.trim()));
+            return root.get("id").in(sub);
+        };
+    }
+
+    public static Specification<BlogEntity> createdFrom(LocalDateTime from) {
+        if (from == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+    }
+
+    public static Specification<BlogEntity> createdBefore(LocalDateTime to) {
+        if (to == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.lessThan(root.get("createdAt"), to);
+    }
+
+    public static Specification<BlogEntity> updatedSince(LocalDateTime since) {
+        if (since == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("updatedAt"), since);
+    }
+
+    public static Specification<BlogEntity> wordCountBetween(Integer min, Integer max) {
+        if (min == null && max == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            if (min != null && max != null) {
+                return cb.between(root.get("wordCount"), min, max);
+            }
+            return min != null ? cb.greaterThanOrEqualTo(root.get("wordCount"), min)
+                    : cb.lessThanOrEqualTo(root.get("wordCount"), max);
+        };
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
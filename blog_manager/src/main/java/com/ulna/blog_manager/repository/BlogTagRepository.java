@@ -0,0 +1,35 @@
+package com.ulna.blog_manager.repository;
+
+import com.ulna.blog_manager.model.BlogTag;
+import com.ulna.blog_manager.model.FacetCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BlogTagRepository extends JpaRepository<BlogTag, BlogTag.Key> {
+    List<BlogTag> findByBlogId(Long blogId);
+
+    @Modifying
+    @Query("delete from BlogTag bt where bt.blogId = :blogId")
+    int deleteByBlogId(@Param("blogId") Long blogId);
+
+    @Modifying
+    @Query("delete from BlogTag bt where bt.blogId = :blogId and bt.tagId in :tagIds")
+    int deleteByBlogIdAndTagIdIn(@Param("blogId") Long blogId, @Param("tagIds") Collection<Long> tagIds);
+
+    // 给定的博客中已经有标签关联的博客ID（迁移任务用于跳过已迁移的博客）
+    @Query("select distinct bt.blogId from BlogTag bt where bt.blogId in :blogIds")
+    List<Long> findTaggedBlogIds(@Param("blogIds") Collection<Long> blogIds);
+
+    // 当前用户每个标签的文章数，只扫描 blog_tag 的 (user_id, tag_id, blog_id) 索引
+    @Query("select new com.ulna.blog_manager.model.FacetCount(t.name, count(bt.blogId)) " +
+           "from BlogTag bt join Tag t on t.id = bt.tagId " +
+           "where bt.userId = :userId group by t.name order by count(bt.blogId) desc, t.name asc")
+    List<FacetCount> countByTag(@Param("userId") Long userId);
+}
@@ -0,0 +1,23 @@
+package com.ulna.blog_manager.repository;
+
+import com.ulna.blog_manager.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    // 启动时重建吊销集合只需要 jti 和过期时间
+    @Query("select t.jti, t.expiresAt from RevokedToken t where t.expiresAt > :now")
+    List<Object[]> findActive(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("delete from RevokedToken t where t.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
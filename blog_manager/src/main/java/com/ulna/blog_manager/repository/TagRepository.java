@@ -0,0 +1,30 @@
+package com.ulna.blog_manager.repository;
+
+import com.ulna.blog_manager.model.Tag;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TagRepository extends JpaRepository<Tag, Long> {
+    List<Tag> findByNameIn(Collection<String> names);
+
+    // 按 name 列的排序规则比较，用于 Java 端无法对应到 findByNameIn 结果的标签名
+    Optional<Tag> findFirstByName(String name);
+
+    // 并发创建同名标签时依赖 uk_tag_name 唯一索引忽略重复插入
+    // 声明只影响 tag 表，否则原生更新会清空全部二级缓存和查询缓存
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tag"))
+    @Query(value = "INSERT IGNORE INTO tag (name) VALUES (:name)", nativeQuery = true)
+    int insertIgnore(@Param("name") String name);
+}
@@ -1,14 +1,29 @@
 package com.ulna.blog_manager.repository;
 
+import com.ulna.blog_manager.model.CacheRegions;
 import com.ulna.blog_manager.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    // 认证时按用户名查找，查询结果缓存只保存ID，实体从二级缓存读取
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.USER_QUERIES)})
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+    
+    // 指定时间之后吊销过令牌的用户名和令牌版本，启动时和定时同步时加载到 UserTokenRevocations
+    @Query("select u.username, u.tokenVersion from User u where u.tokensRevokedAt > :since")
+    List<Object[]> findTokenVersionsRevokedSince(@Param("since") LocalDateTime since);
 }
@@ -0,0 +1,205 @@
+package com.ulna.blog_manager.service;
+
+import com.ulna.blog_manager.model.AppSetting;
+import com.ulna.blog_manager.model.BlogContentStorage;
+import com.ulna.blog_manager.model.CompressedContentConverter;
+import com.ulna.blog_manager.repository.AppSettingRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * 博客正文存储方式的在线迁移
+ *
+ * 新写入的正文直接按 BlogContentStorage 的配置保存；已有的数据在应用就绪后于后台按ID分批迁移：
+ * compressed 模式把达到阈值的 content 压缩到 content_packed，text 模式把 content_packed 解压回 content。
+ * 迁移以 updated_at 作为条件更新，不修改 updated_at，迁移期间被用户修改过的博客会被跳过
+ * （新写入已按当前方式保存），因此可以重复执行。
+ * 迁移完成后把配置记入 app_settings，配置没有变化时启动不再扫描；迁移失败则不记录，下次启动重试。
+ */
+@Component
+public class BlogContentMigrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlogContentMigrator.class);
+
+    private static final int BATCH_SIZE = 200;
+
+    // app_settings 中记录已迁移到的存储方式（BlogContentStorage.describe()）
+    static final String APPLIED_SETTING = "blog.content.storage.applied";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SecondLevelCache secondLevelCache;
+
+    @Autowired
+    private BlogContentStorage contentStorage;
+
+    @Autowired
+    private AppSettingRepository appSettingRepository;
+
+    @PostConstruct
+    public void configure() {
+        if (contentStorage.isCompressed()) {
+            logger.info("博客正文压缩存储已开启：{} 字符以上的正文压缩保存", contentStorage.getThreshold());
+            allowNullContent();
+        }
+    }
+
+    // ddl-auto=update 不会放宽已有列的 NOT NULL，压缩后 content 需要为 NULL
+    private void allowNullContent() {
+        try {
+            Boolean notNull = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(), metaData -> {
+                for (String table : new String[] {"blogs", "BLOGS"}) {
+                    try (ResultSet columns = metaData.getColumns(null, null, table, null)) {
+                        while (columns.next()) {
+                            if ("content".equalsIgnoreCase(columns.getString("COLUMN_NAME"))) {
+                                return columns.getInt("NULLABLE") == DatabaseMetaData.columnNoNulls;
+                            }
+                        }
+                    }
+                }
+                return false;
+            });
+            if (Boolean.TRUE.equals(notNull)) {
+                logger.info("blogs.content 改为允许 NULL");
+                String product = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                        DatabaseMetaData::getDatabaseProductName);
+                if ("MySQL".equalsIgnoreCase(product)) {
+                    jdbcTemplate.execute("ALTER TABLE blogs MODIFY content TEXT NULL");
+                } else {
+                    jdbcTemplate.execute("ALTER TABLE blogs ALTER COLUMN content DROP NOT NULL");
+                }
+            }
+        } catch (Exception e) {
+            logger.error("检查 blogs.content 列定义失败，压缩存储可能无法写入: {}", e.getMessage());
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        migrateIfChanged();
+    }
+
+    /**
+     * 存储方式与 app_settings 中记录的不同（或没有记录）时迁移已有数据
+     *
+     * @return 是否执行了迁移扫描
+     */
+    public boolean migrateIfChanged() {
+        String target = contentStorage.describe();
+        String applied;
+        try {
+            applied = appSettingRepository.findById(APPLIED_SETTING).map(AppSetting::getValue).orElse(null);
+        } catch (Exception e) {
+            logger.error("读取正文存储迁移记录失败，跳过本次迁移: {}", e.getMessage());
+            return false;
+        }
+        if (target.equals(applied)) {
+            logger.debug("正文存储方式未变化（{}），无需迁移", target);
+            return false;
+        }
+        boolean completed = contentStorage.isCompressed() ? compressExisting() : decompressExisting();
+        if (completed) {
+            try {
+                appSettingRepository.save(new AppSetting(APPLIED_SETTING, target));
+            } catch (Exception e) {
+                logger.error("保存正文存储迁移记录失败，下次启动将重新扫描: {}", e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    // 把达到阈值的明文正文压缩到 content_packed；返回是否完整执行
+    private boolean compressExisting() {
+        long lastId = 0L;
+        int migrated = 0;
+        long bytesBefore = 0;
+        long bytesAfter = 0;
+        try {
+            while (true) {
+                List<ContentRow> rows = jdbcTemplate.query(
+                        "SELECT id, content, updated_at FROM blogs WHERE id > ? AND content IS NOT NULL " +
+                        "AND CHAR_LENGTH(content) >= ? ORDER BY id LIMIT ?",
+                        (rs, i) -> new ContentRow(rs.getLong(1), rs.getString(2), rs.getTimestamp(3)),
+                        lastId, contentStorage.getThreshold(), BATCH_SIZE);
+                if (rows.isEmpty()) {
+                    break;
+                }
+                for (ContentRow row : rows) {
+                    lastId = row.id();
+                    byte[] packed = CompressedContentConverter.encode(row.content());
+                    int updated = jdbcTemplate.update(
+                            "UPDATE blogs SET content = NULL, content_packed = ? WHERE id = ? AND updated_at = ? AND content IS NOT NULL",
+                            packed, row.id(), row.updatedAt());
+                    if (updated > 0) {
+                        // 二级缓存中的实体仍是迁移前的列拆分
+                        secondLevelCache.evictBlog(row.id());
+                        migrated++;
+                        bytesBefore += row.content().getBytes(StandardCharsets.UTF_8).length;
+                        bytesAfter += packed.length;
+                    }
+                }
+            }
+            if (migrated > 0) {
+                logger.info("正文压缩迁移完成，共 {} 篇博客，{} 字节压缩为 {} 字节", migrated, bytesBefore, bytesAfter);
+            }
+            return true;
+        } catch (Exception e) {
+            logger.error("正文压缩迁移失败，已迁移 {} 篇博客，最后处理的ID: {}", migrated, lastId, e);
+            return false;
+        }
+    }
+
+    // 关闭压缩后把 content_packed 解压回 content；返回是否完整执行
+    private boolean decompressExisting() {
+        long lastId = 0L;
+        int migrated = 0;
+        try {
+            while (true) {
+                List<ContentRow> rows = jdbcTemplate.query(
+                        "SELECT id, content_packed, updated_at FROM blogs WHERE id > ? AND content_packed IS NOT NULL " +
+                        "ORDER BY id LIMIT ?",
+                        (rs, i) -> new ContentRow(rs.getLong(1), CompressedContentConverter.decode(rs.getBytes(2)), rs.getTimestamp(3)),
+                        lastId, BATCH_SIZE);
+                if (rows.isEmpty()) {
+                    break;
+                }
+                for (ContentRow row : rows) {
+                    lastId = row.id();
+                    int updated = jdbcTemplate.update(
+                            "UPDATE blogs SET content = ?, content_packed = NULL WHERE id = ? AND updated_at = ? AND content_packed IS NOT NULL",
+                            row.content(), row.id(), row.updatedAt());
+                    if (updated > 0) {
+                        secondLevelCache.evictBlog(row.id());
+                        migrated++;
+                    }
+                }
+            }
+            if (migrated > 0) {
+                logger.info("正文解压迁移完成，共 {} 篇博客", migrated);
+            }
+            return true;
+        } catch (Exception e) {
+            logger.error("正文解压迁移失败，已迁移 {} 篇博客，最后处理的ID: {}", migrated, lastId, e);
+            return false;
+        }
+    }
+
+    private record ContentRow(long id, String content, Timestamp updatedAt) {}
+}
@@ -1,20 +1,53 @@
 package com.ulna.blog_manager.service;
 
+import com.ulna.blog_manager.Config.ReadYourWritesTracker;
 import com.ulna.blog_manager.model.Blog;
 import com.ulna.blog_manager.model.BlogEntity;
-import com.ulna.blog_manager.model.User;
+import com.ulna.blog_manager.model.BlogFacets;
+import com.ulna.blog_manager.model.BlogHtml;
+import com.ulna.blog_manager.model.BlogListVersion;
+import com.ulna.blog_manager.model.BlogPatch;
+import com.ulna.blog_manager.model.BlogRevisionContent;
+import com.ulna.blog_manager.model.BlogSearchCriteria;
+import com.ulna.blog_manager.model.BlogSearchHit;
+import com.ulna.blog_manager.model.BlogSummary;
+import com.ulna.blog_manager.model.BlogSummaryPage;
+import com.ulna.blog_manager.model.ContentDelta;
+import com.ulna.blog_manager.model.ContentDeltaResult;
+import com.ulna.blog_manager.model.ContentEdit;
+import com.ulna.blog_manager.model.ContentVersion;
 import com.ulna.blog_manager.repository.BlogRepository;
+import com.ulna.blog_manager.repository.UserRepository;
+import com.ulna.blog_manager.repository.BlogSpecifications;
+import com.ulna.blog_manager.service.search.BlogSearchEngine;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class BlogDatabaseService {
@@ -24,51 +57,192 @@ public class BlogDatabaseService {
     @Autowired
     private BlogRepository blogRepository;
     
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ReadYourWritesTracker readYourWrites;
+    
+    @Autowired
+    private BlogSearchEngine blogSearchEngine;
+    
+    @Autowired
+    private TagService tagService;
+    
+    @Autowired
+    private BlogReadCache blogReadCache;
+    
+    @Autowired
+    private BlogRevisionService blogRevisionService;
+    
+    @Autowired
+    private BlogWriteBehindBuffer blogWriteBehind;
+    
+    @Autowired
+    private MarkdownRenderer markdownRenderer;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    // 写操作的数据库步骤（博客、标签关联、修订）在同一事务中执行，任何一步失败都整体回滚
+    private TransactionTemplate writeTx;
+    
     // 创建自定义格式的 DateTimeFormatter
     private static final DateTimeFormatter formatterPrint = DateTimeFormatter.ofPattern("'_'yyyyMMdd'_'HHmmss");
     
+    // 摘要分页的每页条数上限
+    private static final int MAX_PAGE_SIZE = 100;
+    
+    // 全文检索后端：memory（进程内倒排索引）或 mysql（FULLTEXT ngram 索引）
+    @Value("${blog.search.backend:memory}")
+    private String searchBackend;
+    
+    // 流式读取的 JDBC fetch size，MySQL 驱动需要 Integer.MIN_VALUE 才会逐行读取
+    @Value("${blog.stream.fetch-size:-2147483648}")
+    private int streamFetchSize;
+    
+    @PostConstruct
+    public void init() {
+        writeTx = new TransactionTemplate(transactionManager);
+    }
+    
     /**
      * 获取用户的所有博客
      */
-    public List<Blog> listUserBlogs(User user) {
-        logger.debug("获取用户 {} 的所有博客", user.getUsername());
-        List<BlogEntity> blogEntities = blogRepository.findByUserOrderByCreatedAtDesc(user);
-        return blogEntities.stream()
+    @Transactional(readOnly = true)
+    public List<Blog> listUserBlogs(Long userId) {
+        logger.debug("获取用户 {} 的所有博客", userId);
+        List<BlogEntity> blogEntities = blogRepository.findByUserIdOrderByCreatedAtDesc(userId);
+        return withPendingBlogs(blogEntities.stream()
                 .map(BlogEntity::toBlog)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()), userId);
+    }
+    
+    /**
+     * 按游标分页获取用户的博客摘要（不读取正文）
+     * 
+     * @param cursorCreatedAt 上一页最后一条的创建时间，为 null 时返回第一页
+     * @param cursorId 上一页最后一条的ID
+     * @param size 每页条数
+     */
+    @Transactional(readOnly = true)
+    public BlogSummaryPage listUserBlogSummaries(Long userId, LocalDateTime cursorCreatedAt, Long cursorId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        LocalDateTime cursorTime = cursorId == null ? null : cursorCreatedAt;
+        Long cursor = cursorCreatedAt == null ? null : cursorId;
+        BlogSummaryPage page = blogReadCache.getListPage(userId, cursorTime, cursor, pageSize,
+                () -> loadUserBlogSummaries(userId, cursorTime, cursor, pageSize));
+        return withPendingWrites(page, userId);
+    }
+    
+    // 写缓冲中尚未写入的修改叠加到摘要上（不修改缓存中的分页对象）
+    private BlogSummaryPage withPendingWrites(BlogSummaryPage page, Long userId) {
+        List<BlogSummary> items = withPendingSummaries(page.getItems(), userId);
+        return items == page.getItems() ? page : new BlogSummaryPage(items, page.getNextCursor());
+    }
+    
+    // 读取路径不写入缓冲（写入只由写操作和后台定时任务触发），查询按数据库中的内容匹配，
+    // 命中的结果再叠加尚未写入的修改（读己之写）
+    private List<BlogSummary> withPendingSummaries(List<BlogSummary> summaries, Long userId) {
+        if (blogWriteBehind.pendingOf(userId).isEmpty()) {
+            return summaries;
+        }
+        List<BlogSummary> items = new ArrayList<>(summaries.size());
+        for (BlogSummary item : summaries) {
+            BlogWriteBehindBuffer.PendingWrite write = blogWriteBehind.get(item.getId(), userId);
+            items.add(write != null ? write.applyTo(item) : item);
+        }
+        return items;
+    }
+    
+    // 博客对象是新建的，直接修改
+    private List<Blog> withPendingBlogs(List<Blog> blogs, Long userId) {
+        if (!blogWriteBehind.pendingOf(userId).isEmpty()) {
+            for (Blog blog : blogs) {
+                withPendingWrite(blog, userId);
+            }
+        }
+        return blogs;
+    }
+    
+    private Blog withPendingWrite(Blog blog, Long userId) {
+        BlogWriteBehindBuffer.PendingWrite write = blogWriteBehind.get(blog.getId(), userId);
+        if (write != null) {
+            write.applyTo(blog);
+        }
+        return blog;
+    }
+    
+    private BlogSummaryPage loadUserBlogSummaries(Long userId, LocalDateTime cursorCreatedAt, Long cursorId, int pageSize) {
+        logger.debug("分页获取用户 {} 的博客摘要，游标: {} / {}，每页 {} 条", userId, cursorCreatedAt, cursorId, pageSize);
+        
+        // 多取一条用于判断是否还有下一页
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<BlogSummary> rows;
+        if (cursorCreatedAt == null || cursorId == null) {
+            rows = blogRepository.findSummaryFirstPage(userId, limit);
+        } else {
+            rows = blogRepository.findSummaryPageAfter(userId, cursorCreatedAt, cursorId, limit);
+        }
+        
+        BlogSummaryPage.Cursor nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = new ArrayList<>(rows.subList(0, pageSize));
+            BlogSummary last = rows.get(pageSize - 1);
+            nextCursor = new BlogSummaryPage.Cursor(last.getCreatedAt(), last.getId());
+        }
+        return new BlogSummaryPage(rows, nextCursor);
+    }
+    
+    /**
+     * 获取用户博客列表的版本（最近更新时间和数量），用于列表的条件请求
+     */
+    @Transactional(readOnly = true)
+    public BlogListVersion getUserBlogsVersion(Long userId) {
+        BlogListVersion version = blogRepository.findListVersion(userId);
+        LocalDateTime lastUpdatedAt = version.getLastUpdatedAt();
+        for (BlogWriteBehindBuffer.PendingWrite write : blogWriteBehind.pendingOf(userId)) {
+            if (lastUpdatedAt == null || write.getUpdatedAt().isAfter(lastUpdatedAt)) {
+                lastUpdatedAt = write.getUpdatedAt();
+            }
+        }
+        return lastUpdatedAt == version.getLastUpdatedAt() ? version : new BlogListVersion(lastUpdatedAt, version.getCount());
+    }
+    
+    /**
+     * 获取单篇博客的最后更新时间，用于详情的条件请求
+     * 
+     * @return 博客不存在或不属于该用户时返回 null
+     */
+    @Transactional(readOnly = true)
+    public LocalDateTime getBlogUpdatedAt(Long id, Long userId) {
+        BlogWriteBehindBuffer.PendingWrite write = blogWriteBehind.get(id, userId);
+        if (write != null) {
+            return write.getUpdatedAt();
+        }
+        return blogRepository.findUpdatedAtByIdAndUserId(id, userId).orElse(null);
     }
     
     /**
      * 保存博客
+     * 按 (user_id, filename) 执行 upsert：同名文件已存在则更新，否则新建
      */
-    public boolean saveBlog(Blog blog, User user) {
+    public boolean saveBlog(Blog blog, Long userId) {
         try {
-            BlogEntity blogEntity;
+            blogWriteBehind.flushUser(userId);
             if (blog.getFilename() == null || blog.getFilename().isEmpty()) {
                 // 新博客
                 String filename = blog.getTitle() + LocalDateTime.now().format(formatterPrint) + ".md";
                 blog.setFilename(filename);
-                blogEntity = new BlogEntity(blog, user);
-            } else {
-                // 更新现有博客
-                Optional<BlogEntity> existingBlog = blogRepository.findByUser(user)
-                        .stream()
-                        .filter(b -> b.getFilename().equals(blog.getFilename()))
-                        .findFirst();
-                
-                if (existingBlog.isPresent()) {
-                    blogEntity = existingBlog.get();
-                    blogEntity.setTitle(blog.getTitle());
-                    blogEntity.setContent(blog.getContent() != null ? blog.getContent() : blog.loadContent());
-                    blogEntity.setCategories(blog.getCategories());
-                    blogEntity.setTags(blog.getTags() != null ? String.join(",", blog.getTags()) : null);
-                    blogEntity.setSaying(blog.getSaying());
-                } else {
-                    blogEntity = new BlogEntity(blog, user);
-                }
             }
             
-            blogRepository.save(blogEntity);
+            try {
+                writeTx.executeWithoutResult(status -> writeBlog(blog, userId));
+            } catch (DataIntegrityViolationException e) {
+                // 并发插入了同一 (user_id, filename)，唯一索引冲突使整个事务回滚，按更新重试一次
+                logger.debug("博客 {} 插入冲突，改为更新", blog.getFilename());
+                writeTx.executeWithoutResult(status -> writeBlog(blog, userId));
+            }
             logger.info("成功保存博客: {}", blog.getTitle());
             return true;
         } catch (Exception e) {
@@ -77,18 +251,52 @@ public class BlogDatabaseService {
         }
     }
     
+    private void writeBlog(Blog blog, Long userId) {
+        BlogEntity saved = upsertBlog(blog, userId);
+        tagService.syncBlogTags(saved.getId(), userId, blog.getTags());
+        blogRevisionService.record(saved, null);
+        afterCommit(userId, saved.getId(), () -> blogSearchEngine.index(saved));
+    }
+    
+    private BlogEntity upsertBlog(Blog blog, Long userId) {
+        BlogEntity blogEntity;
+        Optional<BlogEntity> existingBlog = blogRepository.findByUserIdAndFilename(userId, blog.getFilename());
+        if (existingBlog.isPresent()) {
+            // 更新现有博客
+            blogEntity = existingBlog.get();
+            blogEntity.setTitle(blog.getTitle());
+            blogEntity.setContent(blog.getContent() != null ? blog.getContent() : blog.loadContent());
+            blogEntity.setCategories(blog.getCategories());
+            blogEntity.setTags(blog.getTags() != null ? String.join(",", blog.getTags()) : null);
+            blogEntity.setSaying(blog.getSaying());
+        } else {
+            // 新博客只需要 user_id 外键，用引用代替加载 User
+            blogEntity = new BlogEntity(blog, userRepository.getReferenceById(userId));
+        }
+        return blogRepository.save(blogEntity);
+    }
+    
     /**
      * 删除博客
      */
-    public boolean deleteBlog(Blog blog, User user) {
+    public boolean deleteBlog(Blog blog, Long userId) {
         try {
-            Optional<BlogEntity> blogEntity = blogRepository.findByUser(user)
-                    .stream()
-                    .filter(b -> b.getFilename().equals(blog.getFilename()))
-                    .findFirst();
+            Optional<Long> blogId = writeTx.execute(status -> {
+                Optional<Long> id = blogRepository.findIdByUserIdAndFilename(userId, blog.getFilename());
+                id.ifPresent(existing -> {
+                    tagService.removeBlogTags(existing);
+                    blogRepository.deleteByUserIdAndFilename(userId, blog.getFilename());
+                    blogRevisionService.deleteRevisions(existing);
+                    // 提交后才丢弃写缓冲中的修改，删除回滚时保留用户最后一次自动保存
+                    afterCommit(userId, existing, () -> {
+                        blogWriteBehind.discard(existing);
+                        blogSearchEngine.remove(userId, existing);
+                    });
+                });
+                return id;
+            });
             
-            if (blogEntity.isPresent()) {
-                blogRepository.delete(blogEntity.get());
+            if (blogId.isPresent()) {
                 logger.info("成功删除博客: {}", blog.getTitle());
                 return true;
             } else {
@@ -104,25 +312,25 @@ public class BlogDatabaseService {
     /**
      * 添加新博客
      */
-    public boolean addBlog(Blog blog, User user) {
+    public boolean addBlog(Blog blog, Long userId) {
         if (blog.getFilename() == null || blog.getFilename().isEmpty()) {
             String filename = blog.getTitle() + LocalDateTime.now().format(formatterPrint) + ".md";
             blog.setFilename(filename);
         }
-        return saveBlog(blog, user);
+        return saveBlog(blog, userId);
     }
     
     /**
      * 更新博客信息
      */
-    public boolean updateBlogInfo(Blog oldBlog, Blog newBlog, User user) {
+    public boolean updateBlogInfo(Blog oldBlog, Blog newBlog, Long userId) {
         try {
-            Optional<BlogEntity> blogEntity = blogRepository.findByUser(user)
-                    .stream()
-                    .filter(b -> b.getFilename().equals(oldBlog.getFilename()))
-                    .findFirst();
-            
-            if (blogEntity.isPresent()) {
+            blogWriteBehind.flushUser(userId);
+            boolean updated = Boolean.TRUE.equals(writeTx.execute(status -> {
+                Optional<BlogEntity> blogEntity = blogRepository.findByUserIdAndFilename(userId, oldBlog.getFilename());
+                if (blogEntity.isEmpty()) {
+                    return false;
+                }
                 BlogEntity entity = blogEntity.get();
                 entity.setTitle(newBlog.getTitle());
                 entity.setCategories(newBlog.getCategories());
@@ -130,7 +338,14 @@ public class BlogDatabaseService {
                 entity.setSaying(newBlog.getSaying());
                 // 保留原始内容和文件名
                 
-                blogRepository.save(entity);
+                BlogEntity saved = blogRepository.save(entity);
+                tagService.syncBlogTags(saved.getId(), userId, newBlog.getTags());
+                blogRevisionService.record(saved, saved.getContent());
+                afterCommit(userId, saved.getId(), () -> blogSearchEngine.index(saved));
+                return true;
+            }));
+            
+            if (updated) {
                 logger.info("成功更新博客信息: {}", newBlog.getTitle());
                 return true;
             } else {
@@ -146,18 +361,25 @@ public class BlogDatabaseService {
     /**
      * 更新博客内容
      */
-    public boolean updateBlogContent(Blog blog, String content, User user) {
+    public boolean updateBlogContent(Blog blog, String content, Long userId) {
         try {
-            Optional<BlogEntity> blogEntity = blogRepository.findByUser(user)
-                    .stream()
-                    .filter(b -> b.getFilename().equals(blog.getFilename()))
-                    .findFirst();
-            
-            if (blogEntity.isPresent()) {
+            blogWriteBehind.flushUser(userId);
+            boolean updated = Boolean.TRUE.equals(writeTx.execute(status -> {
+                Optional<BlogEntity> blogEntity = blogRepository.findByUserIdAndFilename(userId, blog.getFilename());
+                if (blogEntity.isEmpty()) {
+                    return false;
+                }
                 BlogEntity entity = blogEntity.get();
+                String previousContent = entity.getContent();
                 entity.setContent(content);
                 
-                blogRepository.save(entity);
+                BlogEntity saved = blogRepository.save(entity);
+                blogRevisionService.record(saved, previousContent);
+                afterCommit(userId, saved.getId(), () -> blogSearchEngine.index(saved));
+                return true;
+            }));
+            
+            if (updated) {
                 logger.info("成功更新博客内容: {}", blog.getTitle());
                 return true;
             } else {
@@ -173,42 +395,172 @@ public class BlogDatabaseService {
     /**
      * 根据标题搜索博客
      */
-    public List<Blog> searchBlogsByTitle(String title, User user) {
-        logger.debug("搜索用户 {} 的博客，标题包含: {}", user.getUsername(), title);
-        List<BlogEntity> blogEntities = blogRepository.findByUserAndTitleContaining(user, title);
-        return blogEntities.stream()
+    @Transactional(readOnly = true)
+    public List<Blog> searchBlogsByTitle(String title, Long userId) {
+        logger.debug("搜索用户 {} 的博客，标题包含: {}", userId, title);
+        List<BlogEntity> blogEntities = blogRepository.findByUserIdAndTitleContaining(userId, title);
+        return withPendingBlogs(blogEntities.stream()
                 .map(BlogEntity::toBlog)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()), userId);
+    }
+    
+    /**
+     * 全文检索用户的博客（标题、正文、标签、分类），按相关度排序
+     * 
+     * @param mode 检索模式：natural（自然语言）或 boolean（布尔），仅 mysql 后端区分
+     */
+    @Transactional(readOnly = true)
+    public List<BlogSearchHit> fullTextSearch(Long userId, String query, String mode, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageIndex = Math.max(0, page);
+        logger.debug("全文检索用户 {} 的博客（{}，{}）: {}", userId, searchBackend, mode, query);
+        if (query == null || query.isBlank()) {
+            return new ArrayList<>();
+        }
+        
+        if (!"mysql".equalsIgnoreCase(searchBackend)) {
+            // 内存倒排索引，不访问数据库
+            return withPendingHits(blogSearchEngine.search(userId, query, pageIndex, pageSize), userId);
+        }
+        
+        // MySQL FULLTEXT 索引，只读取摘要字段和相关度得分
+        List<Object[]> rows = "boolean".equalsIgnoreCase(mode)
+                ? blogRepository.fullTextSearchBoolean(userId, query, pageSize, pageIndex * pageSize)
+                : blogRepository.fullTextSearchNatural(userId, query, pageSize, pageIndex * pageSize);
+        List<BlogSearchHit> hits = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            String tags = (String) row[3];
+            hits.add(new BlogSearchHit(
+                    ((Number) row[0]).longValue(),
+                    (String) row[1],
+                    (String) row[2],
+                    tags != null && !tags.isEmpty() ? tags.split(",") : null,
+                    (String) row[4],
+                    toLocalDateTime(row[5]),
+                    toLocalDateTime(row[6]),
+                    row[7] != null ? ((Number) row[7]).doubleValue() : 0.0,
+                    null));
+        }
+        return withPendingHits(hits, userId);
+    }
+    
+    // 检索按已写入的内容匹配，命中结果的元数据叠加尚未写入的修改
+    private List<BlogSearchHit> withPendingHits(List<BlogSearchHit> hits, Long userId) {
+        if (!blogWriteBehind.pendingOf(userId).isEmpty()) {
+            for (BlogSearchHit hit : hits) {
+                BlogWriteBehindBuffer.PendingWrite write = blogWriteBehind.get(hit.getId(), userId);
+                if (write != null) {
+                    write.applyTo(hit);
+                }
+            }
+        }
+        return hits;
+    }
+    
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof LocalDateTime) {
+            return (LocalDateTime) value;
+        }
+        if (value instanceof java.sql.Timestamp) {
+            return ((java.sql.Timestamp) value).toLocalDateTime();
+        }
+        return null;
+    }
+    
+    /**
+     * 按标签查询用户的博客摘要（走 blog_tag 关联表）
+     * 
+     * @param match 匹配方式：any（包含任意一个）或 all（同时包含全部，默认）；只有一个标签时即为精确匹配
+     */
+    @Transactional(readOnly = true)
+    public List<BlogSummary> findBlogsByTags(Long userId, List<String> tags, String match, int page, int size) {
+        Set<String> names = TagService.normalize(tags != null ? tags.toArray(new String[0]) : null);
+        if (names.isEmpty()) {
+            return new ArrayList<>();
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        PageRequest pageRequest = PageRequest.of(Math.max(0, page), pageSize);
+        logger.debug("按标签查询用户 {} 的博客（{}）: {}", userId, match, names);
+        
+        List<BlogSummary> summaries;
+        if (names.size() == 1) {
+            summaries = blogRepository.findSummariesByTag(userId, names.iterator().next(), pageRequest);
+        } else if ("any".equalsIgnoreCase(match)) {
+            summaries = blogRepository.findSummariesByAnyTag(userId, names, pageRequest);
+        } else {
+            summaries = blogRepository.findSummariesByAllTags(userId, names, names.size(), pageRequest);
+        }
+        return withPendingSummaries(summaries, userId);
+    }
+    
+    /**
+     * 获取用户的标签和分类分面统计
+     * 按已写入的内容统计，写缓冲中的修改在下一次后台写入（blog.write-behind.flush-interval）后计入
+     */
+    @Transactional(readOnly = true)
+    public BlogFacets getBlogFacets(Long userId) {
+        logger.debug("统计用户 {} 的标签和分类", userId);
+        return tagService.facets(userId);
     }
     
     /**
      * 根据分类搜索博客
      */
-    public List<Blog> searchBlogsByCategory(String category, User user) {
-        logger.debug("搜索用户 {} 的博客，分类包含: {}", user.getUsername(), category);
-        List<BlogEntity> blogEntities = blogRepository.findByUserAndCategoriesContaining(user, category);
-        return blogEntities.stream()
+    @Transactional(readOnly = true)
+    public List<Blog> searchBlogsByCategory(String category, Long userId) {
+        logger.debug("搜索用户 {} 的博客，分类包含: {}", userId, category);
+        List<BlogEntity> blogEntities = blogRepository.findByUserIdAndCategoriesContaining(userId, category);
+        return withPendingBlogs(blogEntities.stream()
                 .map(BlogEntity::toBlog)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()), userId);
     }
     
     /**
      * 根据ID查找用户的博客
      */
-    public Blog findUserBlogById(Long id, User user) {
-        logger.debug("查找用户 {} 的博客，ID: {}", user.getUsername(), id);
-        Optional<BlogEntity> blogEntity = blogRepository.findByIdAndUser(id, user);
-        return blogEntity.map(BlogEntity::toBlog).orElse(null);
+    @Transactional(readOnly = true)
+    public Blog findUserBlogById(Long id, Long userId) {
+        logger.debug("查找用户 {} 的博客，ID: {}", userId, id);
+        // 缓存条目记录作者ID，命中后仍校验归属
+        Blog blog = blogReadCache.getBlog(id, userId, blogId -> blogRepository.findById(blogId)
+                .map(entity -> new BlogReadCache.CachedBlog(entity.getUser().getId(), entity.toBlog()))
+                .orElse(null));
+        // 写缓冲中尚未写入的内容（读己之写），getBlog 返回的是副本，可以直接修改
+        BlogWriteBehindBuffer.PendingWrite write = blogWriteBehind.get(id, userId);
+        if (blog != null && write != null) {
+            write.applyTo(blog);
+        }
+        return blog;
+    }
+    
+    /**
+     * 获取渲染为 HTML 的博客，正文读取方式与 findUserBlogById 相同，HTML 按正文哈希缓存
+     */
+    @Transactional(readOnly = true)
+    public BlogHtml renderUserBlog(Long id, Long userId) {
+        Blog blog = findUserBlogById(id, userId);
+        if (blog == null) {
+            return null;
+        }
+        String contentHash = ContentHash.sha256(blog.getContent());
+        return new BlogHtml(blog, contentHash, markdownRenderer.render(blog.getContent(), contentHash));
     }
     
     /**
      * 更新博客
      */
-    public boolean updateBlog(Blog blog, User user) {
+    public boolean updateBlog(Blog blog, Long userId) {
         try {
-            Optional<BlogEntity> existingEntity = blogRepository.findByIdAndUser(blog.getId(), user);
-            if (existingEntity.isPresent()) {
+            if (blogWriteBehind.isEnabled()) {
+                return enqueueUpdate(blog, userId);
+            }
+            boolean updated = Boolean.TRUE.equals(writeTx.execute(status -> {
+                Optional<BlogEntity> existingEntity = blogRepository.findByIdAndUserId(blog.getId(), userId);
+                if (existingEntity.isEmpty()) {
+                    return false;
+                }
                 BlogEntity entity = existingEntity.get();
+                String previousContent = entity.getContent();
                 entity.setTitle(blog.getTitle());
                 entity.setContent(blog.getContent());
                 entity.setCategories(blog.getCategories());
@@ -216,7 +568,13 @@ public class BlogDatabaseService {
                 entity.setSaying(blog.getSaying());
                 entity.setUpdatedAt(LocalDateTime.now());
                 
-                blogRepository.save(entity);
+                BlogEntity saved = blogRepository.save(entity);
+                tagService.syncBlogTags(saved.getId(), userId, blog.getTags());
+                blogRevisionService.record(saved, previousContent);
+                afterCommit(userId, saved.getId(), () -> blogSearchEngine.index(saved));
+                return true;
+            }));
+            if (updated) {
                 logger.info("成功更新博客: {}", blog.getTitle());
                 return true;
             } else {
@@ -229,14 +587,253 @@ public class BlogDatabaseService {
         }
     }
     
+    /**
+     * 写缓冲模式下的更新：校验后放入缓冲，由后台批量写入
+     * 作者ID有缓存，连续保存同一篇博客不需要访问数据库
+     */
+    private boolean enqueueUpdate(Blog blog, Long userId) {
+        if (blog.getTitle() == null || blog.getTitle().isBlank()) {
+            logger.warn("更新博客失败，标题为空，ID: {}", blog.getId());
+            return false;
+        }
+        if (blog.getContent() == null || blog.getContent().isBlank()) {
+            logger.warn("更新博客失败，内容为空，ID: {}", blog.getId());
+            return false;
+        }
+        // 缓冲中的修改已向调用方确认成功，必须保证之后的批量写入不会因列长度失败
+        String lengthError = BlogEntity.checkLengths(blog);
+        if (lengthError != null) {
+            logger.warn("更新博客失败，{}，ID: {}", lengthError, blog.getId());
+            return false;
+        }
+        Long ownerId = blogWriteBehind.ownerOf(blog.getId(), blogId -> blogRepository.findUserIdById(blogId).orElse(null));
+        if (!userId.equals(ownerId)) {
+            logger.warn("要更新的博客不存在或无权限，ID: {}", blog.getId());
+            return false;
+        }
+        blogWriteBehind.enqueue(userId, readYourWrites.currentUser(), blog);
+        logger.debug("博客 {} 的更新已放入写缓冲", blog.getId());
+        return true;
+    }
+    
+    /**
+     * 部分更新博客
+     * 只更新请求中出现的字段，由一条 UPDATE 完成；不包含正文时既不读取也不写入 content
+     */
+    public boolean patchBlog(Long id, BlogPatch patch, Long userId) {
+        try {
+            if (patch.hasTitle() && (patch.getTitle() == null || patch.getTitle().isBlank())) {
+                logger.warn("部分更新博客失败，标题为空，ID: {}", id);
+                return false;
+            }
+            if (patch.hasContent() && (patch.getContent() == null || patch.getContent().isBlank())) {
+                logger.warn("部分更新博客失败，内容为空，ID: {}", id);
+                return false;
+            }
+            // JDBC 更新不经过实体校验，超长的值不能交给数据库
+            String lengthError = BlogEntity.checkLengths(patch);
+            if (lengthError != null) {
+                logger.warn("部分更新博客失败，{}，ID: {}", lengthError, id);
+                return false;
+            }
+            
+            blogWriteBehind.flushUser(userId);
+            LocalDateTime now = LocalDateTime.now();
+            boolean updated = Boolean.TRUE.equals(writeTx.execute(status -> {
+                if (blogRepository.patchBlog(id, userId, patch, now) == 0) {
+                    return false;
+                }
+                if (patch.hasTags()) {
+                    tagService.syncBlogTags(id, userId, patch.getTags());
+                }
+                blogRevisionService.recordPatch(id, userId, patch, null);
+                afterCommit(userId, id, () -> {
+                    if (!blogSearchEngine.patch(userId, id, patch, now)) {
+                        blogRepository.findById(id).ifPresent(blogSearchEngine::index);
+                    }
+                });
+                return true;
+            }));
+            if (!updated) {
+                logger.warn("要更新的博客不存在或无权限，ID: {}", id);
+                return false;
+            }
+            logger.info("成功部分更新博客，ID: {}", id);
+            return true;
+        } catch (Exception e) {
+            logger.error("部分更新博客失败: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+    
+    /**
+     * 按增量修改更新博客正文
+     * 客户端只上传修改的片段，服务端在当前正文上应用；基准版本与当前版本不一致时返回冲突，
+     * 写入时再以 updated_at 做条件更新，防止与并发写入互相覆盖
+     */
+    public ContentDeltaResult applyContentDelta(Long id, ContentDelta delta, Long userId) {
+        try {
+            if (delta.getEdits() == null) {
+                return ContentDeltaResult.invalid("缺少修改列表");
+            }
+            if (delta.getBaseUpdatedAt() == null && (delta.getBaseHash() == null || delta.getBaseHash().isBlank())) {
+                return ContentDeltaResult.invalid("缺少基准版本");
+            }
+            
+            // 基准版本必须与数据库中的正文比较，先写入缓冲中的修改
+            blogWriteBehind.flushUser(userId);
+            // 截断到微秒，与 blogs.updated_at（DATETIME(6)）中保存的值一致，客户端可直接作为下一次的基准
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            // 读取、条件更新和修订在同一事务中；检索索引和读缓存在提交后更新。
+            // 条件更新落空（读取之后被其他请求修改）时返回 null，在事务外重新读取最新版本
+            ContentDeltaResult result = writeTx.execute(status -> {
+                List<Object[]> rows = blogRepository.findContentState(id, userId);
+                if (rows.isEmpty()) {
+                    return ContentDeltaResult.notFound();
+                }
+                String content = contentOf(rows.get(0));
+                LocalDateTime current = (LocalDateTime) rows.get(0)[2];
+                String currentHash = ContentHash.sha256(content);
+                if ((delta.getBaseUpdatedAt() != null && !delta.getBaseUpdatedAt().equals(current))
+                        || (delta.getBaseHash() != null && !delta.getBaseHash().equalsIgnoreCase(currentHash))) {
+                    logger.info("博客 {} 增量更新冲突，基准版本已过期", id);
+                    return ContentDeltaResult.conflict(new ContentVersion(current, currentHash, content.length()));
+                }
+                
+                String updated;
+                try {
+                    updated = applyEdits(content, delta.getEdits());
+                } catch (IllegalArgumentException e) {
+                    return ContentDeltaResult.invalid(e.getMessage());
+                }
+                if (updated.isBlank()) {
+                    return ContentDeltaResult.invalid("博客内容不能为空");
+                }
+                
+                if (blogRepository.updateContentIfUnchanged(id, userId, updated, now, current) == 0) {
+                    return null;
+                }
+                BlogPatch patch = new BlogPatch();
+                patch.setContent(updated);
+                blogRevisionService.recordPatch(id, userId, patch, content);
+                afterCommit(userId, id, () -> {
+                    if (!blogSearchEngine.patch(userId, id, patch, now)) {
+                        blogRepository.findById(id).ifPresent(blogSearchEngine::index);
+                    }
+                });
+                return ContentDeltaResult.applied(new ContentVersion(now, ContentHash.sha256(updated), updated.length()));
+            });
+            
+            if (result == null) {
+                // 事务内的读取是更新前的快照，最新版本在新的事务中读取
+                List<Object[]> latest = blogRepository.findContentState(id, userId);
+                if (latest.isEmpty()) {
+                    return ContentDeltaResult.notFound();
+                }
+                String latestContent = contentOf(latest.get(0));
+                logger.info("博客 {} 增量更新冲突，读取之后被其他请求修改", id);
+                return ContentDeltaResult.conflict(new ContentVersion((LocalDateTime) latest.get(0)[2],
+                        ContentHash.sha256(latestContent), latestContent.length()));
+            }
+            if (result.getStatus() == ContentDeltaResult.Status.APPLIED) {
+                logger.debug("博客 {} 增量更新 {} 处修改", id, delta.getEdits().size());
+            }
+            return result;
+        } catch (Exception e) {
+            logger.error("增量更新博客内容失败: {}", e.getMessage(), e);
+            return ContentDeltaResult.invalid("增量更新博客内容失败");
+        }
+    }
+    
+    // findContentState 的结果中正文在 content 或 content_packed 其中一列
+    private static String contentOf(Object[] row) {
+        return row[0] != null ? (String) row[0] : (String) row[1];
+    }
+    
+    // 按起始位置依次应用修改，修改区间不能越界或重叠
+    private static String applyEdits(String content, List<ContentEdit> edits) {
+        List<ContentEdit> sorted = new ArrayList<>(edits);
+        sorted.sort(Comparator.comparingInt(ContentEdit::getStart));
+        StringBuilder sb = new StringBuilder(content.length());
+        int pos = 0;
+        for (ContentEdit edit : sorted) {
+            if (edit.getStart() < pos || edit.getEnd() < edit.getStart() || edit.getEnd() > content.length()) {
+                throw new IllegalArgumentException("修改区间无效: [" + edit.getStart() + ", " + edit.getEnd() + ")");
+            }
+            sb.append(content, pos, edit.getStart());
+            if (edit.getText() != null) {
+                sb.append(edit.getText());
+            }
+            pos = edit.getEnd();
+        }
+        sb.append(content, pos, content.length());
+        return sb.toString();
+    }
+    
+    // 检索索引和读缓存只反映已提交的数据，在事务提交之后更新；此时数据库已经写入，索引更新失败只写日志
+    private void afterCommit(Long userId, Long blogId, Runnable indexUpdate) {
+        Runnable action = () -> {
+            try {
+                indexUpdate.run();
+            } catch (Exception e) {
+                logger.warn("更新博客 {} 的检索索引失败: {}", blogId, e.getMessage(), e);
+            }
+            blogReadCache.invalidateBlog(userId, blogId);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+    
+    /**
+     * 把博客恢复到指定修订
+     * 按 updateBlog 写入修订中的正文和元数据，恢复本身也会产生一条新修订
+     */
+    public boolean restoreRevision(Long id, Integer revisionNo, Long userId) {
+        try {
+            BlogRevisionContent revision = blogRevisionService.getRevision(id, userId, revisionNo);
+            if (revision == null) {
+                logger.warn("要恢复的修订不存在或无权限，博客ID: {}，修订: {}", id, revisionNo);
+                return false;
+            }
+            boolean success = updateBlog(revision.toBlog(), userId);
+            if (success) {
+                logger.info("博客 {} 已恢复到修订 {}", id, revisionNo);
+            }
+            return success;
+        } catch (Exception e) {
+            logger.error("恢复博客修订失败: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+    
     /**
      * 根据ID删除用户的博客
      */
-    public boolean deleteUserBlog(Long id, User user) {
+    public boolean deleteUserBlog(Long id, Long userId) {
         try {
-            Optional<BlogEntity> blogEntity = blogRepository.findByIdAndUser(id, user);
-            if (blogEntity.isPresent()) {
+            boolean deleted = Boolean.TRUE.equals(writeTx.execute(status -> {
+                Optional<BlogEntity> blogEntity = blogRepository.findByIdAndUserId(id, userId);
+                if (blogEntity.isEmpty()) {
+                    return false;
+                }
+                tagService.removeBlogTags(id);
                 blogRepository.delete(blogEntity.get());
+                blogRevisionService.deleteRevisions(id);
+                afterCommit(userId, id, () -> {
+                    blogWriteBehind.discard(id);
+                    blogSearchEngine.remove(userId, id);
+                });
+                return true;
+            }));
+            if (deleted) {
                 logger.info("成功删除博客，ID: {}", id);
                 return true;
             } else {
@@ -250,29 +847,71 @@ public class BlogDatabaseService {
     }
     
     /**
-     * 搜索用户的博客
+     * 按组合条件搜索用户的博客摘要
+     * 标题、分类、标签、创建时间范围、更新时间等条件以 AND 组合为一条查询，并在数据库中排序分页
      */
-    public List<Blog> searchUserBlogs(User user, String title, String categories, String tags) {
-        logger.debug("搜索用户 {} 的博客", user.getUsername());
+    @Transactional(readOnly = true)
+    public List<BlogSummary> searchUserBlogs(Long userId, BlogSearchCriteria criteria) {
+        logger.debug("搜索用户 {} 的博客", userId);
         try {
-            List<BlogEntity> blogEntities;
-            
-            if (title != null && !title.trim().isEmpty()) {
-                blogEntities = blogRepository.findByUserAndTitleContaining(user, title);
-            } else if (categories != null && !categories.trim().isEmpty()) {
-                blogEntities = blogRepository.findByUserAndCategoriesContaining(user, categories);
-            } else if (tags != null && !tags.trim().isEmpty()) {
-                blogEntities = blogRepository.findByUserAndTagsContaining(user, tags);
-            } else {
-                blogEntities = blogRepository.findByUserOrderByCreatedAtDesc(user);
-            }
+            Specification<BlogEntity> spec = searchSpec(userId, criteria);
             
-            return blogEntities.stream()
-                    .map(BlogEntity::toBlog)
-                    .collect(Collectors.toList());
+            int pageSize = Math.max(1, Math.min(criteria.getSize(), MAX_PAGE_SIZE));
+            PageRequest pageRequest = PageRequest.of(Math.max(0, criteria.getPage()), pageSize, searchSort(criteria));
+            return withPendingSummaries(blogRepository.findSummaries(spec, pageRequest), userId);
         } catch (Exception e) {
             logger.error("搜索博客失败: {}", e.getMessage(), e);
             return new ArrayList<>();
         }
     }
+    
+    /**
+     * 以流的方式读取用户的完整博客（包含正文），逐条交给 consumer 处理
+     * 条件与 searchUserBlogs 相同，但不分页；读取过程中内存占用不随结果数量增长
+     * 
+     * @return 处理的博客数量
+     */
+    @Transactional(readOnly = true)
+    public long streamUserBlogs(Long userId, BlogSearchCriteria criteria, Consumer<Blog> consumer) {
+        logger.debug("流式读取用户 {} 的博客", userId);
+        boolean hasPending = !blogWriteBehind.pendingOf(userId).isEmpty();
+        long count = 0;
+        try (Stream<Blog> blogs = blogRepository.streamBlogs(searchSpec(userId, criteria), searchSort(criteria), streamFetchSize)) {
+            Iterator<Blog> iterator = blogs.iterator();
+            while (iterator.hasNext()) {
+                Blog blog = iterator.next();
+                consumer.accept(hasPending ? withPendingWrite(blog, userId) : blog);
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    // 把组合搜索条件转换为 Specification，各条件以 AND 组合
+    private static Specification<BlogEntity> searchSpec(Long userId, BlogSearchCriteria criteria) {
+        Specification<BlogEntity> spec = Specification.where(BlogSpecifications.ofUser(userId))
+                .and(BlogSpecifications.titleContains(criteria.getTitle()))
+                .and(BlogSpecifications.categoriesContain(criteria.getCategories()))
+                .and(BlogSpecifications.createdFrom(criteria.getCreatedFrom()))
+                .and(BlogSpecifications.createdBefore(criteria.getCreatedTo()))
+                .and(BlogSpecifications.updatedSince(criteria.getUpdatedSince()))
+                .and(BlogSpecifications.wordCountBetween(criteria.getMinWords(), criteria.getMaxWords()));
+        if (criteria.getTags() != null) {
+            for (String tag : criteria.getTags()) {
+                spec = spec.and(BlogSpecifications.hasTag(tag));
+            }
+        }
+        return spec;
+    }
+    
+    // 只允许按白名单字段排序，并以 id 作为第二排序字段保证分页稳定
+    private static Sort searchSort(BlogSearchCriteria criteria) {
+        String property = criteria.getSort();
+        if (!"updatedAt".equals(property) && !"title".equals(property) && !"wordCount".equals(property)) {
+            property = "createdAt";
+        }
+        Sort.Direction direction = "asc".equalsIgnoreCase(criteria.getDirection())
+                ? Sort.Direction.ASC : Sort.Direction.DESC;
+        return Sort.by(direction, property).and(Sort.by(direction, "id"));
+    }
 }
@@ -0,0 +1,68 @@
+package com.ulna.blog_manager.service;
+
+import com.ulna.blog_manager.model.BlogEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+
+/**
+ * 启动时把 blogs_seq 对齐到 blogs 表当前的最大ID
+ *
+ * blogs.id 原先使用自增列，改为序列后 ddl-auto=update 新建的 blogs_seq 从 1 开始，
+ * 会与已有数据冲突。这里把序列推进到 max(id) 之后一个完整的预分配段，
+ * 已经超过时不做修改，可以重复执行。
+ *
+ * 在单例初始化阶段执行（依赖 EntityManagerFactory，表结构已经建好），早于 Web 服务器开始接受请求，
+ * 不会有创建或导入在对齐之前取到冲突的ID；对齐失败时启动失败，而不是带着冲突的序列继续运行。
+ */
+@Component
+// 表结构由 EntityManagerFactory 初始化时创建或更新
+@DependsOn("entityManagerFactory")
+public class BlogIdSequenceInitializer implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlogIdSequenceInitializer.class);
+
+    private static final String SEQUENCE_TABLE = "blogs_seq";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!sequenceTableExists()) {
+            // 支持原生序列的数据库（如 H2）由 Hibernate 创建 SEQUENCE，不是从自增列升级而来
+            logger.info("数据库使用原生序列，无需对齐博客ID序列");
+            return;
+        }
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM blogs", Long.class);
+        long floor = (maxId != null ? maxId : 0L) + BlogEntity.ID_ALLOCATION_SIZE + 1;
+        int updated = jdbcTemplate.update("UPDATE blogs_seq SET next_val = ? WHERE next_val < ?", floor, floor);
+        if (updated > 0) {
+            logger.info("博客ID序列已对齐到 {}（当前最大ID {}）", floor, maxId);
+        }
+    }
+
+    private boolean sequenceTableExists() {
+        Boolean exists = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            // 表名大小写随数据库而定，两种都查
+            for (String name : new String[] { SEQUENCE_TABLE, SEQUENCE_TABLE.toUpperCase() }) {
+                try (ResultSet tables = metaData.getTables(connection.getCatalog(), null, name, new String[] { "TABLE" })) {
+                    if (tables.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        });
+        return Boolean.TRUE.equals(exists);
+    }
+}
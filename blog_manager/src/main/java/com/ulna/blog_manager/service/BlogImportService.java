@@ -0,0 +1,258 @@
+package com.ulna.blog_manager.service;
+
+import com.ulna.blog_manager.model.Blog;
+import com.ulna.blog_manager.model.BlogEntity;
+import com.ulna.blog_manager.model.BlogImportReport;
+import com.ulna.blog_manager.model.BlogImportResult;
+import com.ulna.blog_manager.model.User;
+import com.ulna.blog_manager.repository.BlogRepository;
+import com.ulna.blog_manager.repository.UserRepository;
+import com.ulna.blog_manager.service.search.BlogSearchEngine;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 博客批量导入服务
+ *
+ * 导入的博客按 blog.import.chunk-size 分段，每段在一个事务中写入：
+ * 先一次查出本段中已存在的文件名（按文件名 upsert），新博客通过序列预分配ID，
+ * 由 Hibernate 以 JDBC 批量 INSERT 写入，标签关联也合并为批量写入。
+ * 某一段失败只影响该段中的博客，结果逐条返回。
+ */
+@Service
+public class BlogImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlogImportService.class);
+
+    private static final DateTimeFormatter formatterPrint = DateTimeFormatter.ofPattern("'_'yyyyMMdd'_'HHmmss");
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private BlogSearchEngine blogSearchEngine;
+
+    @Autowired
+    private BlogReadCache blogReadCache;
+
+    @Autowired
+    private BlogRevisionService blogRevisionService;
+
+    @Autowired
+    private BlogWriteBehindBuffer blogWriteBehind;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${blog.import.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * 导入 JSON 格式的博客，正文取 content 字段
+     */
+    public BlogImportReport importBlogs(List<Blog> blogs, Long userId) {
+        List<BlogImportResult> results = new ArrayList<>(blogs.size());
+        for (int i = 0; i < blogs.size(); i++) {
+            Blog blog = blogs.get(i);
+            BlogImportResult result = new BlogImportResult(i, blog != null ? blog.getFilename() : null,
+                    blog != null ? blog.getTitle() : null);
+            if (blog == null) {
+                result.fail("博客为空");
+            } else {
+                // 正文只能来自请求，不允许从服务器文件读取
+                blog.setFilepath(null);
+            }
+            results.add(result);
+        }
+        return importAll(blogs, results, userId);
+    }
+
+    /**
+     * 导入 Markdown 文件，使用 Blog(String, Path) 解析 Front-matter
+     */
+    public BlogImportReport importMarkdownFiles(List<MultipartFile> files, Long userId) {
+        List<Blog> blogs = new ArrayList<>(files.size());
+        List<BlogImportResult> results = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            MultipartFile file = files.get(i);
+            String filename = StringUtils.getFilename(file.getOriginalFilename());
+            Blog blog = null;
+            BlogImportResult result;
+            try {
+                if (filename == null || filename.isBlank()) {
+                    throw new IllegalArgumentException("文件名为空");
+                }
+                String text = new String(file.getBytes(), StandardCharsets.UTF_8);
+                blog = new Blog(text, Path.of(filename));
+                blog.setContent(blog.extractContentFromFile(text));
+                blog.setFilepath(null);
+                result = new BlogImportResult(i, blog.getFilename(), blog.getTitle());
+            } catch (Exception e) {
+                result = new BlogImportResult(i, filename, null);
+                result.fail("解析文件失败: " + e.getMessage());
+            }
+            blogs.add(blog);
+            results.add(result);
+        }
+        return importAll(blogs, results, userId);
+    }
+
+    private BlogImportReport importAll(List<Blog> blogs, List<BlogImportResult> results, Long userId) {
+        long start = System.currentTimeMillis();
+        // 导入会覆盖同名博客，先写入写缓冲中该用户尚未写入的修改
+        blogWriteBehind.flushUser(userId);
+
+        // 校验并补全文件名，同一批中文件名不能重复（唯一索引不区分大小写）
+        List<Integer> pending = new ArrayList<>();
+        Set<String> filenames = new HashSet<>();
+        for (int i = 0; i < blogs.size(); i++) {
+            BlogImportResult result = results.get(i);
+            if (BlogImportResult.FAILED.equals(result.getStatus())) {
+                continue;
+            }
+            Blog blog = blogs.get(i);
+            String error = validate(blog);
+            if (error == null) {
+                if (blog.getFilename() == null || blog.getFilename().isBlank()) {
+                    String filename = blog.getTitle() + LocalDateTime.now().format(formatterPrint) + ".md";
+                    if (filenames.contains(filename.toLowerCase(Locale.ROOT))) {
+                        filename = blog.getTitle() + LocalDateTime.now().format(formatterPrint) + "_" + i + ".md";
+                    }
+                    blog.setFilename(filename);
+                    result.setFilename(filename);
+                }
+                if (!filenames.add(blog.getFilename().toLowerCase(Locale.ROOT))) {
+                    error = "文件名重复: " + blog.getFilename();
+                }
+            }
+            if (error != null) {
+                result.fail(error);
+            } else {
+                pending.add(i);
+            }
+        }
+
+        int size = Math.max(1, chunkSize);
+        for (int from = 0; from < pending.size(); from += size) {
+            List<Integer> chunk = pending.subList(from, Math.min(pending.size(), from + size));
+            try {
+                List<BlogEntity> saved = transactionTemplate.execute(status -> {
+                    List<BlogEntity> entities = importChunk(chunk, blogs, results, userId);
+                    // 已写入的实体不再需要，在事务内写出后清空，避免持久化上下文随导入数量增长
+                    entityManager.flush();
+                    entityManager.clear();
+                    return entities;
+                });
+                for (BlogEntity entity : saved) {
+                    blogSearchEngine.index(entity);
+                    blogReadCache.invalidateBlog(userId, entity.getId());
+                }
+            } catch (Exception e) {
+                logger.error("导入博客失败（第 {} - {} 条）: {}", chunk.get(0), chunk.get(chunk.size() - 1), e.getMessage(), e);
+                for (Integer index : chunk) {
+                    results.get(index).fail("写入数据库失败: " + e.getMessage());
+                }
+            }
+        }
+        blogReadCache.invalidateUser(userId);
+
+        BlogImportReport report = new BlogImportReport(results, System.currentTimeMillis() - start);
+        logger.info("用户 {} 导入博客完成：新建 {}，更新 {}，失败 {}，耗时 {} ms", userId,
+                report.getCreated(), report.getUpdated(), report.getFailed(), report.getElapsedMillis());
+        return report;
+    }
+
+    private List<BlogEntity> importChunk(List<Integer> chunk, List<Blog> blogs, List<BlogImportResult> results, Long userId) {
+        List<String> names = new ArrayList<>(chunk.size());
+        for (Integer index : chunk) {
+            names.add(blogs.get(index).getFilename());
+        }
+        // 新建的博客只需要 user_id 外键，引用不会加载 User
+        User owner = userRepository.getReferenceById(userId);
+        Map<String, BlogEntity> existing = new HashMap<>();
+        for (BlogEntity entity : blogRepository.findByUserIdAndFilenameIn(userId, names)) {
+            existing.put(entity.getFilename().toLowerCase(Locale.ROOT), entity);
+        }
+
+        List<BlogEntity> entities = new ArrayList<>(chunk.size());
+        for (Integer index : chunk) {
+            Blog blog = blogs.get(index);
+            BlogEntity entity = existing.get(blog.getFilename().toLowerCase(Locale.ROOT));
+            if (entity != null) {
+                entity.setTitle(blog.getTitle());
+                entity.setContent(blog.getContent());
+                entity.setCategories(blog.getCategories());
+                entity.setTags(blog.getTags() != null ? String.join(",", blog.getTags()) : null);
+                entity.setSaying(blog.getSaying());
+            } else {
+                entity = new BlogEntity(blog, owner);
+            }
+            entities.add(entity);
+        }
+        // 新博客在 persist 时从预分配段取得ID，flush 时按 batch_size 合并为批量 INSERT
+        entities = blogRepository.saveAll(entities);
+        blogRepository.flush();
+
+        Map<Long, String[]> newTags = new LinkedHashMap<>();
+        List<BlogEntity> created = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Integer index = chunk.get(i);
+            Blog blog = blogs.get(index);
+            BlogEntity entity = entities.get(i);
+            if (existing.containsKey(blog.getFilename().toLowerCase(Locale.ROOT))) {
+                tagService.syncBlogTags(entity.getId(), userId, blog.getTags());
+                blogRevisionService.record(entity, null);
+                results.get(index).succeed(BlogImportResult.UPDATED, entity.getId());
+            } else {
+                newTags.put(entity.getId(), blog.getTags());
+                created.add(entity);
+                results.get(index).succeed(BlogImportResult.CREATED, entity.getId());
+            }
+        }
+        tagService.addBlogTags(newTags, userId);
+        // 新博客的第一条修订都是快照，与博客一样批量写入
+        blogRevisionService.recordCreated(created);
+        return entities;
+    }
+
+    private static String validate(Blog blog) {
+        if (blog.getTitle() == null || blog.getTitle().isBlank()) {
+            return "标题不能为空";
+        }
+        if (blog.getContent() == null || blog.getContent().isBlank()) {
+            return "内容不能为空";
+        }
+        // 分类、标签、引言超长时不能交给数据库截断或整段失败，逐条报告
+        return BlogEntity.checkLengths(blog);
+    }
+}
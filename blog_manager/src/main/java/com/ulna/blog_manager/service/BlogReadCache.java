@@ -0,0 +1,198 @@
+package com.ulna.blog_manager.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.ulna.blog_manager.model.Blog;
+import com.ulna.blog_manager.model.BlogSummaryPage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 博客读缓存
+ *
+ * 缓存两类数据：每个用户的列表摘要分页，以及按ID缓存的博客详情。
+ * 使用 Caffeine（W-TinyLFU 淘汰），按权重限制容量并设置过期时间。
+ * 写操作通过 invalidateUser / invalidateBlog 精确失效受影响的条目。
+ */
+@Component
+public class BlogReadCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlogReadCache.class);
+
+    // 列表缓存：(用户, 游标, 每页条数) -> 摘要分页，权重为摘要条数
+    private final Cache<ListKey, BlogSummaryPage> listCache;
+    // 每个用户已缓存的列表分页键，用于按用户精确失效
+    private final Map<Long, Set<ListKey>> listKeysByUser = new ConcurrentHashMap<>();
+    // 详情缓存：博客ID -> 博客，权重为正文大小（KB）
+    private final Cache<Long, CachedBlog> detailCache;
+
+    public BlogReadCache(@Value("${blog.cache.list.max-weight:50000}") long listMaxWeight,
+                         @Value("${blog.cache.detail.max-weight-kb:65536}") long detailMaxWeightKb,
+                         @Value("${blog.cache.ttl:10m}") Duration ttl) {
+        this.listCache = Caffeine.newBuilder()
+                .maximumWeight(listMaxWeight)
+                .weigher((ListKey key, BlogSummaryPage page) -> page.getItems().size() + 1)
+                .expireAfterWrite(ttl)
+                .removalListener((ListKey key, BlogSummaryPage page, com.github.benmanes.caffeine.cache.RemovalCause cause) -> {
+                    if (key != null && cause.wasEvicted()) {
+                        unregister(key);
+                    }
+                })
+                .recordStats()
+                .build();
+        this.detailCache = Caffeine.newBuilder()
+                .maximumWeight(detailMaxWeightKb)
+                .weigher((Long id, CachedBlog cached) -> cached.weightKb())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        logger.info("博客读缓存：列表最大权重 {}，详情最大 {} KB，过期时间 {}", listMaxWeight, detailMaxWeightKb, ttl);
+    }
+
+    /**
+     * 读取列表分页，未命中时调用 loader 从数据库加载
+     */
+    public BlogSummaryPage getListPage(Long userId, LocalDateTime cursorCreatedAt, Long cursorId, int size,
+                                       Supplier<BlogSummaryPage> loader) {
+        ListKey key = new ListKey(userId, cursorCreatedAt, cursorId, size);
+        // 先登记再加载：失效操作一定能看到正在加载的键
+        listKeysByUser.computeIfAbsent(userId, k -> ConcurrentHashMap.newKeySet()).add(key);
+        return listCache.get(key, k -> loader.get());
+    }
+
+    /**
+     * 读取博客详情，未命中时调用 loader 加载
+     *
+     * @param loader 按ID加载博客，返回 null 表示不存在
+     * @return 属于该用户的博客副本；不存在或不属于该用户时返回 null
+     */
+    public Blog getBlog(Long blogId, Long userId, Function<Long, CachedBlog> loader) {
+        CachedBlog cached = detailCache.get(blogId, loader);
+        if (cached == null || !Objects.equals(cached.userId, userId)) {
+            return null;
+        }
+        return cached.copy();
+    }
+
+    /**
+     * 失效某个用户的全部列表分页
+     */
+    public void invalidateUser(Long userId) {
+        Set<ListKey> keys = listKeysByUser.remove(userId);
+        if (keys != null) {
+            listCache.invalidateAll(keys);
+        }
+    }
+
+    /**
+     * 失效一篇博客的详情以及作者的列表分页
+     */
+    public void invalidateBlog(Long userId, Long blogId) {
+        if (blogId != null) {
+            detailCache.invalidate(blogId);
+        }
+        invalidateUser(userId);
+    }
+
+    /**
+     * 缓存统计信息（命中、未命中、淘汰等），用于评估容量配置
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("list", toMap(listCache.stats(), listCache.estimatedSize(),
+                listCache.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L)));
+        result.put("detail", toMap(detailCache.stats(), detailCache.estimatedSize(),
+                detailCache.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L)));
+        return result;
+    }
+
+    private static Map<String, Object> toMap(CacheStats stats, long size, long weightedSize) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("hitCount", stats.hitCount());
+        map.put("missCount", stats.missCount());
+        map.put("hitRate", stats.hitRate());
+        map.put("evictionCount", stats.evictionCount());
+        map.put("evictionWeight", stats.evictionWeight());
+        map.put("estimatedSize", size);
+        map.put("weightedSize", weightedSize);
+        return map;
+    }
+
+    private void unregister(ListKey key) {
+        Set<ListKey> keys = listKeysByUser.get(key.userId);
+        if (keys != null) {
+            keys.remove(key);
+        }
+    }
+
+    /**
+     * 详情缓存条目，记录作者ID用于权限校验
+     */
+    public static final class CachedBlog {
+        private final Long userId;
+        private final Blog blog;
+
+        public CachedBlog(Long userId, Blog blog) {
+            this.userId = userId;
+            this.blog = blog;
+        }
+
+        int weightKb() {
+            String content = blog.getContent();
+            return (content != null ? content.length() / 1024 : 0) + 1;
+        }
+
+        // 返回副本，避免调用方修改缓存中的对象
+        Blog copy() {
+            try {
+                return blog.clone();
+            } catch (CloneNotSupportedException e) {
+                return blog;
+            }
+        }
+    }
+
+    /**
+     * 列表分页缓存键
+     */
+    private static final class ListKey {
+        private final Long userId;
+        private final LocalDateTime cursorCreatedAt;
+        private final Long cursorId;
+        private final int size;
+
+        ListKey(Long userId, LocalDateTime cursorCreatedAt, Long cursorId, int size) {
+            this.userId = userId;
+            this.cursorCreatedAt = cursorCreatedAt;
+            this.cursorId = cursorId;
+            this.size = size;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof ListKey)) return false;
+            ListKey other = (ListKey) obj;
+            return size == other.size && Objects.equals(userId, other.userId)
+                    && Objects.equals(cursorCreatedAt, other.cursorCreatedAt) && Objects.equals(cursorId, other.cursorId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, cursorCreatedAt, cursorId, size);
+        }
+    }
+}
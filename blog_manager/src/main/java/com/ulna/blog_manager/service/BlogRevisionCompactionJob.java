@@ -0,0 +1,65 @@
+package com.ulna.blog_manager.service;
+
+import com.ulna.blog_manager.repository.BlogRepository;
+import com.ulna.blog_manager.repository.BlogRevisionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 修订历史压缩任务
+ *
+ * 按 blog.revision.compaction-cron 定时执行，逐篇压缩修订数超过保留条数的博客，
+ * 每篇博客在独立事务中处理。完成后记录修订数据与博客正文的总字节数之比，用于观察存储占用。
+ */
+@Component
+public class BlogRevisionCompactionJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlogRevisionCompactionJob.class);
+
+    private static final int BATCH_SIZE = 200;
+
+    @Autowired
+    private BlogRevisionService blogRevisionService;
+
+    @Autowired
+    private BlogRevisionRepository blogRevisionRepository;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Scheduled(cron = "${blog.revision.compaction-cron:0 30 3 * * *}")
+    public void compact() {
+        long start = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        long lastId = 0L;
+        int blogs = 0;
+        int removed = 0;
+        while (true) {
+            List<Long> blogIds = blogRevisionService.findBlogsToCompact(lastId, BATCH_SIZE);
+            if (blogIds.isEmpty()) {
+                break;
+            }
+            for (Long blogId : blogIds) {
+                try {
+                    removed += blogRevisionService.compact(blogId, now);
+                    blogs++;
+                } catch (Exception e) {
+                    logger.error("压缩博客 {} 的修订历史失败: {}", blogId, e.getMessage(), e);
+                }
+                lastId = blogId;
+            }
+        }
+
+        long revisionBytes = blogRevisionRepository.sumStoredBytes();
+        long contentBytes = blogRepository.sumContentBytes();
+        logger.info("修订历史压缩完成：处理 {} 篇博客，删除 {} 条修订，耗时 {} ms；修订 {} 字节，正文 {} 字节，比例 {}",
+                blogs, removed, System.currentTimeMillis() - start, revisionBytes, contentBytes,
+                contentBytes > 0 ? String.format("%.2f", (double) revisionBytes / contentBytes) : "-");
+    }
+}
@@ -0,0 +1,346 @@
+package com.ulna.blog_manager.service;
+
+import com.ulna.blog_manager.model.BlogEntity;
+import com.ulna.blog_manager.model.BlogPatch;
+import com.ulna.blog_manager.model.BlogRevision;
+import com.ulna.blog_manager.model.BlogRevisionContent;
+import com.ulna.blog_manager.model.BlogRevisionSummary;
+import com.ulna.blog_manager.repository.BlogRepository;
+import com.ulna.blog_manager.repository.BlogRevisionRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * 博客修订历史
+ *
+ * 博客每次保存后追加一条修订（BlogRevision）。每隔 blog.revision.snapshot-interval 条保存一次完整快照，
+ * 其余修订只保存相对上一条修订的压缩增量；读取时从最近的快照开始依次应用增量。
+ * 修订在调用方事务提交之后、在独立的新事务中写入（没有事务时立即写入），
+ * 修订写入失败（如并发保存时修订号冲突）只写日志，不影响博客本身的保存。
+ */
+@Service
+public class BlogRevisionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlogRevisionService.class);
+
+    @Autowired
+    private BlogRevisionRepository revisionRepository;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate requiresNew;
+
+    // 两次快照之间最多的增量条数，决定还原一条修订最多需要应用多少个增量
+    @Value("${blog.revision.snapshot-interval:20}")
+    private int snapshotInterval;
+
+    // 每篇博客始终保留的最近修订条数
+    @Value("${blog.revision.keep-recent:20}")
+    private int keepRecent;
+
+    // 超出最近修订的部分，在该天数内每天保留最后一条，更早的删除
+    @Value("${blog.revision.keep-days:30}")
+    private int keepDays;
+
+    @PostConstruct
+    public void init() {
+        requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * 记录博客保存后的状态
+     *
+     * @param entity 已保存的博客
+     * @param previousContent 保存前的正文，未知时传 null（将从修订链还原上一条修订的正文）
+     */
+    public void record(BlogEntity entity, String previousContent) {
+        // 实体在提交前可能继续被修改，先取出当前状态
+        BlogRevision next = newRevision(entity);
+        String content = entity.getContent();
+        afterCommit(entity.getId(), () -> append(next, content, previousContent));
+    }
+
+    /**
+     * 记录部分更新后的状态，未更新的元数据取自上一条修订
+     *
+     * @param previousContent 更新前的正文，未知时传 null
+     */
+    public void recordPatch(Long blogId, Long userId, BlogPatch patch, String previousContent) {
+        afterCommit(blogId, () -> {
+            Optional<BlogRevision> latest = revisionRepository.findFirstByBlogIdOrderByRevisionNoDesc(blogId);
+            if (latest.isEmpty()) {
+                // 还没有修订（功能上线前创建的博客），以数据库中的当前状态作为第一条
+                blogRepository.findById(blogId).ifPresent(entity -> append(newRevision(entity), entity.getContent(), null));
+                return;
+            }
+            BlogRevision last = latest.get();
+            BlogRevision next = new BlogRevision();
+            next.setBlogId(blogId);
+            next.setUserId(userId);
+            next.setTitle(patch.hasTitle() ? patch.getTitle() : last.getTitle());
+            next.setCategories(patch.hasCategories() ? patch.getCategories() : last.getCategories());
+            next.setTags(patch.hasTags() ? patch.joinedTags() : last.getTags());
+            next.setSaying(patch.hasSaying() ? patch.getSaying() : last.getSaying());
+            append(next, last, patch.hasContent() ? patch.getContent() : null, previousContent);
+        });
+    }
+
+    /**
+     * 为新建的博客批量记录第一条修订（完整快照），用于批量导入
+     */
+    public void recordCreated(List<BlogEntity> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        List<BlogRevision> revisions = new ArrayList<>(entities.size());
+        for (BlogEntity entity : entities) {
+            BlogRevision revision = newRevision(entity);
+            revision.setRevisionNo(1);
+            encodeSnapshot(revision, entity.getContent());
+            revisions.add(revision);
+        }
+        afterCommit(null, () -> revisionRepository.saveAll(revisions));
+    }
+
+    // 修订引用的博客由调用方事务写入，提交之后才能插入修订（外键）；
+    // 在新事务中执行并捕获异常，修订的插入、约束冲突都不会回滚或打断调用方
+    private void afterCommit(Long blogId, Runnable action) {
+        Runnable isolated = () -> {
+            try {
+                requiresNew.executeWithoutResult(status -> action.run());
+            } catch (Exception e) {
+                if (blogId != null) {
+                    logger.warn("记录博客 {} 的修订失败: {}", blogId, e.getMessage(), e);
+                } else {
+                    logger.warn("批量记录博客修订失败: {}", e.getMessage(), e);
+                }
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    isolated.run();
+                }
+            });
+        } else {
+            isolated.run();
+        }
+    }
+
+    /**
+     * 获取博客的修订列表（按修订号倒序，不含正文）
+     */
+    @Transactional(readOnly = true)
+    public List<BlogRevisionSummary> listRevisions(Long blogId, Long userId) {
+        return revisionRepository.findSummaries(blogId, userId);
+    }
+
+    /**
+     * 还原一条修订的完整内容
+     *
+     * @return 修订不存在或不属于该用户时返回 null
+     */
+    @Transactional(readOnly = true)
+    public BlogRevisionContent getRevision(Long blogId, Long userId, Integer revisionNo) {
+        return revisionRepository.findByBlogIdAndUserIdAndRevisionNo(blogId, userId, revisionNo)
+                .map(revision -> new BlogRevisionContent(revision, reconstruct(revision)))
+                .orElse(null);
+    }
+
+    /**
+     * 删除博客的全部修订
+     */
+    @Transactional
+    public void deleteRevisions(Long blogId) {
+        revisionRepository.deleteByBlogId(blogId);
+    }
+
+    /**
+     * 压缩一篇博客的修订历史
+     * 保留最近 keep-recent 条；更早的修订在 keep-days 天内每天保留最后一条，其余删除。
+     * 被删除修订之后的增量改为相对上一条保留修订重新编码，保证修订链仍可还原。
+     *
+     * @return 删除的修订条数
+     */
+    @Transactional
+    public int compact(Long blogId, LocalDateTime now) {
+        List<BlogRevision> all = revisionRepository.findByBlogIdOrderByRevisionNoAsc(blogId);
+        int recentFrom = all.size() - Math.max(1, keepRecent);
+        if (recentFrom <= 0) {
+            return 0;
+        }
+        LocalDateTime cutoff = now.minusDays(keepDays);
+        List<BlogRevision> removed = new ArrayList<>();
+        BlogRevision prevKept = null;
+        String prevKeptContent = null;
+        String content = null;
+        boolean gap = false;
+        for (int i = 0; i < all.size(); i++) {
+            BlogRevision revision = all.get(i);
+            // 按原修订链依次还原，重新编码只修改已经还原过的修订
+            content = revision.isSnapshot()
+                    ? RevisionCodec.fromSnapshot(revision.getData())
+                    : RevisionCodec.applyDelta(content, revision.getData());
+
+            boolean keep = i >= recentFrom
+                    || (revision.getCreatedAt().isAfter(cutoff)
+                        && !revision.getCreatedAt().toLocalDate().equals(all.get(i + 1).getCreatedAt().toLocalDate()));
+            if (!keep) {
+                removed.add(revision);
+                gap = true;
+                continue;
+            }
+
+            if (prevKept == null) {
+                if (!revision.isSnapshot()) {
+                    encodeSnapshot(revision, content);
+                }
+            } else if (!revision.isSnapshot()) {
+                if (gap) {
+                    // 上一条修订已删除，改为相对上一条保留的修订
+                    encode(revision, prevKept, prevKeptContent, content);
+                } else {
+                    revision.setChainLength(prevKept.getChainLength() + 1);
+                }
+            }
+            prevKept = revision;
+            prevKeptContent = content;
+            gap = false;
+        }
+        if (!removed.isEmpty()) {
+            revisionRepository.deleteAllInBatch(removed);
+        }
+        return removed.size();
+    }
+
+    /**
+     * 修订数超过保留条数的博客ID，按ID分批返回
+     */
+    public List<Long> findBlogsToCompact(Long afterId, int limit) {
+        return revisionRepository.findBlogIdsWithMoreThan(Math.max(1, keepRecent), afterId,
+                PageRequest.of(0, limit));
+    }
+
+    private static BlogRevision newRevision(BlogEntity entity) {
+        BlogRevision revision = new BlogRevision();
+        revision.setBlogId(entity.getId());
+        revision.setUserId(entity.getUser().getId());
+        revision.setTitle(entity.getTitle());
+        revision.setCategories(entity.getCategories());
+        revision.setTags(entity.getTags());
+        revision.setSaying(entity.getSaying());
+        return revision;
+    }
+
+    private void append(BlogRevision next, String content, String previousContent) {
+        BlogRevision latest = revisionRepository.findFirstByBlogIdOrderByRevisionNoDesc(next.getBlogId()).orElse(null);
+        append(next, latest, content, previousContent);
+    }
+
+    // content 为 null 表示正文与上一条修订相同
+    private void append(BlogRevision next, BlogRevision latest, String content, String previousContent) {
+        if (latest == null) {
+            next.setRevisionNo(1);
+            encodeSnapshot(next, content);
+        } else {
+            next.setRevisionNo(latest.getRevisionNo() + 1);
+            if (content == null || latest.getContentHash().equals(ContentHash.sha256(content))) {
+                if (sameMetadata(latest, next)) {
+                    // 没有任何变化，不产生新修订
+                    return;
+                }
+                next.setSnapshot(false);
+                next.setChainLength(latest.getChainLength() + 1);
+                next.setContentLength(latest.getContentLength());
+                next.setContentHash(latest.getContentHash());
+                next.setData(RevisionCodec.unchanged());
+            } else {
+                // 调用方提供的旧正文与上一条修订一致时直接使用，否则从修订链还原
+                String base = previousContent != null && latest.getContentHash().equals(ContentHash.sha256(previousContent))
+                        ? previousContent : reconstruct(latest);
+                encode(next, latest, base, content);
+            }
+        }
+        revisionRepository.save(next);
+    }
+
+    // 按快照间隔选择快照或增量；增量不比快照小时（大段改写）也保存快照
+    private void encode(BlogRevision revision, BlogRevision previous, String previousContent, String content) {
+        if (previous.getChainLength() + 1 >= snapshotInterval) {
+            encodeSnapshot(revision, content);
+            return;
+        }
+        byte[] delta = RevisionCodec.delta(previousContent, content);
+        byte[] snapshot = RevisionCodec.snapshot(content);
+        if (snapshot.length <= delta.length) {
+            revision.setSnapshot(true);
+            revision.setChainLength(0);
+            revision.setData(snapshot);
+        } else {
+            revision.setSnapshot(false);
+            revision.setChainLength(previous.getChainLength() + 1);
+            revision.setData(delta);
+        }
+        revision.setContentLength(content.length());
+        revision.setContentHash(ContentHash.sha256(content));
+    }
+
+    private static void encodeSnapshot(BlogRevision revision, String content) {
+        revision.setSnapshot(true);
+        revision.setChainLength(0);
+        revision.setData(RevisionCodec.snapshot(content));
+        revision.setContentLength(content.length());
+        revision.setContentHash(ContentHash.sha256(content));
+    }
+
+    // 从修订之前最近的快照开始，依次应用增量还原正文
+    private String reconstruct(BlogRevision target) {
+        String content;
+        if (target.isSnapshot()) {
+            content = RevisionCodec.fromSnapshot(target.getData());
+        } else {
+            BlogRevision snapshot = revisionRepository
+                    .findFirstByBlogIdAndSnapshotTrueAndRevisionNoLessThanEqualOrderByRevisionNoDesc(target.getBlogId(), target.getRevisionNo())
+                    .orElseThrow(() -> new IllegalStateException("博客 " + target.getBlogId() + " 的修订链缺少快照"));
+            content = RevisionCodec.fromSnapshot(snapshot.getData());
+            for (BlogRevision delta : revisionRepository.findByBlogIdAndRevisionNoBetweenOrderByRevisionNoAsc(
+                    target.getBlogId(), snapshot.getRevisionNo() + 1, target.getRevisionNo())) {
+                content = RevisionCodec.applyDelta(content, delta.getData());
+            }
+        }
+        if (!target.getContentHash().equals(ContentHash.sha256(content))) {
+            throw new IllegalStateException("博客 " + target.getBlogId() + " 的修订 " + target.getRevisionNo() + " 还原结果校验失败");
+        }
+        return content;
+    }
+
+    private static boolean sameMetadata(BlogRevision a, BlogRevision b) {
+        return Objects.equals(a.getTitle(), b.getTitle())
+                && Objects.equals(a.getCategories(), b.getCategories())
+                && Objects.equals(a.getTags(), b.getTags())
+                && Objects.equals(a.getSaying(), b.getSaying());
+    }
+}
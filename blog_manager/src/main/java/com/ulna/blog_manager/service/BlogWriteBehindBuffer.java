@@ -0,0 +1,415 @@
+package com.ulna.blog_manager.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ulna.blog_manager.Config.ReadYourWritesTracker;
+import com.ulna.blog_manager.model.Blog;
+import com.ulna.blog_manager.model.BlogContentStorage;
+import com.ulna.blog_manager.model.BlogPatch;
+import com.ulna.blog_manager.model.BlogSearchHit;
+import com.ulna.blog_manager.model.BlogSummary;
+import com.ulna.blog_manager.model.CompressedContentConverter;
+import com.ulna.blog_manager.model.ContentStats;
+import com.ulna.blog_manager.repository.BlogRepository;
+import com.ulna.blog_manager.service.search.BlogSearchEngine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 博客写缓冲（write-behind）
+ *
+ * 开启 blog.write-behind.enabled 后，updateBlog 不再同步写库，而是把新内容放入按博客ID合并的缓冲区，
+ * 同一篇博客在刷新前的多次保存只保留最后一次。后台线程每隔 blog.write-behind.flush-interval，
+ * 或缓冲条数达到 blog.write-behind.max-pending 时，把缓冲中的博客以一条 JDBC 批量 UPDATE 写入，
+ * 再同步标签、修订、检索索引并失效读缓存。批量写入失败时改为逐条写入，数据本身无法写入的博客
+ * 记录错误后丢弃，不会阻塞其他博客；放入缓冲前已按列长度校验，正常情况下不会出现这种博客。
+ *
+ * 刷新前作者本人的读取会叠加缓冲中的内容（读己之写），读取本身从不触发写库；
+ * 需要以数据库当前内容为基准的写操作（部分更新、增量更新等）会先刷新该用户的缓冲。
+ * 应用关闭时会刷新全部缓冲。
+ */
+@Component
+public class BlogWriteBehindBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlogWriteBehindBuffer.class);
+
+    // writeEach 的结果中表示写入失败但需要保留在缓冲中重试
+    private static final int RETRY_LATER = Integer.MIN_VALUE;
+
+    private static final String UPDATE_SQL = "UPDATE blogs SET title = ?, content = ?, content_packed = ?, excerpt = ?, char_count = ?, word_count = ?, "
+            + "reading_minutes = ?, categories = ?, tags = ?, saying = ?, updated_at = ? WHERE id = ? AND user_id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private BlogRevisionService blogRevisionService;
+
+    @Autowired
+    private BlogSearchEngine blogSearchEngine;
+
+    @Autowired
+    private BlogReadCache blogReadCache;
+
+    @Autowired
+    private BlogContentStorage contentStorage;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWrites;
+
+    @Autowired
+    private SecondLevelCache secondLevelCache;
+
+    @Value("${blog.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${blog.write-behind.flush-interval:2s}")
+    private Duration flushInterval;
+
+    @Value("${blog.write-behind.max-pending:200}")
+    private int maxPending;
+
+    // 博客ID -> 待写入的最新内容
+    private final Map<Long, PendingWrite> pending = new ConcurrentHashMap<>();
+
+    // 博客ID -> 作者ID，避免每次保存都查询归属
+    private final Cache<Long, Long> owners = Caffeine.newBuilder().maximumSize(10_000).build();
+
+    // 刷新由后台线程和请求线程共同触发，同一时间只允许一个刷新
+    private final Object flushLock = new Object();
+
+    // 刷新可能发生在调用方的事务中，写入在独立的新事务中执行
+    private TransactionTemplate requiresNew;
+
+    private ScheduledExecutorService flusher;
+
+    @PostConstruct
+    public void start() {
+        requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        if (!enabled) {
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "blog-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(100, flushInterval.toMillis());
+        flusher.scheduleWithFixedDelay(this::flushAll, interval, interval, TimeUnit.MILLISECONDS);
+        logger.info("博客写缓冲已开启：刷新间隔 {}，缓冲上限 {} 篇", flushInterval, maxPending);
+    }
+
+    /**
+     * 应用关闭时停止后台线程，并把缓冲中的博客全部写入
+     */
+    @PreDestroy
+    public void stop() {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warn("写缓冲后台刷新未在 10 秒内结束");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushAll();
+        if (!pending.isEmpty()) {
+            logger.error("应用关闭时仍有 {} 篇博客未能写入: {}", pending.size(), pending.keySet());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 查询博客的作者ID，结果会被缓存
+     *
+     * @param loader 从数据库读取作者ID，博客不存在时返回 null
+     */
+    public Long ownerOf(Long blogId, Function<Long, Long> loader) {
+        return owners.get(blogId, loader);
+    }
+
+    /**
+     * 把博客的新内容放入缓冲，覆盖该博客尚未写入的旧内容
+     */
+    public PendingWrite enqueue(Long userId, String username, Blog blog) {
+        PendingWrite write = new PendingWrite(blog.getId(), userId, username, blog, LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        pending.put(blog.getId(), write);
+        blogReadCache.invalidateBlog(userId, blog.getId());
+        if (pending.size() >= maxPending) {
+            try {
+                flusher.execute(this::flushAll);
+            } catch (RejectedExecutionException e) {
+                // 正在关闭，由 stop() 负责写入
+            }
+        }
+        return write;
+    }
+
+    /**
+     * 该用户在某篇博客上尚未写入的内容，没有时返回 null
+     */
+    public PendingWrite get(Long blogId, Long userId) {
+        PendingWrite write = pending.get(blogId);
+        return write != null && write.userId.equals(userId) ? write : null;
+    }
+
+    /**
+     * 该用户全部尚未写入的内容
+     */
+    public List<PendingWrite> pendingOf(Long userId) {
+        List<PendingWrite> writes = new ArrayList<>();
+        for (PendingWrite write : pending.values()) {
+            if (write.userId.equals(userId)) {
+                writes.add(write);
+            }
+        }
+        return writes;
+    }
+
+    /**
+     * 立即写入该用户缓冲中的博客
+     */
+    public void flushUser(Long userId) {
+        if (!pending.isEmpty()) {
+            flush(write -> write.userId.equals(userId));
+        }
+    }
+
+    /**
+     * 立即写入全部缓冲中的博客
+     */
+    public void flushAll() {
+        if (!pending.isEmpty()) {
+            flush(write -> true);
+        }
+    }
+
+    /**
+     * 博客被删除：丢弃尚未写入的内容和缓存的作者
+     */
+    public void discard(Long blogId) {
+        pending.remove(blogId);
+        owners.invalidate(blogId);
+    }
+
+    private void flush(Predicate<PendingWrite> filter) {
+        synchronized (flushLock) {
+            List<PendingWrite> batch = new ArrayList<>();
+            for (PendingWrite write : pending.values()) {
+                if (filter.test(write)) {
+                    batch.add(write);
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            int[] counts;
+            try {
+                counts = requiresNew.execute(status -> jdbcTemplate.batchUpdate(UPDATE_SQL, batch, batch.size(), this::bind))[0];
+            } catch (Exception e) {
+                // 批次中任意一条失败都会使整个批次回滚，逐条重试，只丢弃本身无法写入的博客
+                logger.warn("写缓冲批量写入 {} 篇博客失败，改为逐条写入: {}", batch.size(), e.getMessage());
+                counts = writeEach(batch);
+            }
+            // JDBC 写入绕过了 Hibernate，先失效二级缓存，afterWrite 重新加载实体时才能读到新内容
+            secondLevelCache.evictBlogs(batch.stream().map(write -> write.blogId).toList());
+
+            int written = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                PendingWrite write = batch.get(i);
+                // 开启 rewriteBatchedStatements 时驱动只返回 SUCCESS_NO_INFO
+                int count = counts[i];
+                if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                    afterWrite(write);
+                    written++;
+                } else if (count == RETRY_LATER) {
+                    continue;
+                } else if (count == Statement.EXECUTE_FAILED) {
+                    // 读缓存失效后作者读到的是数据库中的内容
+                    blogReadCache.invalidateBlog(write.userId, write.blogId);
+                } else {
+                    logger.warn("写缓冲中的博客 {} 已不存在，丢弃", write.blogId);
+                    owners.invalidate(write.blogId);
+                }
+                // 刷新期间又有新的保存时保留新内容
+                pending.remove(write.blogId, write);
+            }
+            logger.debug("写缓冲刷新 {} 篇博客", written);
+        }
+    }
+
+    // 逐条写入，每条一个事务；数据本身无法写入的博客丢弃，其他错误（如连接失败）保留在缓冲中下次重试
+    private int[] writeEach(List<PendingWrite> batch) {
+        int[] counts = new int[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            PendingWrite write = batch.get(i);
+            try {
+                counts[i] = requiresNew.execute(status -> jdbcTemplate.update(UPDATE_SQL, ps -> bind(ps, write)));
+            } catch (DataIntegrityViolationException e) {
+                logger.error("写缓冲中用户 {} 的博客 {} 无法写入，已丢弃这次修改: {}", write.userId, write.blogId, e.getMessage(), e);
+                counts[i] = Statement.EXECUTE_FAILED;
+            } catch (Exception e) {
+                logger.error("写缓冲写入博客 {} 失败，保留在缓冲中下次重试: {}", write.blogId, e.getMessage(), e);
+                counts[i] = RETRY_LATER;
+            }
+        }
+        return counts;
+    }
+
+    private void bind(PreparedStatement ps, PendingWrite write) throws SQLException {
+        ps.setString(1, write.title);
+        ps.setString(2, contentStorage.textPart(write.content));
+        ps.setBytes(3, CompressedContentConverter.encode(contentStorage.packedPart(write.content)));
+        ps.setString(4, write.stats.getExcerpt());
+        ps.setInt(5, write.stats.getCharCount());
+        ps.setInt(6, write.stats.getWordCount());
+        ps.setInt(7, write.stats.getReadingMinutes());
+        ps.setString(8, write.categories);
+        ps.setString(9, write.tags != null ? String.join(",", write.tags) : null);
+        ps.setString(10, write.saying);
+        ps.setTimestamp(11, Timestamp.valueOf(write.updatedAt));
+        ps.setLong(12, write.blogId);
+        ps.setLong(13, write.userId);
+    }
+
+    // 写库之后同步标签、修订、检索索引，并失效读缓存；后台刷新没有请求上下文，需要显式记录读己之写窗口
+    private void afterWrite(PendingWrite write) {
+        readYourWrites.recordWrite(write.username);
+        try {
+            BlogPatch patch = write.toPatch();
+            requiresNew.executeWithoutResult(status -> {
+                tagService.syncBlogTags(write.blogId, write.userId, write.tags);
+                blogRevisionService.recordPatch(write.blogId, write.userId, patch, null);
+            });
+            if (!blogSearchEngine.patch(write.userId, write.blogId, patch, write.updatedAt)) {
+                blogRepository.findById(write.blogId).ifPresent(blogSearchEngine::index);
+            }
+        } catch (Exception e) {
+            logger.error("写缓冲刷新博客 {} 后同步标签/修订/索引失败: {}", write.blogId, e.getMessage(), e);
+        } finally {
+            blogReadCache.invalidateBlog(write.userId, write.blogId);
+        }
+    }
+
+    /**
+     * 一篇博客尚未写入的内容
+     */
+    public static final class PendingWrite {
+        private final Long blogId;
+        private final Long userId;
+        private final String username;
+        private final String title;
+        private final String categories;
+        private final String[] tags;
+        private final String saying;
+        private final String content;
+        private final ContentStats stats;
+        private final LocalDateTime updatedAt;
+
+        PendingWrite(Long blogId, Long userId, String username, Blog blog, LocalDateTime updatedAt) {
+            this.blogId = blogId;
+            this.userId = userId;
+            this.username = username;
+            this.title = blog.getTitle();
+            this.categories = blog.getCategories();
+            this.tags = blog.getTags() != null ? blog.getTags().clone() : null;
+            this.saying = blog.getSaying();
+            this.content = blog.getContent();
+            this.stats = ContentStats.of(content);
+            this.updatedAt = updatedAt;
+        }
+
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+
+        /**
+         * 把尚未写入的内容叠加到从数据库或缓存读取的博客上
+         */
+        public void applyTo(Blog blog) {
+            blog.setTitle(title);
+            blog.setCategories(categories);
+            blog.setTags(tags != null ? tags.clone() : null);
+            blog.setSaying(saying);
+            blog.setContent(content);
+            blog.setUpdatedAt(updatedAt);
+        }
+
+        /**
+         * 生成叠加了尚未写入内容的摘要副本
+         */
+        public BlogSummary applyTo(BlogSummary summary) {
+            BlogSummary copy = new BlogSummary(summary.getId(), title, categories, null, saying,
+                    stats.getExcerpt(), stats.getCharCount(), stats.getWordCount(), stats.getReadingMinutes(),
+                    summary.getCreatedAt(), updatedAt);
+            copy.setTags(tags != null ? tags.clone() : null);
+            return copy;
+        }
+
+        /**
+         * 把尚未写入的元数据叠加到检索结果上
+         */
+        public void applyTo(BlogSearchHit hit) {
+            hit.setTitle(title);
+            hit.setCategories(categories);
+            hit.setTags(tags != null ? tags.clone() : null);
+            hit.setSaying(saying);
+            hit.setUpdatedAt(updatedAt);
+        }
+
+        BlogPatch toPatch() {
+            BlogPatch patch = new BlogPatch();
+            patch.setTitle(title);
+            patch.setCategories(categories);
+            patch.setTags(tags);
+            patch.setSaying(saying);
+            patch.setContent(content);
+            return patch;
+        }
+    }
+}
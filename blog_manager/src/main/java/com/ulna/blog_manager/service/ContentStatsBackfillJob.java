@@ -0,0 +1,98 @@
+package com.ulna.blog_manager.service;
+
+import com.ulna.blog_manager.model.CompressedContentConverter;
+import com.ulna.blog_manager.model.ContentStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 正文统计回填任务
+ *
+ * 为加入 excerpt / char_count / word_count / reading_minutes 列之前写入的博客计算统计。
+ * 启动后在后台按ID分批执行，只处理 word_count 为 NULL 的行，更新时同样以此为条件，
+ * 不会覆盖回填期间由正常写入计算的新值，也不修改 updated_at，因此可以重复执行。
+ */
+@Component
+public class ContentStatsBackfillJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentStatsBackfillJob.class);
+
+    private static final int BATCH_SIZE = 200;
+
+    private static final String UPDATE_SQL = "UPDATE blogs SET excerpt = ?, char_count = ?, word_count = ?, reading_minutes = ? "
+            + "WHERE id = ? AND word_count IS NULL";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BlogReadCache blogReadCache;
+
+    @Autowired
+    private SecondLevelCache secondLevelCache;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        long lastId = 0L;
+        int filled = 0;
+        try {
+            while (true) {
+                List<PendingRow> rows = jdbcTemplate.query(
+                        "SELECT id, user_id, content, content_packed FROM blogs WHERE id > ? AND word_count IS NULL " +
+                        "ORDER BY id LIMIT ?",
+                        (rs, i) -> {
+                            String content = rs.getString(3);
+                            if (content == null) {
+                                content = CompressedContentConverter.decode(rs.getBytes(4));
+                            }
+                            return new PendingRow(rs.getLong(1), rs.getLong(2), ContentStats.of(content));
+                        },
+                        lastId, BATCH_SIZE);
+                if (rows.isEmpty()) {
+                    break;
+                }
+                int[] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, rows, rows.size(), (ps, row) -> {
+                    ps.setString(1, row.stats().getExcerpt());
+                    ps.setInt(2, row.stats().getCharCount());
+                    ps.setInt(3, row.stats().getWordCount());
+                    ps.setInt(4, row.stats().getReadingMinutes());
+                    ps.setLong(5, row.id());
+                })[0];
+                // 缓存中的列表摘要和二级缓存中的实体还没有统计字段
+                Set<Long> users = new HashSet<>();
+                List<Long> ids = new ArrayList<>();
+                for (int i = 0; i < rows.size(); i++) {
+                    if (counts[i] != 0) {
+                        filled++;
+                        users.add(rows.get(i).userId());
+                        ids.add(rows.get(i).id());
+                    }
+                }
+                users.forEach(blogReadCache::invalidateUser);
+                if (!ids.isEmpty()) {
+                    secondLevelCache.evictBlogs(ids);
+                }
+                lastId = rows.get(rows.size() - 1).id();
+            }
+            if (filled > 0) {
+                logger.info("正文统计回填完成，共 {} 篇博客", filled);
+            }
+        } catch (Exception e) {
+            logger.error("正文统计回填失败，已回填 {} 篇博客，最后处理的ID: {}", filled, lastId, e);
+        }
+    }
+
+    private record PendingRow(long id, long userId, ContentStats stats) {}
+}
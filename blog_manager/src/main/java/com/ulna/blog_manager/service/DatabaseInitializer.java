@@ -23,6 +23,9 @@ public class DatabaseInitializer implements CommandLineRunner {
         if (!userService.existsByUsername("admin")) {
             try {
                 User admin = userService.createUser("admin", "admin@test.com", "admin123");
+                // 默认管理员拥有 ADMIN 角色，可访问 /api/admin/** 管理接口
+                admin.setRole(User.Role.ADMIN);
+                userService.saveUser(admin);
                 logger.info("创建默认管理员用户成功: {}", admin.getUsername());
             } catch (Exception e) {
                 logger.error("创建默认管理员用户失败: {}", e.getMessage());
@@ -0,0 +1,71 @@
+package com.ulna.blog_manager.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 确保 blogs 表上存在使用 ngram 解析器的 FULLTEXT 索引
+ *
+ * ddl-auto=update 只会创建普通索引，无法创建带 ngram 解析器的全文索引，
+ * 而默认解析器按空格分词，无法检索中文。全文检索后端为 mysql 时，
+ * 启动时检查 idx_content_search，不存在或不是 ngram 解析器则重新创建。
+ */
+@Component
+public class FullTextIndexInitializer implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(FullTextIndexInitializer.class);
+
+    private static final String INDEX_NAME = "idx_content_search";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${blog.search.backend:memory}")
+    private String searchBackend;
+
+    @Override
+    public void run(String... args) {
+        if (!"mysql".equalsIgnoreCase(searchBackend)) {
+            return;
+        }
+        try {
+            ensureNgramIndex();
+        } catch (Exception e) {
+            logger.error("检查全文索引失败，MySQL 全文检索可能不可用: {}", e.getMessage());
+        }
+    }
+
+    private void ensureNgramIndex() {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("SHOW CREATE TABLE blogs");
+        String ddl = rows.isEmpty() ? "" : String.valueOf(rows.get(0).get("Create Table"));
+
+        String indexLine = null;
+        for (String line : ddl.split("\n")) {
+            if (line.contains("`" + INDEX_NAME + "`")) {
+                indexLine = line;
+                break;
+            }
+        }
+
+        if (indexLine != null && indexLine.contains("FULLTEXT") && indexLine.contains("ngram")) {
+            logger.info("全文索引 {} 已存在（ngram 解析器）", INDEX_NAME);
+            return;
+        }
+        if (indexLine != null) {
+            logger.info("全文索引 {} 未使用 ngram 解析器，重新创建", INDEX_NAME);
+            jdbcTemplate.execute("ALTER TABLE blogs DROP INDEX " + INDEX_NAME);
+        } else {
+            logger.info("全文索引 {} 不存在，开始创建", INDEX_NAME);
+        }
+        jdbcTemplate.execute("ALTER TABLE blogs ADD FULLTEXT INDEX " + INDEX_NAME + " (title, content) WITH PARSER ngram");
+        logger.info("全文索引 {} 创建完成", INDEX_NAME);
+    }
+}
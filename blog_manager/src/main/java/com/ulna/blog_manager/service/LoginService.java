@@ -0,0 +1,83 @@
+package com.ulna.blog_manager.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 登录密码验证
+ *
+ * BCrypt 验证是刻意放慢的 CPU 计算，放在 Tomcat 工作线程上时，一波登录请求就能占满工作线程，
+ * 连带阻塞其他接口。这里用独立的有界线程池执行验证：线程数限制同时进行的 BCrypt 计算，
+ * 队列满时立即拒绝，由调用方返回 503，而不是让请求无限排队。
+ */
+@Service
+public class LoginService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginService.class);
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Value("${blog.login.threads:0}")
+    private int threads;
+
+    @Value("${blog.login.queue-capacity:50}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void start() {
+        // 0 表示按 CPU 核数的一半，至少 1 个线程，给其他请求留出 CPU
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread thread = new Thread(r, "login-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        logger.info("登录验证线程池已启动：{} 个线程，队列上限 {}", size, queueCapacity);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 在登录线程池中验证用户名和密码
+     *
+     * 验证失败时返回的 Future 以 AuthenticationException 结束。
+     *
+     * @throws RejectedExecutionException 线程池和队列都已满
+     */
+    public CompletableFuture<Authentication> authenticate(String username, String password) {
+        return CompletableFuture.supplyAsync(() -> authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(username, password)), executor);
+    }
+}
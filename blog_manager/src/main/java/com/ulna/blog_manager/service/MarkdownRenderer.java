@@ -0,0 +1,102 @@
+package com.ulna.blog_manager.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.commonmark.Extension;
+import org.commonmark.ext.gfm.strikethrough.StrikethroughExtension;
+import org.commonmark.ext.gfm.tables.TablesExtension;
+import org.commonmark.node.Image;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Markdown 渲染
+ *
+ * 把博客正文渲染为 HTML：原始 HTML 一律转义、链接只保留安全协议，
+ * 相对路径 image/... 的图片改为 /image/...（与前端 processBlogContentForDisplay 一致）。
+ * 渲染结果按正文 SHA-256 缓存，正文不变时不同请求、不同博客共享同一份 HTML，
+ * 正文修改后哈希随之改变，不需要显式失效。
+ */
+@Component
+public class MarkdownRenderer {
+
+    private static final Logger logger = LoggerFactory.getLogger(MarkdownRenderer.class);
+
+    private static final String IMAGE_PREFIX = "image/";
+
+    private final Parser parser;
+    private final HtmlRenderer renderer;
+
+    // 正文哈希 -> HTML，权重为 HTML 字符串占用的内存（KB），见 weightKb
+    private final Cache<String, String> htmlCache;
+
+    /**
+     * @param maxWeightKb 缓存的 HTML 总共最多占用的内存（KB），与 weightKb 的单位相同
+     */
+    public MarkdownRenderer(@Value("${blog.render.cache.max-weight-kb:32768}") long maxWeightKb) {
+        List<Extension> extensions = List.of(TablesExtension.create(), StrikethroughExtension.create());
+        this.parser = Parser.builder().extensions(extensions).build();
+        this.renderer = HtmlRenderer.builder()
+                .extensions(extensions)
+                .escapeHtml(true)
+                .sanitizeUrls(true)
+                .attributeProviderFactory(context -> (node, tagName, attributes) -> {
+                    if (node instanceof Image) {
+                        String src = attributes.get("src");
+                        if (src != null && src.startsWith(IMAGE_PREFIX)) {
+                            attributes.put("src", "/" + src);
+                        }
+                    }
+                })
+                .build();
+        this.htmlCache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightKb)
+                .weigher((String hash, String html) -> weightKb(html))
+                .recordStats()
+                .build();
+        logger.info("Markdown 渲染缓存最大 {} KB", maxWeightKb);
+    }
+
+    /**
+     * HTML 字符串占用的内存（KB），按每个字符 2 字节（UTF-16）向上取整，至少为 1
+     */
+    static int weightKb(String html) {
+        return (int) Math.max(1, (html.length() * 2L + 1023) / 1024);
+    }
+
+    /**
+     * 渲染正文
+     *
+     * @param contentHash 正文的 ContentHash.sha256，调用方已计算时可传入，否则传 null
+     */
+    public String render(String content, String contentHash) {
+        String source = content != null ? content : "";
+        String key = contentHash != null ? contentHash : ContentHash.sha256(source);
+        return htmlCache.get(key, k -> renderer.render(parser.parse(source)));
+    }
+
+    /**
+     * 渲染缓存统计信息，格式与 BlogReadCache.stats() 相同
+     */
+    public Map<String, Object> stats() {
+        CacheStats stats = htmlCache.stats();
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("hitCount", stats.hitCount());
+        map.put("missCount", stats.missCount());
+        map.put("hitRate", stats.hitRate());
+        map.put("evictionCount", stats.evictionCount());
+        map.put("evictionWeight", stats.evictionWeight());
+        map.put("estimatedSize", htmlCache.estimatedSize());
+        map.put("weightedSize", htmlCache.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L));
+        return map;
+    }
+}
@@ -0,0 +1,190 @@
+package com.ulna.blog_manager.service;
+
+import com.ulna.blog_manager.Config.RevokedTokenIds;
+import com.ulna.blog_manager.Config.UserTokenRevocations;
+import com.ulna.blog_manager.model.RefreshToken;
+import com.ulna.blog_manager.model.RevokedToken;
+import com.ulna.blog_manager.model.User;
+import com.ulna.blog_manager.repository.RefreshTokenRepository;
+import com.ulna.blog_manager.repository.RevokedTokenRepository;
+import com.ulna.blog_manager.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 刷新令牌和访问令牌吊销
+ *
+ * 访问令牌有效期短（jwt.expiration），过期后用刷新令牌换取新的访问令牌和新的刷新令牌，
+ * 旧刷新令牌随即作废。登出时作废刷新令牌，并把访问令牌的 jti 记入 revoked_tokens 表和内存中的 RevokedTokenIds；
+ * 按用户吊销全部令牌时提升 users.token_version，由 UserTokenRevocations 在内存中判断。
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RevokedTokenIds revokedTokenIds;
+
+    @Autowired
+    private UserTokenRevocations tokenRevocations;
+
+    @Autowired
+    private UserService userService;
+
+    @Value("${jwt.expiration}")
+    private long accessExpirationMs;
+
+    @Value("${jwt.refresh-expiration:604800000}")
+    private long refreshExpirationMs;
+
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * 刷新成功后的用户和新的刷新令牌原文
+     */
+    public static class Rotation {
+        private final User user;
+        private final String refreshToken;
+
+        public Rotation(User user, String refreshToken) {
+            this.user = user;
+            this.refreshToken = refreshToken;
+        }
+
+        public User getUser() { return user; }
+        public String getRefreshToken() { return refreshToken; }
+    }
+
+    // 在接受请求之前从数据库加载未过期的吊销记录和用户令牌版本
+    @PostConstruct
+    public void loadRevokedTokenIds() {
+        revokedTokenIds.merge(findActiveRevocations());
+        Map<String, Integer> versions = findRecentTokenVersions();
+        tokenRevocations.merge(versions);
+        logger.info("已加载 {} 个已吊销的访问令牌、{} 个吊销过全部令牌的用户", revokedTokenIds.size(), versions.size());
+    }
+
+    /**
+     * 为用户签发新的刷新令牌，返回原文（只在此时可见）
+     */
+    @Transactional
+    public String issue(Long userId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        LocalDateTime expiresAt = LocalDateTime.now().plusNanos(refreshExpirationMs * 1_000_000);
+        refreshTokenRepository.save(new RefreshToken(userId, ContentHash.sha256(token), expiresAt));
+        return token;
+    }
+
+    /**
+     * 用刷新令牌换取新的刷新令牌，旧令牌作废；令牌无效或过期时返回 null
+     *
+     * 已作废的令牌再次出现说明令牌可能已被盗用，作废该用户全部刷新令牌并吊销已签发的访问令牌。
+     */
+    @Transactional
+    public Rotation rotate(String rawToken) {
+        if (rawToken == null || rawToken.isEmpty()) {
+            return null;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken token = refreshTokenRepository.findForUpdate(ContentHash.sha256(rawToken)).orElse(null);
+        if (token == null || token.isExpired(now)) {
+            return null;
+        }
+        User user = userRepository.findById(token.getUserId()).orElse(null);
+        if (user == null) {
+            return null;
+        }
+        if (token.getRevokedAt() != null) {
+            logger.warn("用户 {} 的刷新令牌在作废后被再次使用，作废其全部令牌", user.getUsername());
+            refreshTokenRepository.revokeAllByUserId(user.getId(), now);
+            userService.revokeTokens(user);
+            return null;
+        }
+        token.setRevokedAt(now);
+        return new Rotation(user, issue(user.getId()));
+    }
+
+    /**
+     * 登出：作废刷新令牌，吊销访问令牌的 jti（两者都可以为空）
+     */
+    @Transactional
+    public void logout(String rawRefreshToken, Long userId, String jti, Date accessExpiresAt) {
+        // 直接删除：登出后再使用该令牌按无效令牌处理，不触发重复使用检测
+        if (rawRefreshToken != null && !rawRefreshToken.isEmpty()) {
+            refreshTokenRepository.findByTokenHash(ContentHash.sha256(rawRefreshToken))
+                    .ifPresent(refreshTokenRepository::delete);
+        }
+        if (userId != null && jti != null && accessExpiresAt != null
+                && accessExpiresAt.getTime() > System.currentTimeMillis()) {
+            LocalDateTime expiresAt = LocalDateTime.ofInstant(accessExpiresAt.toInstant(), ZoneId.systemDefault());
+            revokedTokenRepository.save(new RevokedToken(jti, userId, expiresAt));
+            revokedTokenIds.add(jti, accessExpiresAt.getTime());
+        }
+    }
+
+    /**
+     * 定时删除过期的刷新令牌和吊销记录，并合并其他实例新增的吊销记录
+     */
+    @Scheduled(cron = "${jwt.revocation.sync-cron:0 * * * * *}")
+    @Transactional
+    public void sync() {
+        LocalDateTime now = LocalDateTime.now();
+        int refreshRemoved = refreshTokenRepository.deleteExpired(now);
+        int revokedRemoved = revokedTokenRepository.deleteExpired(now);
+        revokedTokenIds.merge(findActiveRevocations());
+        tokenRevocations.merge(findRecentTokenVersions());
+        if (refreshRemoved > 0 || revokedRemoved > 0) {
+            logger.info("已清理 {} 个过期刷新令牌、{} 条过期吊销记录", refreshRemoved, revokedRemoved);
+        }
+    }
+
+    private Map<String, Long> findActiveRevocations() {
+        Map<String, Long> entries = new HashMap<>();
+        for (Object[] row : revokedTokenRepository.findActive(LocalDateTime.now())) {
+            Instant expiresAt = ((LocalDateTime) row[1]).atZone(ZoneId.systemDefault()).toInstant();
+            entries.put((String) row[0], expiresAt.toEpochMilli());
+        }
+        return entries;
+    }
+
+    // 一个访问令牌有效期之前吊销的用户不需要加载：按旧版本签发的令牌都已过期
+    private Map<String, Integer> findRecentTokenVersions() {
+        Map<String, Integer> versions = new HashMap<>();
+        LocalDateTime since = LocalDateTime.now().minusNanos(accessExpirationMs * 1_000_000);
+        for (Object[] row : userRepository.findTokenVersionsRevokedSince(since)) {
+            if (row[1] != null) {
+                versions.put((String) row[0], (Integer) row[1]);
+            }
+        }
+        return versions;
+    }
+}
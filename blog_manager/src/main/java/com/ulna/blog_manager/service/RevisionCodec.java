@@ -0,0 +1,148 @@
+package com.ulna.blog_manager.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 修订数据的编码
+ *
+ * 快照：正文 UTF-8 编码后 Deflate 压缩。
+ * 增量：基准正文与新正文的公共前缀长度、公共后缀长度（按 char 计）加上被替换的中间部分；
+ * 中间部分压缩时以基准正文中被替换的那一段作为预置字典，只改动几处的正文也能压缩到很小。
+ * 空数组表示正文没有变化。
+ */
+final class RevisionCodec {
+
+    // Deflate 的窗口为 32KB，更长的字典只有最后 32KB 有效
+    private static final int MAX_DICTIONARY = 32 * 1024;
+
+    private static final byte[] UNCHANGED = new byte[0];
+
+    private RevisionCodec() {}
+
+    static byte[] snapshot(String content) {
+        return deflate(content.getBytes(StandardCharsets.UTF_8), null);
+    }
+
+    static String fromSnapshot(byte[] data) {
+        return new String(inflate(data, 0, null), StandardCharsets.UTF_8);
+    }
+
+    static byte[] unchanged() {
+        return UNCHANGED;
+    }
+
+    static byte[] delta(String base, String target) {
+        if (base.equals(target)) {
+            return UNCHANGED;
+        }
+        int max = Math.min(base.length(), target.length());
+        int prefix = 0;
+        while (prefix < max && base.charAt(prefix) == target.charAt(prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < max - prefix
+                && base.charAt(base.length() - 1 - suffix) == target.charAt(target.length() - 1 - suffix)) {
+            suffix++;
+        }
+        // 不在代理对中间切分，否则中间部分无法按 UTF-8 编码
+        if (prefix > 0 && Character.isHighSurrogate(target.charAt(prefix - 1))) {
+            prefix--;
+        }
+        if (suffix > 0 && Character.isLowSurrogate(target.charAt(target.length() - suffix))) {
+            suffix--;
+        }
+
+        byte[] middle = target.substring(prefix, target.length() - suffix).getBytes(StandardCharsets.UTF_8);
+        byte[] dictionary = dictionary(base, prefix, suffix);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(middle.length / 2 + 16);
+        try (DataOutputStream header = new DataOutputStream(out)) {
+            header.writeInt(prefix);
+            header.writeInt(suffix);
+            header.write(deflate(middle, dictionary));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    static String applyDelta(String base, byte[] data) {
+        if (data.length == 0) {
+            return base;
+        }
+        int prefix;
+        int suffix;
+        try (DataInputStream header = new DataInputStream(new ByteArrayInputStream(data))) {
+            prefix = header.readInt();
+            suffix = header.readInt();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (prefix < 0 || suffix < 0 || prefix + suffix > base.length()) {
+            throw new IllegalStateException("修订增量与基准正文不匹配");
+        }
+        String middle = new String(inflate(data, 8, dictionary(base, prefix, suffix)), StandardCharsets.UTF_8);
+        return base.substring(0, prefix) + middle + base.substring(base.length() - suffix);
+    }
+
+    private static byte[] dictionary(String base, int prefix, int suffix) {
+        byte[] replaced = base.substring(prefix, base.length() - suffix).getBytes(StandardCharsets.UTF_8);
+        return replaced.length > MAX_DICTIONARY
+                ? Arrays.copyOfRange(replaced, replaced.length - MAX_DICTIONARY, replaced.length)
+                : replaced;
+    }
+
+    private static byte[] deflate(byte[] input, byte[] dictionary) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            if (dictionary != null && dictionary.length > 0) {
+                deflater.setDictionary(dictionary);
+            }
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2 + 16);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data, int offset, byte[] dictionary) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, offset, data.length - offset);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 3);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0) {
+                    if (inflater.needsDictionary() && dictionary != null) {
+                        inflater.setDictionary(dictionary);
+                    } else if (inflater.needsInput() || inflater.needsDictionary()) {
+                        throw new IllegalStateException("修订数据不完整");
+                    }
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("修订数据损坏", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.ulna.blog_manager.service;
+
+import com.ulna.blog_manager.model.BlogEntity;
+import com.ulna.blog_manager.model.CacheRegions;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hibernate 二级缓存的失效和统计
+ *
+ * 经 Hibernate 的写入（保存、删除）由 Hibernate 自己维护缓存；JPQL/Criteria 批量更新会清空整个实体区域，
+ * 高频的单篇更新（部分更新、增量更新）因此改用 JDBC，由 BlogRepositoryCustomImpl 只失效对应条目。
+ * 写缓冲、正文迁移、统计回填等直接用 JdbcTemplate 写 blogs 表的路径，写入后需要调用这里失效。
+ * 这些写入不改变 blog-queries 中缓存的查询结果（见 BlogRepository），只失效实体缓存，其他用户的查询缓存不受影响。
+ */
+@Component
+public class SecondLevelCache {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * 失效一篇博客的实体缓存（只改变存储形式、不改变查询结果时使用）
+     */
+    public void evictBlog(Long blogId) {
+        cache().evictEntityData(BlogEntity.class, blogId);
+    }
+
+    /**
+     * 失效多篇博客的实体缓存
+     */
+    public void evictBlogs(Collection<Long> blogIds) {
+        Cache cache = cache();
+        for (Long blogId : blogIds) {
+            cache.evictEntityData(BlogEntity.class, blogId);
+        }
+    }
+
+    /**
+     * 各缓存区域的命中、未命中和写入统计；未启用二级缓存或统计时只返回开关状态
+     */
+    public Map<String, Object> stats() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        Statistics statistics = sessionFactory.getStatistics();
+        Map<String, Object> map = new LinkedHashMap<>();
+        // 开关由 SecondLevelCacheConfig 写入 EMF 属性，按 blog.cache.l2.enabled 决定
+        boolean enabled = Boolean.parseBoolean(String.valueOf(
+                entityManagerFactory.getProperties().get(AvailableSettings.USE_SECOND_LEVEL_CACHE)));
+        map.put("enabled", enabled);
+        map.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        if (!enabled || !statistics.isStatisticsEnabled()) {
+            return map;
+        }
+        map.put("hitCount", statistics.getSecondLevelCacheHitCount());
+        map.put("missCount", statistics.getSecondLevelCacheMissCount());
+        map.put("putCount", statistics.getSecondLevelCachePutCount());
+        map.put("queryHitCount", statistics.getQueryCacheHitCount());
+        map.put("queryMissCount", statistics.getQueryCacheMissCount());
+        map.put("queryPutCount", statistics.getQueryCachePutCount());
+        map.put("timestampsHitCount", statistics.getUpdateTimestampsCacheHitCount());
+        map.put("timestampsPutCount", statistics.getUpdateTimestampsCachePutCount());
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        regions.put(CacheRegions.USERS, regionStats(statistics.getDomainDataRegionStatistics(CacheRegions.USERS)));
+        regions.put(CacheRegions.BLOGS, regionStats(statistics.getDomainDataRegionStatistics(CacheRegions.BLOGS)));
+        regions.put(CacheRegions.USER_QUERIES, regionStats(statistics.getQueryRegionStatistics(CacheRegions.USER_QUERIES)));
+        regions.put(CacheRegions.BLOG_QUERIES, regionStats(statistics.getQueryRegionStatistics(CacheRegions.BLOG_QUERIES)));
+        map.put("regions", regions);
+        return map;
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    // 查询缓存区域在第一次使用前没有统计
+    private Map<String, Object> regionStats(CacheRegionStatistics stats) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        long hits = stats != null ? stats.getHitCount() : 0;
+        long misses = stats != null ? stats.getMissCount() : 0;
+        map.put("hitCount", hits);
+        map.put("missCount", misses);
+        map.put("hitRate", hits + misses > 0 ? (double) hits / (hits + misses) : 0.0);
+        map.put("putCount", stats != null ? stats.getPutCount() : 0);
+        return map;
+    }
+}
@@ -0,0 +1,116 @@
+package com.ulna.blog_manager.service;
+
+import com.ulna.blog_manager.model.AppSetting;
+import com.ulna.blog_manager.repository.AppSettingRepository;
+import com.ulna.blog_manager.repository.BlogRepository;
+import com.ulna.blog_manager.repository.BlogTagRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 标签在线迁移任务
+ *
+ * 把 blogs.tags 逗号分隔列中的标签迁移到 tag / blog_tag 表。
+ * 启动后在后台按ID分批执行，已有关联的博客会被跳过，因此可以重复执行；
+ * 迁移期间应用照常服务，新的写操作会同时写入两处。
+ * 完整执行后把完成记录写入 app_settings，之后启动不再扫描；失败则不记录，下次启动重试。
+ */
+@Component
+public class TagMigrationJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(TagMigrationJob.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    // app_settings 中记录标签迁移已完成
+    static final String APPLIED_SETTING = "blog.tags.migration.applied";
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private BlogTagRepository blogTagRepository;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private AppSettingRepository appSettingRepository;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        migrateIfPending();
+    }
+
+    /**
+     * app_settings 中没有完成记录时迁移已有博客的标签
+     *
+     * @return 是否执行了迁移扫描
+     */
+    public boolean migrateIfPending() {
+        try {
+            if (appSettingRepository.existsById(APPLIED_SETTING)) {
+                logger.debug("标签已迁移，跳过扫描");
+                return false;
+            }
+        } catch (Exception e) {
+            logger.error("读取标签迁移记录失败，跳过本次迁移: {}", e.getMessage());
+            return false;
+        }
+        if (migrateAll()) {
+            try {
+                appSettingRepository.save(new AppSetting(APPLIED_SETTING, "true"));
+            } catch (Exception e) {
+                logger.error("保存标签迁移记录失败，下次启动将重新扫描: {}", e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    // 按ID分批迁移没有关联的博客；返回是否完整执行
+    private boolean migrateAll() {
+        long lastId = 0L;
+        int migrated = 0;
+        try {
+            while (true) {
+                List<Object[]> rows = blogRepository.findTagColumnsAfter(lastId, PageRequest.of(0, BATCH_SIZE));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                List<Long> blogIds = new ArrayList<>(rows.size());
+                for (Object[] row : rows) {
+                    blogIds.add((Long) row[0]);
+                }
+                Set<Long> alreadyTagged = new HashSet<>(blogTagRepository.findTaggedBlogIds(blogIds));
+
+                for (Object[] row : rows) {
+                    Long blogId = (Long) row[0];
+                    if (!alreadyTagged.contains(blogId)) {
+                        tagService.syncBlogTags(blogId, (Long) row[1], ((String) row[2]).split(","));
+                        migrated++;
+                    }
+                    lastId = blogId;
+                }
+            }
+            if (migrated > 0) {
+                logger.info("标签迁移完成，共迁移 {} 篇博客", migrated);
+            }
+            return true;
+        } catch (Exception e) {
+            logger.error("标签迁移失败，已迁移 {} 篇博客，最后处理的ID: {}", migrated, lastId, e);
+            return false;
+        }
+    }
+}
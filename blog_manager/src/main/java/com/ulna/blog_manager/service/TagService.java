@@ -0,0 +1,227 @@
+package com.ulna.blog_manager.service;
+
+import com.ulna.blog_manager.model.BlogFacets;
+import com.ulna.blog_manager.model.BlogTag;
+import com.ulna.blog_manager.model.Tag;
+import com.ulna.blog_manager.repository.BlogRepository;
+import com.ulna.blog_manager.repository.BlogTagRepository;
+import com.ulna.blog_manager.repository.TagRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 标签服务
+ * 维护 tag 字典表和 blog_tag 关联表，并提供标签/分类分面统计。
+ */
+@Service
+public class TagService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TagService.class);
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private BlogTagRepository blogTagRepository;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    /**
+     * 同步一篇博客的标签关联，只增删有变化的行
+     *
+     * @param blogId 博客ID
+     * @param userId 博客作者ID
+     * @param names 标签名，可以为 null
+     */
+    @Transactional
+    public void syncBlogTags(Long blogId, Long userId, String[] names) {
+        Set<Long> wanted = resolveTagIds(normalize(names));
+
+        Set<Long> existing = new HashSet<>();
+        for (BlogTag blogTag : blogTagRepository.findByBlogId(blogId)) {
+            existing.add(blogTag.getTagId());
+        }
+
+        Set<Long> toRemove = new HashSet<>(existing);
+        toRemove.removeAll(wanted);
+        if (!toRemove.isEmpty()) {
+            blogTagRepository.deleteByBlogIdAndTagIdIn(blogId, toRemove);
+        }
+
+        List<BlogTag> toAdd = new ArrayList<>();
+        for (Long tagId : wanted) {
+            if (!existing.contains(tagId)) {
+                toAdd.add(new BlogTag(blogId, tagId, userId));
+            }
+        }
+        if (!toAdd.isEmpty()) {
+            blogTagRepository.saveAll(toAdd);
+        }
+    }
+
+    /**
+     * 为一批新建的博客写入标签关联
+     * 所有博客的标签合并后一次解析，关联行批量插入，用于批量导入
+     *
+     * @param tagsByBlog 博客ID -> 标签名，博客必须还没有任何标签关联
+     * @param userId 博客作者ID
+     */
+    @Transactional
+    public void addBlogTags(Map<Long, String[]> tagsByBlog, Long userId) {
+        Map<Long, Set<String>> namesByBlog = new HashMap<>();
+        Set<String> allNames = new LinkedHashSet<>();
+        for (Map.Entry<Long, String[]> entry : tagsByBlog.entrySet()) {
+            Set<String> names = normalize(entry.getValue());
+            namesByBlog.put(entry.getKey(), names);
+            allNames.addAll(names);
+        }
+        if (allNames.isEmpty()) {
+            return;
+        }
+
+        Map<String, Long> ids = resolveTagIdMap(allNames);
+        List<BlogTag> toAdd = new ArrayList<>();
+        for (Map.Entry<Long, Set<String>> entry : namesByBlog.entrySet()) {
+            // 排序规则忽略重音等差异时，同一篇博客的两个标签名可能对应同一个标签
+            Set<Long> tagIds = new HashSet<>();
+            for (String name : entry.getValue()) {
+                Long tagId = ids.get(name);
+                if (tagId != null && tagIds.add(tagId)) {
+                    toAdd.add(new BlogTag(entry.getKey(), tagId, userId));
+                }
+            }
+        }
+        blogTagRepository.saveAll(toAdd);
+    }
+
+    /**
+     * 删除一篇博客的全部标签关联
+     */
+    @Transactional
+    public void removeBlogTags(Long blogId) {
+        blogTagRepository.deleteByBlogId(blogId);
+    }
+
+    /**
+     * 当前用户的标签和分类文章数统计，在 SQL 中分组计数
+     */
+    @Transactional(readOnly = true)
+    public BlogFacets facets(Long userId) {
+        return new BlogFacets(blogTagRepository.countByTag(userId), blogRepository.countByCategory(userId));
+    }
+
+    /**
+     * 把标签名解析为标签ID，不存在的标签会被创建
+     */
+    private Set<Long> resolveTagIds(Set<String> names) {
+        Set<Long> ids = new LinkedHashSet<>();
+        if (names.isEmpty()) {
+            return ids;
+        }
+
+        Map<String, Long> found = resolveTagIdMap(names);
+        for (String name : names) {
+            Long id = found.get(name);
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 把标签名解析为 标签名 -> 标签ID，不存在的标签会被创建
+     */
+    private Map<String, Long> resolveTagIdMap(Set<String> names) {
+        Map<String, Long> found = findTagIds(names);
+        boolean created = false;
+        for (String name : names) {
+            if (!found.containsKey(name)) {
+                tagRepository.insertIgnore(name);
+                created = true;
+            }
+        }
+        if (created) {
+            found = findTagIds(names);
+        }
+
+        for (String name : names) {
+            if (!found.containsKey(name)) {
+                logger.warn("无法解析标签: {}", name);
+            }
+        }
+        return found;
+    }
+
+    // 标签名按数据库排序规则比较（utf8mb4_unicode_ci 不区分大小写，也不区分重音等），
+    // 先按小写对应查询结果；有查询结果对应不上时，剩下的标签名逐个交给数据库比较
+    private Map<String, Long> findTagIds(Set<String> names) {
+        List<Tag> tags = tagRepository.findByNameIn(names);
+        Map<String, Tag> byLowerName = new HashMap<>();
+        for (Tag tag : tags) {
+            byLowerName.put(tag.getName().toLowerCase(Locale.ROOT), tag);
+        }
+
+        Map<String, Long> result = new HashMap<>();
+        Set<Long> matched = new HashSet<>();
+        List<String> unmatched = new ArrayList<>();
+        for (String name : names) {
+            Tag tag = byLowerName.get(name.toLowerCase(Locale.ROOT));
+            if (tag != null) {
+                result.put(name, tag.getId());
+                matched.add(tag.getId());
+            } else {
+                unmatched.add(name);
+            }
+        }
+        if (!unmatched.isEmpty() && matched.size() < tags.size()) {
+            for (String name : unmatched) {
+                tagRepository.findFirstByName(name).ifPresent(tag -> result.put(name, tag.getId()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 去掉空白和重复的标签名，保持原有顺序
+     * 超过 Tag.MAX_NAME_LENGTH 的标签名截断到上限，写入和查找使用同一个名字，不交给数据库截断
+     */
+    public static Set<String> normalize(String[] names) {
+        Set<String> result = new LinkedHashSet<>();
+        if (names == null) {
+            return result;
+        }
+        Set<String> seen = new HashSet<>();
+        for (String name : names) {
+            if (name == null) {
+                continue;
+            }
+            String trimmed = truncate(name.trim());
+            if (!trimmed.isEmpty() && seen.add(trimmed.toLowerCase(Locale.ROOT))) {
+                result.add(trimmed);
+            }
+        }
+        return result;
+    }
+
+    // 按字符（码点）截断，与 VARCHAR 长度的计算方式一致
+    private static String truncate(String name) {
+        if (name.codePointCount(0, name.length()) <= Tag.MAX_NAME_LENGTH) {
+            return name;
+        }
+        return name.substring(0, name.offsetByCodePoints(0, Tag.MAX_NAME_LENGTH)).trim();
+    }
+}
@@ -1,21 +1,28 @@
 package com.ulna.blog_manager.service;
 
+import com.ulna.blog_manager.Config.ReadYourWritesTracker;
+import com.ulna.blog_manager.Config.UserTokenRevocations;
 import com.ulna.blog_manager.model.User;
 import com.ulna.blog_manager.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Optional;
 
 @Service
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
     
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
     
@@ -25,9 +32,17 @@ public class UserService implements UserDetailsService {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private ReadYourWritesTracker readYourWrites;
+    
+    @Autowired
+    private UserTokenRevocations tokenRevocations;
+    
+    // 登录和 JWT 认证时还没有认证信息，按用户名判断读己之写窗口（刚注册的用户从主库读取）
     @Override
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        User user = readYourWrites.readAs(username, () -> userRepository.findByUsername(username))
                 .orElseThrow(() -> new UsernameNotFoundException("用户不存在: " + username));
         
         return org.springframework.security.core.userdetails.User.builder()
@@ -37,6 +52,22 @@ public class UserService implements UserDetailsService {
                 .build();
     }
     
+    // 登录成功且存储的哈希成本低于当前配置时由 DaoAuthenticationProvider 调用；
+    // 密码本身没有变化，直接保存而不经过 saveUser，不吊销已签发的令牌
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("用户不存在: " + userDetails.getUsername()));
+        user.setPassword(newPassword);
+        userRepository.save(user);
+        readYourWrites.recordWrite(user.getUsername());
+        logger.info("用户 {} 的密码已按新的 BCrypt 成本重新哈希", user.getUsername());
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails)
+                .password(newPassword)
+                .build();
+    }
+    
     public User createUser(String username, String email, String password) {
         if (userRepository.existsByUsername(username)) {
             throw new RuntimeException("用户名已存在");
@@ -51,13 +82,17 @@ public class UserService implements UserDetailsService {
         user.setPassword(passwordEncoder.encode(password));
         user.setRole(User.Role.USER);
         
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        readYourWrites.recordWrite(username);
+        return saved;
     }
     
+    @Transactional(readOnly = true)
     public Optional<User> findByUsername(String username) {
-        return userRepository.findByUsername(username);
+        return readYourWrites.readAs(username, () -> userRepository.findByUsername(username));
     }
     
+    @Transactional(readOnly = true)
     public Optional<User> findByEmail(String email) {
         return userRepository.findByEmail(email);
     }
@@ -66,10 +101,42 @@ public class UserService implements UserDetailsService {
         return passwordEncoder.matches(rawPassword, encodedPassword);
     }
     
+    // 更新已有用户（角色、密码等）后，之前签发的令牌中的声明已经过时，全部吊销
+    @Transactional
     public User saveUser(User user) {
+        if (user.getId() != null) {
+            bumpTokenVersion(user);
+        }
         return userRepository.save(user);
     }
     
+    /**
+     * 吊销用户已签发的全部访问令牌：令牌版本加 1，版本更低的令牌在认证时被拒绝
+     */
+    @Transactional
+    public void revokeTokens(User user) {
+        bumpTokenVersion(user);
+        userRepository.save(user);
+    }
+    
+    // 新版本在事务提交后才记入内存：回滚时不能拒绝按旧版本签发的有效令牌
+    private void bumpTokenVersion(User user) {
+        int version = user.getTokenVersion() + 1;
+        user.setTokenVersion(version);
+        user.setTokensRevokedAt(LocalDateTime.now());
+        String username = user.getUsername();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    tokenRevocations.record(username, version);
+                }
+            });
+        } else {
+            tokenRevocations.record(username, version);
+        }
+    }
+    
     public boolean existsByUsername(String username) {
         return userRepository.existsByUsername(username);
     }
@@ -0,0 +1,208 @@
+package com.ulna.blog_manager.service.search;
+
+import com.ulna.blog_manager.model.BlogEntity;
+import com.ulna.blog_manager.model.BlogPatch;
+import com.ulna.blog_manager.model.BlogSearchHit;
+import com.ulna.blog_manager.repository.BlogRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 进程内博客全文检索引擎
+ *
+ * 为每个用户维护一份倒排索引，覆盖标题、正文、标签和分类。
+ * 启动时从 blogs 表重建，之后由 BlogDatabaseService 的写操作增量更新，
+ * 检索过程完全在内存中完成，不访问数据库。
+ * 重建在一份新的索引上进行，完成后整体替换，重建期间检索和增量更新继续使用当前索引。
+ */
+@Service
+public class BlogSearchEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlogSearchEngine.class);
+
+    // 重建索引时每批读取的博客数量
+    private static final int REBUILD_BATCH_SIZE = 200;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    private volatile Map<Long, UserSearchIndex> indexes = new ConcurrentHashMap<>();
+
+    // 重建期间被增量更新过的博客（博客ID -> 用户ID），不在重建时为 null
+    private volatile Map<Long, Long> touchedDuringRebuild;
+
+    // 增量更新持有读锁，可以并发；重建结束时持有写锁合并这些更新并替换索引
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    /**
+     * 应用启动完成后，从数据库分批重建全部索引
+     * 分批读取期间写入的博客可能已按旧数据进入新索引，替换前以当前索引中这些博客的状态为准
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        Map<Long, UserSearchIndex> rebuilt = new ConcurrentHashMap<>();
+        Map<Long, Long> touched = new ConcurrentHashMap<>();
+        touchedDuringRebuild = touched;
+        long lastId = 0L;
+        int count = 0;
+        try {
+            while (true) {
+                List<Object[]> batch = blogRepository.findIndexColumnsAfter(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                for (Object[] row : batch) {
+                    IndexedBlog doc = toIndexedBlog(row);
+                    rebuilt.computeIfAbsent(doc.getUserId(), k -> new UserSearchIndex()).put(doc);
+                    lastId = doc.getId();
+                }
+                count += batch.size();
+            }
+        } catch (RuntimeException e) {
+            touchedDuringRebuild = null;
+            throw e;
+        }
+
+        swapLock.writeLock().lock();
+        try {
+            for (Map.Entry<Long, Long> entry : touched.entrySet()) {
+                UserSearchIndex current = indexes.get(entry.getValue());
+                IndexedBlog doc = current != null ? current.get(entry.getKey()) : null;
+                if (doc != null) {
+                    rebuilt.computeIfAbsent(entry.getValue(), k -> new UserSearchIndex()).put(doc);
+                } else {
+                    UserSearchIndex index = rebuilt.get(entry.getValue());
+                    if (index != null) {
+                        index.remove(entry.getKey());
+                    }
+                }
+            }
+            indexes = rebuilt;
+            touchedDuringRebuild = null;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        logger.info("全文索引重建完成，共 {} 篇博客，重建期间更新 {} 篇，耗时 {} ms",
+                count, touched.size(), System.currentTimeMillis() - start);
+    }
+
+    // findIndexColumnsAfter 的一行，正文在 content 或 content_packed 其中一列
+    private static IndexedBlog toIndexedBlog(Object[] row) {
+        String content = row[6] != null ? (String) row[6] : (String) row[7];
+        return new IndexedBlog((Long) row[0], (Long) row[1], (String) row[2], (String) row[3], (String) row[4],
+                (String) row[5], content, (LocalDateTime) row[8], (LocalDateTime) row[9]);
+    }
+
+    /**
+     * 新增或更新一篇博客的索引
+     */
+    public void index(BlogEntity entity) {
+        if (entity == null || entity.getId() == null || entity.getUser() == null) {
+            return;
+        }
+        IndexedBlog doc = new IndexedBlog(entity);
+        swapLock.readLock().lock();
+        try {
+            indexes.computeIfAbsent(doc.getUserId(), k -> new UserSearchIndex()).put(doc);
+            markTouched(doc.getUserId(), doc.getId());
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 按部分更新的内容更新一篇博客的索引
+     * 未更新的字段（包括正文）取自已有索引，不需要从数据库读取正文
+     *
+     * @return 已有索引中没有该博客时返回 false，调用方需要改用 index 重新建立
+     */
+    public boolean patch(Long userId, Long blogId, BlogPatch patch, LocalDateTime updatedAt) {
+        swapLock.readLock().lock();
+        try {
+            UserSearchIndex index = indexes.get(userId);
+            IndexedBlog old = index != null ? index.get(blogId) : null;
+            if (old == null) {
+                return false;
+            }
+            String tags = patch.hasTags() ? patch.joinedTags() : (old.getTags() != null ? String.join(",", old.getTags()) : null);
+            index.put(new IndexedBlog(blogId, userId,
+                    patch.hasTitle() ? patch.getTitle() : old.getTitle(),
+                    patch.hasCategories() ? patch.getCategories() : old.getCategories(),
+                    tags,
+                    patch.hasSaying() ? patch.getSaying() : old.getSaying(),
+                    patch.hasContent() ? patch.getContent() : old.getContent(),
+                    old.getCreatedAt(), updatedAt));
+            markTouched(userId, blogId);
+            return true;
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 删除一篇博客的索引
+     */
+    public void remove(Long userId, Long blogId) {
+        swapLock.readLock().lock();
+        try {
+            UserSearchIndex index = indexes.get(userId);
+            if (index != null) {
+                index.remove(blogId);
+            }
+            markTouched(userId, blogId);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    // 调用方持有 swapLock 读锁
+    private void markTouched(Long userId, Long blogId) {
+        Map<Long, Long> touched = touchedDuringRebuild;
+        if (touched != null) {
+            touched.put(blogId, userId);
+        }
+    }
+
+    /**
+     * 在指定用户的博客中检索
+     *
+     * @param userId 用户ID
+     * @param query 查询文本
+     * @param page 页码，从 0 开始
+     * @param size 每页条数
+     * @return 按相关度排序的命中结果
+     */
+    public List<BlogSearchHit> search(Long userId, String query, int page, int size) {
+        List<BlogSearchHit> hits = new ArrayList<>();
+        UserSearchIndex index = indexes.get(userId);
+        if (index == null || query == null || query.isBlank()) {
+            return hits;
+        }
+
+        Set<String> terms = new LinkedHashSet<>(SearchTokenizer.terms(query));
+        for (UserSearchIndex.ScoredBlog scored : index.search(new ArrayList<>(terms), page * size, size)) {
+            IndexedBlog doc = scored.getDoc();
+            // 正文无命中时（只命中标题/标签），SnippetBuilder 会返回正文开头
+            String snippet = SnippetBuilder.build(doc.getContent(), terms);
+            hits.add(new BlogSearchHit(doc.getId(), doc.getTitle(), doc.getCategories(), doc.getTags(), doc.getSaying(),
+                    doc.getCreatedAt(), doc.getUpdatedAt(), scored.getScore(), snippet));
+        }
+        return hits;
+    }
+}
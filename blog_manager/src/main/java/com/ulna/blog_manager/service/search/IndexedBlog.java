@@ -0,0 +1,82 @@
+package com.ulna.blog_manager.service.search;
+
+import com.ulna.blog_manager.model.BlogEntity;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 已建立索引的博客文档（不可变）
+ * 保存检索结果需要展示的字段、正文（用于生成摘要片段）以及各词项的加权词频。
+ */
+final class IndexedBlog {
+    // 各字段的权重：标题命中比正文命中更重要
+    private static final float TITLE_WEIGHT = 3.0f;
+    private static final float TAG_WEIGHT = 2.0f;
+    private static final float CATEGORY_WEIGHT = 2.0f;
+    private static final float CONTENT_WEIGHT = 1.0f;
+
+    private final Long id;
+    private final Long userId;
+    private final String title;
+    private final String categories;
+    private final String[] tags;
+    private final String saying;
+    private final String content;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    private final Map<String, Float> termWeights;
+    private final int length;
+
+    IndexedBlog(BlogEntity entity) {
+        this(entity.getId(), entity.getUser().getId(), entity.getTitle(), entity.getCategories(), entity.getTags(),
+                entity.getSaying(), entity.getContent(), entity.getCreatedAt(), entity.getUpdatedAt());
+    }
+
+    /**
+     * @param tags 逗号分隔的标签，与 blogs.tags 列格式相同
+     */
+    IndexedBlog(Long id, Long userId, String title, String categories, String tags, String saying, String content,
+                LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.userId = userId;
+        this.title = title;
+        this.categories = categories;
+        this.tags = tags != null && !tags.isEmpty() ? tags.split(",") : null;
+        this.saying = saying;
+        this.content = content;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+
+        Map<String, Float> weights = new HashMap<>();
+        int total = 0;
+        total += addTerms(weights, title, TITLE_WEIGHT);
+        total += addTerms(weights, categories, CATEGORY_WEIGHT);
+        total += addTerms(weights, tags, TAG_WEIGHT);
+        total += addTerms(weights, content, CONTENT_WEIGHT);
+        this.termWeights = weights;
+        this.length = total;
+    }
+
+    private static int addTerms(Map<String, Float> weights, String text, float weight) {
+        int count = 0;
+        for (String term : SearchTokenizer.indexTerms(text)) {
+            weights.merge(term, weight, Float::sum);
+            count++;
+        }
+        return count;
+    }
+
+    Long getId() { return id; }
+    Long getUserId() { return userId; }
+    String getTitle() { return title; }
+    String getCategories() { return categories; }
+    String[] getTags() { return tags; }
+    String getSaying() { return saying; }
+    String getContent() { return content; }
+    LocalDateTime getCreatedAt() { return createdAt; }
+    LocalDateTime getUpdatedAt() { return updatedAt; }
+    Map<String, Float> getTermWeights() { return termWeights; }
+    int getLength() { return length; }
+}
@@ -0,0 +1,147 @@
+package com.ulna.blog_manager.service.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 全文检索分词器
+ *
+ * 英文/数字按连续字母数字切分并转为小写；
+ * 中日韩文字没有空格分隔，按相邻两个字切分为二元组（bigram），
+ * 单独出现的一个汉字作为单字词。
+ *
+ * 建索引时连续的多个汉字额外按单字切分（tokenizeForIndex），这样只有一个字的查询（如“中”）也能命中；
+ * 查询时多字仍只用二元组，避免按单字命中大量无关文档。
+ */
+public final class SearchTokenizer {
+
+    private SearchTokenizer() {}
+
+    /**
+     * 分词结果，记录词项及其在原文中的位置（用于生成高亮摘要）
+     */
+    public static final class Token {
+        private final String term;
+        private final int start;
+        private final int end;
+
+        Token(String term, int start, int end) {
+            this.term = term;
+            this.start = start;
+            this.end = end;
+        }
+
+        public String getTerm() { return term; }
+        public int getStart() { return start; }
+        public int getEnd() { return end; }
+    }
+
+    /**
+     * 对查询文本进行分词
+     *
+     * @param text 原文，可以为 null
+     * @return 按出现顺序排列的词项列表
+     */
+    public static List<Token> tokenize(String text) {
+        return tokenize(text, false);
+    }
+
+    /**
+     * 对被索引的文本进行分词，连续的中日韩文字同时输出单字和二元组
+     *
+     * @param text 原文，可以为 null
+     * @return 按起始位置排列的词项列表
+     */
+    public static List<Token> tokenizeForIndex(String text) {
+        return tokenize(text, true);
+    }
+
+    private static List<Token> tokenize(String text, boolean unigrams) {
+        List<Token> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            int cp = text.codePointAt(i);
+            if (isCjk(cp)) {
+                // 收集一段连续的中日韩文字，按 bigram 切分
+                List<int[]> chars = new ArrayList<>();
+                int j = i;
+                while (j < length) {
+                    int c = text.codePointAt(j);
+                    if (!isCjk(c)) {
+                        break;
+                    }
+                    int next = j + Character.charCount(c);
+                    chars.add(new int[]{j, next});
+                    j = next;
+                }
+                if (chars.size() == 1) {
+                    int[] only = chars.get(0);
+                    tokens.add(new Token(text.substring(only[0], only[1]), only[0], only[1]));
+                } else {
+                    for (int k = 0; k < chars.size(); k++) {
+                        int start = chars.get(k)[0];
+                        if (unigrams) {
+                            int[] single = chars.get(k);
+                            tokens.add(new Token(text.substring(single[0], single[1]), single[0], single[1]));
+                        }
+                        if (k + 1 < chars.size()) {
+                            int end = chars.get(k + 1)[1];
+                            tokens.add(new Token(text.substring(start, end), start, end));
+                        }
+                    }
+                }
+                i = j;
+            } else if (Character.isLetterOrDigit(cp)) {
+                int j = i;
+                while (j < length) {
+                    int c = text.codePointAt(j);
+                    if (isCjk(c) || !Character.isLetterOrDigit(c)) {
+                        break;
+                    }
+                    j += Character.charCount(c);
+                }
+                tokens.add(new Token(text.substring(i, j).toLowerCase(Locale.ROOT), i, j));
+                i = j;
+            } else {
+                i += Character.charCount(cp);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * 只返回查询词项文本
+     */
+    public static List<String> terms(String text) {
+        return termsOf(tokenize(text));
+    }
+
+    /**
+     * 只返回索引词项文本
+     */
+    public static List<String> indexTerms(String text) {
+        return termsOf(tokenizeForIndex(text));
+    }
+
+    private static List<String> termsOf(List<Token> tokens) {
+        List<String> terms = new ArrayList<>(tokens.size());
+        for (Token token : tokens) {
+            terms.add(token.getTerm());
+        }
+        return terms;
+    }
+
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+}
@@ -0,0 +1,92 @@
+package com.ulna.blog_manager.service.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 生成带高亮的摘要片段
+ *
+ * 在正文中找到第一个命中的词项，截取其附近的一段文字，
+ * 并用 &lt;mark&gt; 标记所有命中的位置。片段中的其他文本会做 HTML 转义。
+ */
+final class SnippetBuilder {
+    // 片段长度（字符数）以及命中位置之前保留的上下文长度
+    private static final int WINDOW = 120;
+    private static final int LEADING_CONTEXT = 30;
+
+    private SnippetBuilder() {}
+
+    static String build(String text, Set<String> queryTerms) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+
+        // 只需要扫描到第一个命中的位置
+        int firstHit = -1;
+        for (SearchTokenizer.Token token : SearchTokenizer.tokenizeForIndex(text)) {
+            if (queryTerms.contains(token.getTerm())) {
+                firstHit = token.getStart();
+                break;
+            }
+        }
+
+        int start = firstHit < 0 ? 0 : Math.max(0, firstHit - LEADING_CONTEXT);
+        int end = Math.min(text.length(), start + WINDOW);
+        // 避免把代理对从中间截断
+        if (start > 0 && Character.isLowSurrogate(text.charAt(start))) {
+            start--;
+        }
+        if (end < text.length() && Character.isLowSurrogate(text.charAt(end))) {
+            end++;
+        }
+        String window = text.substring(start, end);
+
+        // 合并重叠的命中区间（bigram 会互相重叠）
+        List<int[]> spans = new ArrayList<>();
+        for (SearchTokenizer.Token token : SearchTokenizer.tokenizeForIndex(window)) {
+            if (!queryTerms.contains(token.getTerm())) {
+                continue;
+            }
+            int[] last = spans.isEmpty() ? null : spans.get(spans.size() - 1);
+            if (last != null && token.getStart() <= last[1]) {
+                last[1] = Math.max(last[1], token.getEnd());
+            } else {
+                spans.add(new int[]{token.getStart(), token.getEnd()});
+            }
+        }
+
+        StringBuilder sb = new StringBuilder(window.length() + spans.size() * 13 + 6);
+        if (start > 0) {
+            sb.append("...");
+        }
+        int pos = 0;
+        for (int[] span : spans) {
+            escape(sb, window, pos, span[0]);
+            sb.append("<mark>");
+            escape(sb, window, span[0], span[1]);
+            sb.append("</mark>");
+            pos = span[1];
+        }
+        escape(sb, window, pos, window.length());
+        if (end < text.length()) {
+            sb.append("...");
+        }
+        return sb.toString();
+    }
+
+    private static void escape(StringBuilder sb, String text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> sb.append("&lt;");
+                case '>' -> sb.append("&gt;");
+                case '&' -> sb.append("&amp;");
+                case '"' -> sb.append("&quot;");
+                case '\'' -> sb.append("&#39;");
+                case '\n', '\r' -> sb.append(' ');
+                default -> sb.append(c);
+            }
+        }
+    }
+}
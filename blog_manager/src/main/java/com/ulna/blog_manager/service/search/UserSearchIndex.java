@@ -0,0 +1,152 @@
+package com.ulna.blog_manager.service.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 单个用户的倒排索引
+ *
+ * 词项 -> (博客ID -> 加权词频)，检索时使用 BM25 计算相关度。
+ * 读多写少，使用读写锁保护。
+ */
+final class UserSearchIndex {
+    // BM25 参数
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final Map<Long, IndexedBlog> docs = new HashMap<>();
+    private final Map<String, Map<Long, Float>> postings = new HashMap<>();
+    private long totalLength;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 新增或替换一篇博客的索引
+     */
+    void put(IndexedBlog doc) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(doc.getId());
+            for (Map.Entry<String, Float> entry : doc.getTermWeights().entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), k -> new HashMap<>()).put(doc.getId(), entry.getValue());
+            }
+            docs.put(doc.getId(), doc);
+            totalLength += doc.getLength();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 删除一篇博客的索引
+     */
+    void remove(Long blogId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(blogId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    IndexedBlog get(Long blogId) {
+        lock.readLock().lock();
+        try {
+            return docs.get(blogId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    boolean isEmpty() {
+        lock.readLock().lock();
+        try {
+            return docs.isEmpty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeInternal(Long blogId) {
+        IndexedBlog old = docs.remove(blogId);
+        if (old == null) {
+            return;
+        }
+        for (String term : old.getTermWeights().keySet()) {
+            Map<Long, Float> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(blogId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= old.getLength();
+    }
+
+    /**
+     * 按 BM25 相关度检索，返回得分从高到低排序的结果
+     *
+     * @param terms 查询词项（已去重）
+     * @param offset 跳过的条数
+     * @param limit 返回的最大条数
+     */
+    List<ScoredBlog> search(List<String> terms, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            int docCount = docs.size();
+            if (docCount == 0 || terms.isEmpty()) {
+                return new ArrayList<>();
+            }
+            double avgLength = Math.max(1.0, (double) totalLength / docCount);
+
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Map<Long, Float> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                int df = posting.size();
+                double idf = Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+                for (Map.Entry<Long, Float> entry : posting.entrySet()) {
+                    double tf = entry.getValue();
+                    int length = docs.get(entry.getKey()).getLength();
+                    double norm = tf + K1 * (1 - B + B * length / avgLength);
+                    scores.merge(entry.getKey(), idf * tf * (K1 + 1) / norm, Double::sum);
+                }
+            }
+
+            List<ScoredBlog> ranked = new ArrayList<>(scores.size());
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                ranked.add(new ScoredBlog(docs.get(entry.getKey()), entry.getValue()));
+            }
+            ranked.sort((a, b) -> Double.compare(b.getScore(), a.getScore()));
+
+            if (offset >= ranked.size()) {
+                return new ArrayList<>();
+            }
+            return new ArrayList<>(ranked.subList(offset, Math.min(ranked.size(), offset + limit)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 带得分的检索结果
+     */
+    static final class ScoredBlog {
+        private final IndexedBlog doc;
+        private final double score;
+
+        ScoredBlog(IndexedBlog doc, double score) {
+            this.doc = doc;
+            this.score = score;
+        }
+
+        IndexedBlog getDoc() { return doc; }
+        double getScore() { return score; }
+    }
+}
@@ -0,0 +1,92 @@
+package com.ulna.blog_manager.Config;
+
+import com.ulna.blog_manager.model.User;
+import com.ulna.blog_manager.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * JWT 认证：认证请求不查询 users 表，用户信息变更后之前签发的令牌立即失效
+ *
+ * 关闭二级缓存，避免缓存命中掩盖认证过程中的查询。
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "blog.cache.l2.enabled=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.ulna.blog_manager.Config.SqlStatementCounter"
+})
+@ActiveProfiles("h2")
+class JwtAuthenticationTest {
+
+    private static final String PASSWORD = "secret123";
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private UserService userService;
+
+    private String username;
+
+    @BeforeEach
+    void register() {
+        username = "jwt" + System.nanoTime() % 1_000_000_000L;
+        Map<String, String> body = Map.of("username", username, "email", username + "@test.com", "password", PASSWORD);
+        ResponseEntity<String> response = rest.postForEntity("/api/auth/register", body, String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode(), response.getBody());
+    }
+
+    @Test
+    void authenticatedRequestsDoNotQueryUsers() {
+        String token = login();
+
+        SqlStatementCounter.reset();
+        for (int i = 0; i < 20; i++) {
+            assertEquals(HttpStatus.OK, getBlogs(token).getStatusCode());
+        }
+        assertEquals(0, SqlStatementCounter.countForTable("users"));
+    }
+
+    @Test
+    void tokenIssuedBeforeUserChangeIsRejected() {
+        String token = login();
+        assertEquals(HttpStatus.OK, getBlogs(token).getStatusCode());
+
+        // 紧接着变更用户，通常与签发落在同一秒内
+        User user = userService.findByUsername(username).orElseThrow();
+        user.setEmail(username + "@changed.com");
+        userService.saveUser(user);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, getBlogs(token).getStatusCode());
+        assertEquals(HttpStatus.OK, getBlogs(login()).getStatusCode());
+    }
+
+    @SuppressWarnings("unchecked")
+    private String login() {
+        Map<String, String> body = Map.of("username", username, "password", PASSWORD);
+        ResponseEntity<Map> response = rest.postForEntity("/api/auth/login", body, Map.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        String token = (String) response.getBody().get("accessToken");
+        assertNotNull(token);
+        return token;
+    }
+
+    private ResponseEntity<String> getBlogs(String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        return rest.exchange("/api/blogs/lists", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+}
@@ -0,0 +1,75 @@
+package com.ulna.blog_manager.Config;
+
+import com.ulna.blog_manager.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每个请求的 JWT 认证开销：改动前的两次完整解析 vs 预构建解析器的单次解析 vs 已验证令牌缓存命中
+ *
+ * 运行：mvn -Pbenchmark -DskipTests -Djmh.include=JwtUtilsBenchmark test
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+    private static final String SECRET = "mySecretKey123456789012345678901234567890";
+
+    private JwtUtils jwtUtils;
+    private JwtParser jwtParser;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 900000);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheMaxSize", 10000L);
+        jwtUtils.init();
+        jwtParser = (JwtParser) ReflectionTestUtils.getField(jwtUtils, "jwtParser");
+
+        User user = new User("bench", "bench@test.com", "secret");
+        user.setId(1L);
+        user.setRole(User.Role.USER);
+        token = jwtUtils.generateJwtToken(user);
+    }
+
+    // 改动前过滤器的做法：validateJwtToken 与 getUsernameFromJwtToken 各自派生密钥、构建解析器并验证 HMAC
+    @Benchmark
+    public String legacyValidateThenParse() {
+        Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build().parseClaimsJws(token);
+        return Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build()
+                .parseClaimsJws(token).getBody().getSubject();
+    }
+
+    // 缓存未命中时的路径：预构建的解析器解析一次
+    @Benchmark
+    public Claims prebuiltParserSingleParse() {
+        return jwtParser.parseClaimsJws(token).getBody();
+    }
+
+    // 同一令牌再次请求：按令牌哈希命中已验证缓存
+    @Benchmark
+    public Claims verifiedTokenCacheHit() {
+        return jwtUtils.parseJwtToken(token);
+    }
+}
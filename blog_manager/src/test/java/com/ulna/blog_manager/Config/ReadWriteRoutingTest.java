@@ -0,0 +1,110 @@
+package com.ulna.blog_manager.Config;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Id;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 读写分离路由：主库和从库是两个 H2 内存数据库，各有一行内容不同的 route_marker，
+ * 读到哪一行就说明事务路由到了哪个库
+ *
+ * 只加载数据源和 JPA 相关配置，应用自身的实体不在从库中建表。
+ * 读写事务会把用户记入读己之写窗口，各个测试使用不同的用户名。
+ */
+@SpringBootTest(classes = ReadWriteRoutingTest.RoutingConfig.class, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles({ "h2", "replica" })
+class ReadWriteRoutingTest {
+
+    @Configuration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = RouteMarker.class)
+    @Import({ ReadWriteDataSourceConfig.class, ReadYourWritesTracker.class })
+    static class RoutingConfig {
+    }
+
+    @Entity
+    @Table(name = "route_marker")
+    static class RouteMarker {
+        @Id
+        private Long id;
+        private String name;
+
+        protected RouteMarker() {
+        }
+
+        RouteMarker(Long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReadYourWritesTracker tracker;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void markDatabases() {
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // 主库的表由 ddl-auto 创建，从库的表直接建在从库连接池上
+        readWrite.executeWithoutResult(status -> entityManager.merge(new RouteMarker(1L, "primary")));
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("CREATE TABLE IF NOT EXISTS route_marker (id BIGINT PRIMARY KEY, name VARCHAR(255))");
+        replica.update("MERGE INTO route_marker (id, name) KEY (id) VALUES (1, 'replica')");
+    }
+
+    @Test
+    void readOnlyTransactionUsesReplica() {
+        assertEquals("replica", tracker.readAs("reader", () -> readOnly.execute(status -> marker())));
+    }
+
+    @Test
+    void readWriteTransactionUsesPrimary() {
+        assertEquals("primary", tracker.readAs("updater", () -> readWrite.execute(status -> marker())));
+    }
+
+    @Test
+    void readsWithinReadYourWritesWindowUsePrimary() {
+        tracker.readAs("writer", () -> readWrite.execute(status -> entityManager.merge(new RouteMarker(2L, "written"))));
+
+        assertEquals("primary", tracker.readAs("writer", () -> readOnly.execute(status -> marker())));
+        assertEquals("replica", tracker.readAs("other", () -> readOnly.execute(status -> marker())));
+    }
+
+    private String marker() {
+        return (String) entityManager.createNativeQuery("SELECT name FROM route_marker WHERE id = 1").getSingleResult();
+    }
+}
@@ -0,0 +1,34 @@
+package com.ulna.blog_manager.Config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+/**
+ * 记录 Hibernate 执行的 SQL，测试中按表统计语句数
+ *
+ * 通过 spring.jpa.properties.hibernate.session_factory.statement_inspector 注册。
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        statements.add(sql);
+        return sql;
+    }
+
+    public static void reset() {
+        statements.clear();
+    }
+
+    public static long countForTable(String table) {
+        Pattern pattern = Pattern.compile("\\b" + Pattern.quote(table) + "\\b", Pattern.CASE_INSENSITIVE);
+        return statements.stream().filter(sql -> pattern.matcher(sql).find()).count();
+    }
+}
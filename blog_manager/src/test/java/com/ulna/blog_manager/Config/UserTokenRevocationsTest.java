@@ -0,0 +1,33 @@
+package com.ulna.blog_manager.Config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 吊销记录超出 jwt.revocation.max-users 时不丢失，只在令牌有效期后移除
+ */
+class UserTokenRevocationsTest {
+
+    @Test
+    void revocationsBeyondMaxUsersAreKept() {
+        UserTokenRevocations revocations = new UserTokenRevocations(60_000, 10);
+        for (int i = 0; i < 100; i++) {
+            revocations.record("user" + i, 2);
+        }
+        for (int i = 0; i < 100; i++) {
+            assertTrue(revocations.isRevoked("user" + i, 1), "user" + i);
+            assertFalse(revocations.isRevoked("user" + i, 2));
+        }
+    }
+
+    @Test
+    void revocationsExpireAfterTokenLifetime() throws InterruptedException {
+        UserTokenRevocations revocations = new UserTokenRevocations(50, 10);
+        revocations.record("alice", 3);
+        assertTrue(revocations.isRevoked("alice", null));
+        Thread.sleep(100);
+        assertFalse(revocations.isRevoked("alice", null));
+    }
+}
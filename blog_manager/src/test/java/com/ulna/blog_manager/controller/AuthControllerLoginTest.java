@@ -0,0 +1,52 @@
+package com.ulna.blog_manager.controller;
+
+import com.ulna.blog_manager.service.RefreshTokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * 登录：刷新令牌的签发（数据库写入）不在 BCrypt 登录线程池中执行
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("h2")
+class AuthControllerLoginTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @MockitoSpyBean
+    private RefreshTokenService refreshTokenService;
+
+    @Test
+    @SuppressWarnings("rawtypes")
+    void tokenIsIssuedOutsideLoginExecutor() {
+        AtomicReference<String> issuingThread = new AtomicReference<>();
+        doAnswer(invocation -> {
+            issuingThread.set(Thread.currentThread().getName());
+            return invocation.callRealMethod();
+        }).when(refreshTokenService).issue(anyLong());
+
+        ResponseEntity<Map> response = rest.postForEntity("/api/auth/login",
+                Map.of("username", "admin", "password", "admin123"), Map.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody().get("refreshToken"));
+        assertNotNull(issuingThread.get());
+        assertFalse(issuingThread.get().startsWith("login-"), issuingThread.get());
+    }
+}
@@ -0,0 +1,176 @@
+package com.ulna.blog_manager.controller;
+
+import com.ulna.blog_manager.Config.JwtUserPrincipal;
+import com.ulna.blog_manager.model.Blog;
+import com.ulna.blog_manager.model.BlogPatch;
+import com.ulna.blog_manager.model.Message;
+import com.ulna.blog_manager.model.User;
+import com.ulna.blog_manager.repository.BlogRepository;
+import com.ulna.blog_manager.service.BlogDatabaseService;
+import com.ulna.blog_manager.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 列表和详情的条件请求：ETag 未变化时返回 304，博客修改后返回新内容和新 ETag
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class BlogControllerConditionalTest {
+
+    @Autowired
+    private BlogController blogController;
+
+    @Autowired
+    private BlogDatabaseService blogDatabaseService;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private UserService userService;
+
+    private JwtUserPrincipal principal;
+    private Long blogId;
+
+    @BeforeEach
+    void createBlog() {
+        String username = "etag" + System.nanoTime() % 1_000_000_000L;
+        User user = userService.createUser(username, username + "@test.com", "secret123");
+        principal = new JwtUserPrincipal(user.getId(), username, "USER");
+        assertTrue(blogDatabaseService.saveBlog(blog("条件请求"), user.getId()));
+        blogId = blogRepository.findByUserIdOrderByCreatedAtDesc(user.getId()).get(0).getId();
+    }
+
+    @Test
+    void unchangedDetailIsNotModified() {
+        Exchange first = getDetail(null);
+        assertEquals(0, first.message.getStatus());
+        assertNotNull(first.etag);
+
+        Exchange second = getDetail(first.etag);
+        assertNull(second.message);
+        assertEquals(304, second.status);
+    }
+
+    @Test
+    void patchedDetailHasNewEtag() {
+        String etag = getDetail(null).etag;
+        BlogPatch patch = new BlogPatch();
+        patch.setTitle("条件请求（已修改）");
+        assertTrue(blogDatabaseService.patchBlog(blogId, patch, principal.getId()));
+
+        Exchange after = getDetail(etag);
+        assertEquals(200, after.status);
+        assertEquals(0, after.message.getStatus());
+        assertEquals("条件请求（已修改）", ((Blog) after.message.getData()).getTitle());
+        assertNotEquals(etag, after.etag);
+    }
+
+    @Test
+    void unchangedListIsNotModified() {
+        Exchange first = getList(20, null);
+        assertEquals(0, first.message.getStatus());
+        assertNotNull(first.etag);
+
+        Exchange second = getList(20, first.etag);
+        assertNull(second.message);
+        assertEquals(304, second.status);
+    }
+
+    @Test
+    void listEtagChangesWithNewBlogAndPageSize() {
+        String etag = getList(20, null).etag;
+
+        assertNotEquals(etag, getList(10, null).etag);
+
+        assertTrue(blogDatabaseService.saveBlog(blog("新增博客"), principal.getId()));
+        Exchange after = getList(20, etag);
+        assertEquals(200, after.status);
+        assertEquals(0, after.message.getStatus());
+        assertNotEquals(etag, after.etag);
+    }
+
+    @Test
+    void listIsValidatedByEtagOnly() {
+        Exchange first = getList(20, null);
+        assertNull(first.lastModified);
+
+        // 删除一篇不是最近更新的博客后，最近更新时间不变
+        assertTrue(blogDatabaseService.saveBlog(blog("较新的博客"), principal.getId()));
+        String etag = getList(20, null).etag;
+        assertTrue(blogDatabaseService.deleteUserBlog(blogId, principal.getId()));
+
+        MockHttpServletRequest request = request("/api/blogs/lists", null);
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, System.currentTimeMillis() + 60_000);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Message message = blogController.listUserBlogs(principal, null, null, 20, new ServletWebRequest(request, response), response);
+        assertEquals(200, response.getStatus());
+        assertEquals(0, message.getStatus());
+
+        Exchange after = getList(20, etag);
+        assertEquals(200, after.status);
+        assertNotEquals(etag, after.etag);
+    }
+
+    @Test
+    void detailHasLastModified() {
+        assertNotNull(getDetail(null).lastModified);
+    }
+
+    private Exchange getDetail(String ifNoneMatch) {
+        MockHttpServletRequest request = request("/api/blogs/" + blogId, ifNoneMatch);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Message message = blogController.getBlogById(principal, blogId, new ServletWebRequest(request, response), response);
+        return new Exchange(message, response);
+    }
+
+    private Exchange getList(int size, String ifNoneMatch) {
+        MockHttpServletRequest request = request("/api/blogs/lists", ifNoneMatch);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Message message = blogController.listUserBlogs(principal, null, null, size, new ServletWebRequest(request, response), response);
+        return new Exchange(message, response);
+    }
+
+    private static MockHttpServletRequest request(String uri, String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return request;
+    }
+
+    private static Blog blog(String title) {
+        Blog blog = new Blog();
+        blog.setTitle(title);
+        blog.setContent(title + "的正文");
+        return blog;
+    }
+
+    private static final class Exchange {
+        private final Message message;
+        private final int status;
+        private final String etag;
+        private final String lastModified;
+
+        private Exchange(Message message, MockHttpServletResponse response) {
+            this.message = message;
+            this.status = response.getStatus();
+            this.etag = response.getHeader(HttpHeaders.ETAG);
+            this.lastModified = response.getHeader(HttpHeaders.LAST_MODIFIED);
+        }
+    }
+}
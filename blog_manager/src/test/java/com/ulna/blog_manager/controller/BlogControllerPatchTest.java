@@ -0,0 +1,119 @@
+package com.ulna.blog_manager.controller;
+
+import com.ulna.blog_manager.Config.JwtUserPrincipal;
+import com.ulna.blog_manager.model.Blog;
+import com.ulna.blog_manager.model.BlogEntity;
+import com.ulna.blog_manager.model.BlogPatch;
+import com.ulna.blog_manager.model.Message;
+import com.ulna.blog_manager.model.User;
+import com.ulna.blog_manager.repository.BlogRepository;
+import com.ulna.blog_manager.service.BlogDatabaseService;
+import com.ulna.blog_manager.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * PATCH /api/blogs/{id}：只更新出现的字段，超长的字段在写入前以明确的错误拒绝
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class BlogControllerPatchTest {
+
+    @Autowired
+    private BlogController blogController;
+
+    @Autowired
+    private BlogDatabaseService blogDatabaseService;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private UserService userService;
+
+    private JwtUserPrincipal principal;
+    private Long blogId;
+
+    @BeforeEach
+    void createBlog() {
+        String username = "patch" + System.nanoTime() % 1_000_000_000L;
+        User user = userService.createUser(username, username + "@test.com", "secret123");
+        principal = new JwtUserPrincipal(user.getId(), username, "USER");
+        Blog blog = new Blog();
+        blog.setTitle("原标题");
+        blog.setContent("原正文");
+        blog.setCategories("原分类");
+        blog.setTags(new String[]{"原标签"});
+        blog.setSaying("原引言");
+        assertTrue(blogDatabaseService.saveBlog(blog, user.getId()));
+        blogId = blogRepository.findByUserIdOrderByCreatedAtDesc(user.getId()).get(0).getId();
+    }
+
+    @Test
+    void updatesOnlyPresentFields() {
+        BlogPatch patch = new BlogPatch();
+        patch.setCategories("新分类");
+        patch.setTags(new String[]{"新标签", "另一个"});
+
+        assertEquals(0, blogController.patchBlog(principal, blogId, patch).getStatus());
+
+        Blog blog = blogDatabaseService.findUserBlogById(blogId, principal.getId());
+        assertEquals("原标题", blog.getTitle());
+        assertEquals("原正文", blog.getContent());
+        assertEquals("新分类", blog.getCategories());
+        assertArrayEquals(new String[]{"新标签", "另一个"}, blog.getTags());
+        assertEquals("原引言", blog.getSaying());
+    }
+
+    @Test
+    void presentNullClearsField() {
+        BlogPatch patch = new BlogPatch();
+        patch.setSaying(null);
+
+        assertEquals(0, blogController.patchBlog(principal, blogId, patch).getStatus());
+
+        Blog blog = blogDatabaseService.findUserBlogById(blogId, principal.getId());
+        assertNull(blog.getSaying());
+        assertEquals("原分类", blog.getCategories());
+    }
+
+    @Test
+    void rejectsOverLongFieldsBeforeWriting() {
+        assertRejected(patch -> patch.setTitle("t".repeat(BlogEntity.MAX_TITLE_LENGTH + 1)), "标题");
+        assertRejected(patch -> patch.setCategories("c".repeat(BlogEntity.MAX_CATEGORIES_LENGTH + 1)), "分类");
+        assertRejected(patch -> patch.setTags(new String[]{"a".repeat(300), "b".repeat(300)}), "标签");
+        assertRejected(patch -> patch.setSaying("s".repeat(BlogEntity.MAX_SAYING_LENGTH + 1)), "引言");
+    }
+
+    @Test
+    void serviceRejectsOverLongFields() {
+        BlogPatch patch = new BlogPatch();
+        patch.setSaying("s".repeat(BlogEntity.MAX_SAYING_LENGTH + 1));
+
+        assertFalse(blogDatabaseService.patchBlog(blogId, patch, principal.getId()));
+        assertEquals("原引言", blogDatabaseService.findUserBlogById(blogId, principal.getId()).getSaying());
+    }
+
+    private void assertRejected(Consumer<BlogPatch> field, String name) {
+        BlogPatch patch = new BlogPatch();
+        patch.setCategories("不应写入");
+        field.accept(patch);
+
+        Message message = blogController.patchBlog(principal, blogId, patch);
+
+        assertEquals(1, message.getStatus());
+        assertTrue(message.getError().contains(name), message.getError());
+        assertEquals("原分类", blogDatabaseService.findUserBlogById(blogId, principal.getId()).getCategories());
+    }
+}
@@ -0,0 +1,98 @@
+package com.ulna.blog_manager.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ulna.blog_manager.Config.JwtUserPrincipal;
+import com.ulna.blog_manager.model.Blog;
+import com.ulna.blog_manager.service.BlogDatabaseService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.reset;
+
+/**
+ * 流式输出和导出中途失败时，响应不能被补全为格式正确的成功响应或压缩包
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class BlogControllerStreamTest {
+
+    private static final JwtUserPrincipal USER = new JwtUserPrincipal(1L, "stream", "USER");
+
+    @Autowired
+    private BlogController blogController;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoSpyBean
+    private BlogDatabaseService blogDatabaseService;
+
+    @BeforeEach
+    void failAfterTwoBlogs() {
+        reset(blogDatabaseService);
+        doAnswer(invocation -> {
+            Consumer<Blog> consumer = invocation.getArgument(2);
+            consumer.accept(blog(1L));
+            consumer.accept(blog(2L));
+            throw new IllegalStateException("数据库连接中断");
+        }).when(blogDatabaseService).streamUserBlogs(anyLong(), any(), any());
+    }
+
+    @Test
+    void failedStreamIsNotValidJson() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThrows(IllegalStateException.class, () -> blogController.streamBlogs(USER,
+                null, null, null, null, null, null, null, null, "createdAt", "desc", response));
+
+        String body = response.getContentAsString();
+        assertTrue(body.startsWith("{\"status\":0,\"data\":["), body);
+        assertThrows(JsonProcessingException.class, () -> objectMapper.readTree(body));
+    }
+
+    @Test
+    void failedExportIsNotReadableZip() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThrows(IllegalStateException.class, () -> blogController.exportBlogs(USER, response));
+
+        byte[] body = response.getContentAsByteArray();
+        assertTrue(body.length > 0);
+        Path file = Files.createTempFile("export", ".zip");
+        try {
+            Files.write(file, body);
+            assertThrows(ZipException.class, () -> new ZipFile(file.toFile()).close());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static Blog blog(Long id) {
+        Blog blog = new Blog();
+        blog.setId(id);
+        blog.setTitle("博客" + id);
+        blog.setContent("正文" + id);
+        blog.setCategories("测试");
+        blog.setFilename("blog" + id + ".md");
+        blog.setDate(LocalDateTime.of(2024, 1, 1, 0, 0));
+        return blog;
+    }
+}
@@ -0,0 +1,142 @@
+package com.ulna.blog_manager.service;
+
+import com.ulna.blog_manager.model.Blog;
+import com.ulna.blog_manager.model.ContentDelta;
+import com.ulna.blog_manager.model.ContentDeltaResult;
+import com.ulna.blog_manager.model.ContentEdit;
+import com.ulna.blog_manager.model.User;
+import com.ulna.blog_manager.repository.BlogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.reset;
+
+/**
+ * 增量更新：基准版本过期和读取后被并发修改时返回冲突及最新版本，不写入正文
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class BlogContentDeltaTest {
+
+    @Autowired
+    private BlogDatabaseService blogDatabaseService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoSpyBean
+    private BlogRepository blogRepository;
+
+    private Long userId;
+    private Long blogId;
+
+    @BeforeEach
+    void createBlog() {
+        reset(blogRepository);
+        String username = "delta" + System.nanoTime() % 1_000_000_000L;
+        User user = userService.createUser(username, username + "@test.com", "secret123");
+        userId = user.getId();
+        Blog blog = new Blog();
+        blog.setTitle("增量");
+        blog.setContent("第一版正文");
+        blogDatabaseService.saveBlog(blog, userId);
+        blogId = blogRepository.findByUserIdOrderByCreatedAtDesc(userId).get(0).getId();
+    }
+
+    @Test
+    void appliesEditsOnCurrentBase() {
+        ContentDeltaResult result = blogDatabaseService.applyContentDelta(blogId, delta(currentVersion(), "新"), userId);
+
+        assertEquals(ContentDeltaResult.Status.APPLIED, result.getStatus());
+        assertEquals("新第一版正文", content());
+        assertEquals(currentVersion(), result.getVersion().getUpdatedAt());
+    }
+
+    @Test
+    void staleBaseUpdatedAtIsConflict() {
+        LocalDateTime stale = currentVersion();
+        assertEquals(ContentDeltaResult.Status.APPLIED,
+                blogDatabaseService.applyContentDelta(blogId, delta(stale, "A"), userId).getStatus());
+
+        ContentDeltaResult result = blogDatabaseService.applyContentDelta(blogId, delta(stale, "B"), userId);
+
+        assertEquals(ContentDeltaResult.Status.CONFLICT, result.getStatus());
+        assertEquals(currentVersion(), result.getVersion().getUpdatedAt());
+        assertEquals(ContentHash.sha256("A第一版正文"), result.getVersion().getHash());
+        assertEquals("A第一版正文", content());
+    }
+
+    @Test
+    void staleBaseHashIsConflict() {
+        ContentDelta delta = delta(null, "B");
+        delta.setBaseHash(ContentHash.sha256("别的正文"));
+
+        ContentDeltaResult result = blogDatabaseService.applyContentDelta(blogId, delta, userId);
+
+        assertEquals(ContentDeltaResult.Status.CONFLICT, result.getStatus());
+        assertEquals(ContentHash.sha256("第一版正文"), result.getVersion().getHash());
+        assertEquals("第一版正文", content());
+    }
+
+    @Test
+    void concurrentWriteAfterReadIsConflictWithLatestVersion() {
+        LocalDateTime concurrent = LocalDateTime.now().plusSeconds(5).truncatedTo(ChronoUnit.MICROS);
+        // 读取之后、条件更新之前，另一个事务修改了这篇博客
+        doAnswer(invocation -> {
+            CompletableFuture.runAsync(() -> jdbcTemplate.update(
+                    "UPDATE blogs SET content = ?, updated_at = ? WHERE id = ?",
+                    "并发写入的正文", Timestamp.valueOf(concurrent), blogId)).join();
+            return realRepository().answer(invocation);
+        }).when(blogRepository).updateContentIfUnchanged(anyLong(), anyLong(), anyString(), any(), any());
+
+        ContentDeltaResult result = blogDatabaseService.applyContentDelta(blogId, delta(currentVersion(), "B"), userId);
+
+        assertEquals(ContentDeltaResult.Status.CONFLICT, result.getStatus());
+        assertEquals(concurrent, result.getVersion().getUpdatedAt());
+        assertEquals(ContentHash.sha256("并发写入的正文"), result.getVersion().getHash());
+        assertEquals("并发写入的正文", content());
+    }
+
+    private LocalDateTime currentVersion() {
+        return blogDatabaseService.getBlogUpdatedAt(blogId, userId);
+    }
+
+    private String content() {
+        return jdbcTemplate.queryForObject("SELECT content FROM blogs WHERE id = ?", String.class, blogId);
+    }
+
+    private static ContentDelta delta(LocalDateTime base, String prefix) {
+        ContentDelta delta = new ContentDelta();
+        delta.setBaseUpdatedAt(base);
+        delta.setEdits(List.of(new ContentEdit(0, 0, prefix)));
+        return delta;
+    }
+
+    // BlogRepository 是接口代理，spy 上的 callRealMethod 无法调用；
+    // Spring 为这类 spy 设置的默认应答会转发给原来的仓库 Bean
+    @SuppressWarnings("unchecked")
+    private Answer<Object> realRepository() {
+        return (Answer<Object>) mockingDetails(blogRepository).getMockCreationSettings().getDefaultAnswer();
+    }
+}
@@ -0,0 +1,233 @@
+package com.ulna.blog_manager.service;
+
+import com.ulna.blog_manager.model.BlogContentStorage;
+import com.ulna.blog_manager.model.BlogEntity;
+import com.ulna.blog_manager.model.CompressedContentConverter;
+import com.ulna.blog_manager.model.User;
+import com.ulna.blog_manager.repository.AppSettingRepository;
+import com.ulna.blog_manager.repository.BlogRepository;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 压缩存储：实体写入前按注入的配置拆分正文，迁移只在配置变化后扫描，以及两种存储方式的体积与读写耗时对比
+ *
+ * 对比默认生成 2000 篇博客，可用 -Dblog.benchmark.posts=100000 按生产规模运行：
+ * mvn test -Dtest=BlogContentStorageTest#comparesSizeAndLatency -Dblog.benchmark.posts=100000
+ */
+@SpringBootTest(properties = {
+        "blog.content.storage=compressed",
+        "blog.content.compress-threshold=1024"
+})
+@ActiveProfiles("h2")
+class BlogContentStorageTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlogContentStorageTest.class);
+
+    private static final String INSERT_SQL = "INSERT INTO blogs (id, title, content, content_packed, user_id, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BlogContentStorage contentStorage;
+
+    @Autowired
+    private BlogContentMigrator blogContentMigrator;
+
+    @Autowired
+    private AppSettingRepository appSettingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void entityWritesSplitContentByInjectedStorage() {
+        User user = createUser("split");
+        String longContent = post(new Random(1), 4000);
+
+        BlogEntity blog = new BlogEntity();
+        blog.setTitle("长正文");
+        blog.setContent(longContent);
+        blog.setUser(user);
+        Long id = blogRepository.save(blog).getId();
+
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT content, content_packed FROM blogs WHERE id = ?", id);
+        assertNull(row.get("content"));
+        assertNotNull(row.get("content_packed"));
+
+        // 改为短正文后回到 content 列
+        BlogEntity saved = blogRepository.findById(id).orElseThrow();
+        assertEquals(longContent, saved.getContent());
+        saved.setContent("短正文");
+        blogRepository.save(saved);
+        row = jdbcTemplate.queryForMap("SELECT content, content_packed FROM blogs WHERE id = ?", id);
+        assertEquals("短正文", row.get("content"));
+        assertNull(row.get("content_packed"));
+    }
+
+    @Test
+    void mysqlFullTextSearchKeepsContentAsText() {
+        // FULLTEXT 索引只覆盖 content 列，压缩后正文无法检索
+        BlogContentStorage storage = new BlogContentStorage(BlogContentStorage.COMPRESSED, 16, "mysql");
+        String longContent = "全文检索需要明文正文".repeat(10);
+        assertFalse(storage.isCompressed());
+        assertEquals(BlogContentStorage.TEXT, storage.describe());
+        assertEquals(longContent, storage.textPart(longContent));
+        assertNull(storage.packedPart(longContent));
+    }
+
+    @Test
+    void migrationScansOnlyWhenStorageChanges() {
+        Long userId = createUser("migrate").getId();
+        // 启动时的迁移可能仍在后台执行，先确保当前配置已经记录
+        blogContentMigrator.migrateIfChanged();
+
+        long id = 20_000_000L + userId;
+        String content = post(new Random(2), 3000);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(INSERT_SQL, id, "旧数据", content, null, userId, now, now);
+
+        assertFalse(blogContentMigrator.migrateIfChanged());
+        assertNotNull(jdbcTemplate.queryForObject("SELECT content FROM blogs WHERE id = ?", String.class, id));
+
+        // 没有记录（视为配置变化）时重新扫描
+        appSettingRepository.deleteById(BlogContentMigrator.APPLIED_SETTING);
+        assertTrue(blogContentMigrator.migrateIfChanged());
+        assertNull(jdbcTemplate.queryForObject("SELECT content FROM blogs WHERE id = ?", String.class, id));
+        assertEquals(contentStorage.describe(),
+                appSettingRepository.findById(BlogContentMigrator.APPLIED_SETTING).orElseThrow().getValue());
+    }
+
+    @Test
+    void comparesSizeAndLatency() {
+        int posts = Integer.getInteger("blog.benchmark.posts", 2000);
+        int reads = Math.min(posts, 5000);
+        Random random = new Random(42);
+        List<String> contents = new ArrayList<>(posts);
+        long rawBytes = 0;
+        for (int i = 0; i < posts; i++) {
+            String content = post(random, 500 + random.nextInt(12000));
+            contents.add(content);
+            rawBytes += content.getBytes(StandardCharsets.UTF_8).length;
+        }
+
+        Long textUser = createUser("text").getId();
+        Long packedUser = createUser("packed").getId();
+        long textBase = 30_000_000L;
+        long packedBase = 40_000_000L;
+
+        long textWriteNs = insert(textBase, textUser, contents, false);
+        long packedWriteNs = insert(packedBase, packedUser, contents, true);
+
+        long textBytes = storedBytes(textUser);
+        long packedBytes = storedBytes(packedUser);
+
+        // 先各读一轮预热，再按相同的随机顺序计时
+        int[] order = random.ints(reads, 0, posts).toArray();
+        readAll(textBase, order, contents);
+        readAll(packedBase, order, contents);
+        long textReadNs = readAll(textBase, order, contents);
+        long packedReadNs = readAll(packedBase, order, contents);
+
+        logger.info("正文存储对比（{} 篇，原文 {} 字节，阈值 {} 字符）", posts, rawBytes, contentStorage.getThreshold());
+        logger.info("text       : 存储 {} 字节，写入 {} µs/篇，读取 {} µs/篇",
+                textBytes, textWriteNs / posts / 1000.0, textReadNs / reads / 1000.0);
+        logger.info("compressed : 存储 {} 字节（{}%），写入 {} µs/篇，读取 {} µs/篇",
+                packedBytes, packedBytes * 100 / Math.max(1, textBytes),
+                packedWriteNs / posts / 1000.0, packedReadNs / reads / 1000.0);
+
+        assertTrue(packedBytes < textBytes, "压缩存储应小于明文存储");
+
+        jdbcTemplate.update("DELETE FROM blogs WHERE user_id IN (?, ?)", textUser, packedUser);
+    }
+
+    private long insert(long baseId, Long userId, List<String> contents, boolean packed) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long start = System.nanoTime();
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < contents.size(); i++) {
+            String content = contents.get(i);
+            String text = packed ? contentStorage.textPart(content) : content;
+            byte[] packedBytes = packed ? CompressedContentConverter.encode(contentStorage.packedPart(content)) : null;
+            batch.add(new Object[] {baseId + i, "博客 " + i, text, packedBytes, userId, now, now});
+            if (batch.size() == 500 || i == contents.size() - 1) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                batch.clear();
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long storedBytes(Long userId) {
+        Long bytes = jdbcTemplate.queryForObject(
+                "SELECT SUM(COALESCE(OCTET_LENGTH(content), 0) + COALESCE(OCTET_LENGTH(content_packed), 0)) "
+                + "FROM blogs WHERE user_id = ?", Long.class, userId);
+        return bytes != null ? bytes : 0;
+    }
+
+    // 与实体读取相同：content 为 NULL 时解压 content_packed
+    private long readAll(long baseId, int[] order, List<String> contents) {
+        long start = System.nanoTime();
+        for (int index : order) {
+            String content = jdbcTemplate.queryForObject("SELECT content, content_packed FROM blogs WHERE id = ?",
+                    (rs, i) -> {
+                        String text = rs.getString(1);
+                        return text != null ? text : CompressedContentConverter.decode(rs.getBytes(2));
+                    }, baseId + index);
+            assertEquals(contents.get(index).length(), content.length());
+        }
+        return System.nanoTime() - start;
+    }
+
+    // 中英文混合的 Markdown 正文，段落从固定的句子中随机组合，接近真实博客的重复程度
+    private static String post(Random random, int length) {
+        String[] sentences = {
+                "Spring Boot 通过自动配置减少了大量样板代码。",
+                "缓存的失效策略决定了读取的一致性。",
+                "The query planner picks the index with the lowest estimated cost. ",
+                "批量写入时需要注意事务的大小和锁的持有时间。",
+                "```java\nList<Blog> blogs = repository.findAll();\n```\n",
+                "Compression trades CPU time for storage and I/O. ",
+                "## 小结\n\n",
+                "每个请求都应该设置合理的超时时间。"
+        };
+        StringBuilder content = new StringBuilder(length + 64);
+        content.append("# 标题 ").append(random.nextInt(100000)).append("\n\n");
+        while (content.length() < length) {
+            content.append(sentences[random.nextInt(sentences.length)]);
+            if (random.nextInt(6) == 0) {
+                content.append(random.nextInt(1000000)).append("\n\n");
+            }
+        }
+        return content.toString();
+    }
+
+    private User createUser(String prefix) {
+        String username = prefix + System.nanoTime() % 1_000_000_000L;
+        return userService.createUser(username, username + "@test.com", "secret123");
+    }
+}
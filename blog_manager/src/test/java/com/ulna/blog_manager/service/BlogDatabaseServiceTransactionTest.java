@@ -0,0 +1,93 @@
+package com.ulna.blog_manager.service;
+
+import com.ulna.blog_manager.model.Blog;
+import com.ulna.blog_manager.model.BlogEntity;
+import com.ulna.blog_manager.model.BlogSearchHit;
+import com.ulna.blog_manager.model.User;
+import com.ulna.blog_manager.repository.BlogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+
+/**
+ * 博客写操作的事务边界：标签关联写入失败时博客本身也不写入，检索索引不更新
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class BlogDatabaseServiceTransactionTest {
+
+    @Autowired
+    private BlogDatabaseService blogDatabaseService;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @MockitoSpyBean
+    private TagService tagService;
+
+    private Long userId;
+
+    @BeforeEach
+    void createUser() {
+        reset(tagService);
+        String username = "tx" + System.nanoTime() % 1_000_000_000L;
+        User user = userService.createUser(username, username + "@test.com", "secret123");
+        userId = user.getId();
+    }
+
+    @Test
+    void failedTagSyncRollsBackUpdate() {
+        assertTrue(blogDatabaseService.saveBlog(blog("原标题", "原始正文"), userId));
+        BlogEntity saved = blogRepository.findByUserIdOrderByCreatedAtDesc(userId).get(0);
+
+        doThrow(new IllegalStateException("标签写入失败")).when(tagService).syncBlogTags(anyLong(), anyLong(), any());
+        Blog update = blog("新标题", "修改后的正文");
+        update.setId(saved.getId());
+        assertFalse(blogDatabaseService.updateBlog(update, userId));
+
+        BlogEntity current = blogRepository.findById(saved.getId()).orElseThrow();
+        assertEquals("原标题", current.getTitle());
+        assertEquals("原始正文", current.getContent());
+        assertTrue(search("修改后").isEmpty());
+        assertEquals(1, search("原始").size());
+    }
+
+    @Test
+    void failedTagSyncRollsBackCreate() {
+        doThrow(new IllegalStateException("标签写入失败")).when(tagService).syncBlogTags(anyLong(), anyLong(), any());
+
+        assertFalse(blogDatabaseService.saveBlog(blog("新博客", "不会写入的正文"), userId));
+
+        assertTrue(blogRepository.findByUserIdOrderByCreatedAtDesc(userId).isEmpty());
+        assertTrue(search("不会写入").isEmpty());
+    }
+
+    private List<BlogSearchHit> search(String query) {
+        return blogDatabaseService.fullTextSearch(userId, query, "natural", 0, 10);
+    }
+
+    private static Blog blog(String title, String content) {
+        Blog blog = new Blog();
+        blog.setTitle(title);
+        blog.setContent(content);
+        blog.setCategories("测试");
+        blog.setTags(new String[] { "事务" });
+        return blog;
+    }
+}
@@ -0,0 +1,66 @@
+package com.ulna.blog_manager.service;
+
+import com.ulna.blog_manager.model.Blog;
+import com.ulna.blog_manager.model.BlogEntity;
+import com.ulna.blog_manager.model.BlogImportReport;
+import com.ulna.blog_manager.model.BlogImportResult;
+import com.ulna.blog_manager.model.User;
+import com.ulna.blog_manager.repository.BlogRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 批量导入时逐条校验元数据长度，超长的博客单独失败，不影响同一段中的其他博客
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class BlogImportServiceTest {
+
+    @Autowired
+    private BlogImportService blogImportService;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void overLongMetadataFailsOnlyThatBlog() {
+        String username = "import" + System.nanoTime() % 1_000_000_000L;
+        User user = userService.createUser(username, username + "@test.com", "secret123");
+
+        Blog categories = blog("分类超长");
+        categories.setCategories("c".repeat(BlogEntity.MAX_CATEGORIES_LENGTH + 1));
+        Blog tags = blog("标签超长");
+        tags.setTags(new String[]{"t".repeat(300), "u".repeat(300)});
+        Blog saying = blog("引言超长");
+        saying.setSaying("s".repeat(BlogEntity.MAX_SAYING_LENGTH + 1));
+        Blog valid = blog("正常博客");
+
+        BlogImportReport report = blogImportService.importBlogs(List.of(categories, tags, saying, valid), user.getId());
+
+        assertEquals(1, report.getCreated());
+        assertEquals(3, report.getFailed());
+        List<BlogImportResult> items = report.getItems();
+        assertTrue(items.get(0).getError().contains("分类"));
+        assertTrue(items.get(1).getError().contains("标签"));
+        assertTrue(items.get(2).getError().contains("引言"));
+        assertEquals(BlogImportResult.CREATED, items.get(3).getStatus());
+        assertEquals(1, blogRepository.findByUserIdOrderByCreatedAtDesc(user.getId()).size());
+    }
+
+    private static Blog blog(String title) {
+        Blog blog = new Blog();
+        blog.setTitle(title);
+        blog.setContent(title + "的正文");
+        return blog;
+    }
+}
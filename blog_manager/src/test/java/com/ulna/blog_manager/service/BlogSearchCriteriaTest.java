@@ -0,0 +1,111 @@
+package com.ulna.blog_manager.service;
+
+import com.ulna.blog_manager.model.Blog;
+import com.ulna.blog_manager.model.BlogSearchCriteria;
+import com.ulna.blog_manager.model.BlogSummary;
+import com.ulna.blog_manager.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 组合搜索：条件之间为 AND，多个标签必须同时包含，标题/分类中的 % _ \ 按字面匹配
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class BlogSearchCriteriaTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Autowired
+    private BlogDatabaseService blogDatabaseService;
+
+    @Autowired
+    private UserService userService;
+
+    private Long userId;
+
+    @BeforeEach
+    void createBlogs() {
+        String username = "spec" + System.nanoTime() % 1_000_000_000L;
+        User user = userService.createUser(username, username + "@test.com", "secret123");
+        userId = user.getId();
+        save("折扣 100% 到手", "生活", new String[]{"java", "spring"}, BASE);
+        save("折扣 100 元", "生活", new String[]{"java"}, BASE.plusDays(1));
+        save("snake_case 命名", "编程", new String[]{"spring"}, BASE.plusDays(2));
+        save("snakeXcase 命名", "编程", new String[]{"java", "spring"}, BASE.plusDays(3));
+        save("路径 a\\b", "编程\\路径", null, BASE.plusDays(4));
+    }
+
+    @Test
+    void tagsMustAllMatch() {
+        BlogSearchCriteria criteria = new BlogSearchCriteria();
+        criteria.setTags(List.of("java", "spring"));
+
+        assertEquals(List.of("snakeXcase 命名", "折扣 100% 到手"), titles(criteria));
+    }
+
+    @Test
+    void percentAndUnderscoreMatchLiterally() {
+        BlogSearchCriteria percent = new BlogSearchCriteria();
+        percent.setTitle("100%");
+        assertEquals(List.of("折扣 100% 到手"), titles(percent));
+
+        BlogSearchCriteria underscore = new BlogSearchCriteria();
+        underscore.setTitle("snake_case");
+        assertEquals(List.of("snake_case 命名"), titles(underscore));
+    }
+
+    @Test
+    void backslashMatchesLiterally() {
+        BlogSearchCriteria title = new BlogSearchCriteria();
+        title.setTitle("a\\b");
+        assertEquals(List.of("路径 a\\b"), titles(title));
+
+        BlogSearchCriteria categories = new BlogSearchCriteria();
+        categories.setCategories("编程\\");
+        assertEquals(List.of("路径 a\\b"), titles(categories));
+    }
+
+    @Test
+    void conditionsAreCombinedWithAnd() {
+        BlogSearchCriteria criteria = new BlogSearchCriteria();
+        criteria.setTitle("折扣");
+        criteria.setTags(List.of("java"));
+        criteria.setCreatedFrom(BASE.plusHours(1));
+
+        assertEquals(List.of("折扣 100 元"), titles(criteria));
+    }
+
+    @Test
+    void otherUsersBlogsAreExcluded() {
+        String username = "spec" + System.nanoTime() % 1_000_000_000L;
+        User other = userService.createUser(username, username + "@test.com", "secret123");
+        BlogSearchCriteria criteria = new BlogSearchCriteria();
+        criteria.setTitle("折扣");
+
+        assertTrue(blogDatabaseService.searchUserBlogs(other.getId(), criteria).isEmpty());
+    }
+
+    private List<String> titles(BlogSearchCriteria criteria) {
+        return blogDatabaseService.searchUserBlogs(userId, criteria).stream().map(BlogSummary::getTitle).toList();
+    }
+
+    private void save(String title, String categories, String[] tags, LocalDateTime createdAt) {
+        Blog blog = new Blog();
+        blog.setTitle(title);
+        blog.setContent(title + "的正文");
+        blog.setCategories(categories);
+        blog.setTags(tags);
+        blog.setDate(createdAt);
+        assertTrue(blogDatabaseService.saveBlog(blog, userId));
+    }
+}
@@ -0,0 +1,63 @@
+package com.ulna.blog_manager.service;
+
+import com.ulna.blog_manager.model.Blog;
+import com.ulna.blog_manager.model.BlogEntity;
+import com.ulna.blog_manager.model.BlogSearchCriteria;
+import com.ulna.blog_manager.model.User;
+import com.ulna.blog_manager.repository.BlogRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 导出流不把读取的博客写入二级缓存
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class BlogStreamCacheModeTest {
+
+    @Autowired
+    private BlogDatabaseService blogDatabaseService;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void exportDoesNotPopulateSecondLevelCache() {
+        String username = "export" + System.nanoTime() % 1_000_000_000L;
+        User user = userService.createUser(username, username + "@test.com", "secret123");
+        for (int i = 0; i < 3; i++) {
+            Blog blog = new Blog();
+            blog.setTitle("导出 " + i);
+            blog.setContent("正文 " + i);
+            assertTrue(blogDatabaseService.saveBlog(blog, user.getId()));
+        }
+        List<Long> ids = blogRepository.findByUserIdOrderByCreatedAtDesc(user.getId()).stream()
+                .map(BlogEntity::getId)
+                .toList();
+        entityManagerFactory.getCache().evict(BlogEntity.class);
+
+        List<Blog> exported = new ArrayList<>();
+        blogDatabaseService.streamUserBlogs(user.getId(), new BlogSearchCriteria(), exported::add);
+
+        assertEquals(3, exported.size());
+        for (Long id : ids) {
+            assertFalse(entityManagerFactory.getCache().contains(BlogEntity.class, id));
+        }
+    }
+}
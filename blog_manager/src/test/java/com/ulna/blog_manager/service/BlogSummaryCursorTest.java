@@ -0,0 +1,126 @@
+package com.ulna.blog_manager.service;
+
+import com.ulna.blog_manager.model.Blog;
+import com.ulna.blog_manager.model.BlogSummary;
+import com.ulna.blog_manager.model.BlogSummaryPage;
+import com.ulna.blog_manager.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 按 (createdAt, id) 游标分页：创建时间相同的博客按ID区分，不重复、不遗漏，最后一页没有 nextCursor
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class BlogSummaryCursorTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Autowired
+    private BlogDatabaseService blogDatabaseService;
+
+    @Autowired
+    private UserService userService;
+
+    private Long userId;
+
+    @BeforeEach
+    void createBlogs() {
+        String username = "cursor" + System.nanoTime() % 1_000_000_000L;
+        User user = userService.createUser(username, username + "@test.com", "secret123");
+        userId = user.getId();
+        // 中间三篇创建时间相同，分页边界落在它们中间
+        save("第一篇", BASE.plusHours(3));
+        save("同时A", BASE.plusHours(2));
+        save("同时B", BASE.plusHours(2));
+        save("同时C", BASE.plusHours(2));
+        save("最早", BASE);
+    }
+
+    @Test
+    void pagesCoverAllBlogsInOrderWithoutDuplicates() {
+        List<BlogSummary> all = new ArrayList<>();
+        BlogSummaryPage page = blogDatabaseService.listUserBlogSummaries(userId, null, null, 2);
+        int pages = 1;
+        all.addAll(page.getItems());
+        while (page.isHasMore()) {
+            BlogSummaryPage.Cursor cursor = page.getNextCursor();
+            page = blogDatabaseService.listUserBlogSummaries(userId, cursor.getCreatedAt(), cursor.getId(), 2);
+            all.addAll(page.getItems());
+            pages++;
+        }
+
+        assertEquals(3, pages);
+        assertEquals(5, all.size());
+        assertEquals(5, all.stream().map(BlogSummary::getId).distinct().count());
+        assertEquals("第一篇", all.get(0).getTitle());
+        assertEquals("最早", all.get(4).getTitle());
+        for (int i = 1; i < all.size(); i++) {
+            BlogSummary prev = all.get(i - 1);
+            BlogSummary cur = all.get(i);
+            assertTrue(prev.getCreatedAt().isAfter(cur.getCreatedAt())
+                    || (prev.getCreatedAt().equals(cur.getCreatedAt()) && prev.getId() > cur.getId()));
+        }
+    }
+
+    @Test
+    void nextCursorPointsAtLastItem() {
+        BlogSummaryPage page = blogDatabaseService.listUserBlogSummaries(userId, null, null, 3);
+
+        BlogSummaryPage.Cursor cursor = page.getNextCursor();
+        assertNotNull(cursor);
+        BlogSummary last = page.getItems().get(2);
+        assertEquals(last.getId(), cursor.getId());
+        assertEquals(last.getCreatedAt(), cursor.getCreatedAt());
+    }
+
+    @Test
+    void exactlyFullLastPageHasNoCursor() {
+        BlogSummaryPage page = blogDatabaseService.listUserBlogSummaries(userId, null, null, 5);
+
+        assertEquals(5, page.getItems().size());
+        assertNull(page.getNextCursor());
+        assertFalse(page.isHasMore());
+    }
+
+    @Test
+    void cursorWithoutIdReturnsFirstPage() {
+        BlogSummaryPage first = blogDatabaseService.listUserBlogSummaries(userId, null, null, 2);
+        BlogSummaryPage page = blogDatabaseService.listUserBlogSummaries(userId, BASE.plusHours(2), null, 2);
+
+        assertEquals(first.getItems().get(0).getId(), page.getItems().get(0).getId());
+    }
+
+    @Test
+    void newBlogIsCreatedAndUpdatedAtTheSameTime() {
+        Blog blog = new Blog();
+        blog.setTitle("刚创建");
+        blog.setContent("正文");
+        assertTrue(blogDatabaseService.saveBlog(blog, userId));
+
+        BlogSummary summary = blogDatabaseService.listUserBlogSummaries(userId, null, null, 1).getItems().get(0);
+        assertEquals("刚创建", summary.getTitle());
+        assertEquals(summary.getCreatedAt(), summary.getUpdatedAt());
+    }
+
+    private void save(String title, LocalDateTime createdAt) {
+        Blog blog = new Blog();
+        blog.setTitle(title);
+        blog.setContent(title + "的正文");
+        blog.setDate(createdAt);
+        assertTrue(blogDatabaseService.saveBlog(blog, userId));
+    }
+}
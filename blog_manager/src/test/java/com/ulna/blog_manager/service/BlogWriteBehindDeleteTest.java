@@ -0,0 +1,89 @@
+package com.ulna.blog_manager.service;
+
+import com.ulna.blog_manager.model.Blog;
+import com.ulna.blog_manager.model.User;
+import com.ulna.blog_manager.repository.BlogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+
+/**
+ * 删除博客时，写缓冲中的修改在提交后才丢弃；删除回滚时保留
+ */
+@SpringBootTest(properties = {
+        "blog.write-behind.enabled=true",
+        "blog.write-behind.flush-interval=1h"
+})
+@ActiveProfiles("h2")
+class BlogWriteBehindDeleteTest {
+
+    @Autowired
+    private BlogDatabaseService blogDatabaseService;
+
+    @Autowired
+    private BlogWriteBehindBuffer blogWriteBehind;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @MockitoSpyBean
+    private BlogRevisionService blogRevisionService;
+
+    private Long userId;
+    private Long blogId;
+
+    @BeforeEach
+    void bufferAutosave() {
+        reset(blogRevisionService);
+        String username = "wbdel" + System.nanoTime() % 1_000_000_000L;
+        User user = userService.createUser(username, username + "@test.com", "secret123");
+        userId = user.getId();
+        assertTrue(blogDatabaseService.saveBlog(blog(null, "原标题"), userId));
+        blogId = blogRepository.findByUserIdOrderByCreatedAtDesc(userId).get(0).getId();
+        assertTrue(blogDatabaseService.updateBlog(blog(blogId, "自动保存的标题"), userId));
+        assertNotNull(blogWriteBehind.get(blogId, userId));
+    }
+
+    @Test
+    void rolledBackDeleteKeepsPendingWrite() {
+        doThrow(new IllegalStateException("删除修订失败")).when(blogRevisionService).deleteRevisions(anyLong());
+
+        assertFalse(blogDatabaseService.deleteUserBlog(blogId, userId));
+
+        assertTrue(blogRepository.findById(blogId).isPresent());
+        assertNotNull(blogWriteBehind.get(blogId, userId));
+        blogWriteBehind.flushUser(userId);
+        assertEquals("自动保存的标题", blogRepository.findById(blogId).orElseThrow().getTitle());
+    }
+
+    @Test
+    void committedDeleteDiscardsPendingWrite() {
+        assertTrue(blogDatabaseService.deleteUserBlog(blogId, userId));
+
+        assertNull(blogWriteBehind.get(blogId, userId));
+        assertTrue(blogWriteBehind.pendingOf(userId).isEmpty());
+    }
+
+    private static Blog blog(Long id, String title) {
+        Blog blog = new Blog();
+        blog.setId(id);
+        blog.setTitle(title);
+        blog.setContent(title + "的正文");
+        return blog;
+    }
+}
@@ -0,0 +1,96 @@
+package com.ulna.blog_manager.service;
+
+import com.ulna.blog_manager.model.Blog;
+import com.ulna.blog_manager.model.BlogEntity;
+import com.ulna.blog_manager.model.User;
+import com.ulna.blog_manager.repository.BlogRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 写缓冲刷新：超出列长度的修改在放入缓冲前被拒绝，批次中无法写入的一条不影响其他博客
+ */
+@SpringBootTest(properties = {
+        "blog.write-behind.enabled=true",
+        "blog.write-behind.flush-interval=1h"
+})
+@ActiveProfiles("h2")
+class BlogWriteBehindFlushTest {
+
+    @Autowired
+    private BlogDatabaseService blogDatabaseService;
+
+    @Autowired
+    private BlogWriteBehindBuffer blogWriteBehind;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void oversizedColumnsAreRejectedBeforeEnqueue() {
+        User user = newUser();
+        Long blogId = saveBlog(user.getId(), "原标题");
+
+        Blog update = blog(blogId, "新标题");
+        update.setCategories("分".repeat(BlogEntity.MAX_CATEGORIES_LENGTH + 1));
+        assertFalse(blogDatabaseService.updateBlog(update, user.getId()));
+
+        update = blog(blogId, "新标题");
+        update.setSaying("言".repeat(BlogEntity.MAX_SAYING_LENGTH + 1));
+        assertFalse(blogDatabaseService.updateBlog(update, user.getId()));
+
+        assertTrue(blogWriteBehind.pendingOf(user.getId()).isEmpty());
+    }
+
+    @Test
+    void failingRowDoesNotBlockTheRestOfTheBatch() {
+        User user = newUser();
+        Long goodId = saveBlog(user.getId(), "正常");
+        Long badId = saveBlog(user.getId(), "超长");
+
+        assertTrue(blogDatabaseService.updateBlog(blog(goodId, "正常-已修改"), user.getId()));
+        // 绕过 updateBlog 的校验直接放入缓冲，模拟数据库拒绝的一条
+        Blog bad = blog(badId, "超长-已修改");
+        bad.setCategories("分".repeat(BlogEntity.MAX_CATEGORIES_LENGTH + 1));
+        blogWriteBehind.enqueue(user.getId(), user.getUsername(), bad);
+
+        blogWriteBehind.flushUser(user.getId());
+
+        assertEquals("正常-已修改", blogRepository.findById(goodId).orElseThrow().getTitle());
+        assertEquals("超长", blogRepository.findById(badId).orElseThrow().getTitle());
+        // 无法写入的一条被丢弃，不会在之后的每次刷新中重复失败
+        assertTrue(blogWriteBehind.pendingOf(user.getId()).isEmpty());
+    }
+
+    private User newUser() {
+        String username = "wf" + System.nanoTime() % 1_000_000_000L;
+        return userService.createUser(username, username + "@test.com", "secret123");
+    }
+
+    private Long saveBlog(Long userId, String title) {
+        assertTrue(blogDatabaseService.saveBlog(blog(null, title), userId));
+        List<BlogEntity> blogs = blogRepository.findByUserIdOrderByCreatedAtDesc(userId);
+        return blogs.stream().filter(blog -> blog.getTitle().equals(title)).findFirst().orElseThrow().getId();
+    }
+
+    private static Blog blog(Long id, String title) {
+        Blog blog = new Blog();
+        blog.setId(id);
+        blog.setTitle(title);
+        blog.setContent(title + "的正文");
+        blog.setCategories("测试");
+        blog.setTags(new String[] { "缓冲" });
+        return blog;
+    }
+}
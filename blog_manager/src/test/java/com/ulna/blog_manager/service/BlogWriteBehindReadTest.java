@@ -0,0 +1,78 @@
+package com.ulna.blog_manager.service;
+
+import com.ulna.blog_manager.model.Blog;
+import com.ulna.blog_manager.model.BlogEntity;
+import com.ulna.blog_manager.model.BlogSearchCriteria;
+import com.ulna.blog_manager.model.BlogSummary;
+import com.ulna.blog_manager.model.User;
+import com.ulna.blog_manager.repository.BlogRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 写缓冲开启时，读取叠加缓冲中的修改而不写库；写库只由写操作和后台任务触发
+ */
+@SpringBootTest(properties = {
+        "blog.write-behind.enabled=true",
+        "blog.write-behind.flush-interval=1h"
+})
+@ActiveProfiles("h2")
+class BlogWriteBehindReadTest {
+
+    @Autowired
+    private BlogDatabaseService blogDatabaseService;
+
+    @Autowired
+    private BlogWriteBehindBuffer blogWriteBehind;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void readsOverlayPendingWritesWithoutFlushing() {
+        String username = "wb" + System.nanoTime() % 1_000_000_000L;
+        User user = userService.createUser(username, username + "@test.com", "secret123");
+        Long userId = user.getId();
+        assertTrue(blogDatabaseService.saveBlog(blog(null, "原标题", "原始正文"), userId));
+        Long blogId = blogRepository.findByUserIdOrderByCreatedAtDesc(userId).get(0).getId();
+
+        assertTrue(blogDatabaseService.updateBlog(blog(blogId, "缓冲中的标题", "缓冲中的正文"), userId));
+
+        assertEquals("缓冲中的标题", blogDatabaseService.listUserBlogs(userId).get(0).getTitle());
+        BlogSearchCriteria criteria = new BlogSearchCriteria();
+        List<BlogSummary> summaries = blogDatabaseService.searchUserBlogs(userId, criteria);
+        assertEquals("缓冲中的标题", summaries.get(0).getTitle());
+        List<Blog> exported = new ArrayList<>();
+        blogDatabaseService.streamUserBlogs(userId, criteria, exported::add);
+        assertEquals("缓冲中的正文", exported.get(0).getContent());
+
+        // 读取没有写库，修改仍在缓冲中
+        BlogEntity stored = blogRepository.findById(blogId).orElseThrow();
+        assertEquals("原标题", stored.getTitle());
+        assertEquals(1, blogWriteBehind.pendingOf(userId).size());
+
+        blogWriteBehind.flushUser(userId);
+        assertEquals("缓冲中的标题", blogRepository.findById(blogId).orElseThrow().getTitle());
+    }
+
+    private static Blog blog(Long id, String title, String content) {
+        Blog blog = new Blog();
+        blog.setId(id);
+        blog.setTitle(title);
+        blog.setContent(content);
+        blog.setCategories("测试");
+        blog.setTags(new String[] { "缓冲" });
+        return blog;
+    }
+}
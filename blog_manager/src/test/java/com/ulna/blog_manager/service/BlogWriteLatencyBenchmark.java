@@ -0,0 +1,118 @@
+package com.ulna.blog_manager.service;
+
+import com.ulna.blog_manager.BlogManagerApplication;
+import com.ulna.blog_manager.model.Blog;
+import com.ulna.blog_manager.model.BlogEntity;
+import com.ulna.blog_manager.model.User;
+import com.ulna.blog_manager.repository.BlogRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单篇博客写入耗时与作者博客数量的关系
+ *
+ * saveExisting 按 (user_id, filename) 更新一篇已有博客，耗时应不随博客数量增长；
+ * legacyScanLookup 是改动前写路径的查找方式（加载作者全部博客后按文件名过滤），作为对照。
+ * 在 H2 内存库（h2 profile）上运行，运行：mvn -Pbenchmark -DskipTests -Djmh.include=BlogWriteLatencyBenchmark test
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BlogWriteLatencyBenchmark {
+
+    private static final String INSERT_SQL = "INSERT INTO blogs (id, title, content, filename, user_id, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Param({"10", "100", "1000", "10000"})
+    private int postsPerUser;
+
+    private ConfigurableApplicationContext context;
+    private BlogDatabaseService blogDatabaseService;
+    private BlogRepository blogRepository;
+    private Long userId;
+    private String content;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BlogManagerApplication.class)
+                .profiles("h2")
+                .properties("server.port=0", "spring.main.banner-mode=off", "logging.level.root=WARN")
+                .run();
+        blogDatabaseService = context.getBean(BlogDatabaseService.class);
+        blogRepository = context.getBean(BlogRepository.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        User user = context.getBean(UserService.class).createUser("bench", "bench@test.com", "secret123");
+        userId = user.getId();
+
+        StringBuilder body = new StringBuilder();
+        while (body.length() < 2000) {
+            body.append("Spring Boot 写入路径基准测试的正文段落。");
+        }
+        content = body.toString();
+
+        // 直接批量插入准备数据，ID 取在序列分配范围之外
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < postsPerUser; i++) {
+            rows.add(new Object[] {1_000_000L + i, "博客 " + i, content, filename(i), userId, now, now});
+            if (rows.size() == 500 || i == postsPerUser - 1) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+                rows.clear();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean saveExisting() {
+        int index = next++ % postsPerUser;
+        Blog blog = new Blog();
+        blog.setFilename(filename(index));
+        blog.setTitle("博客 " + index);
+        blog.setContent(content + next);
+        blog.setTags(new String[] {"bench"});
+        return blogDatabaseService.saveBlog(blog, userId);
+    }
+
+    @Benchmark
+    public Optional<BlogEntity> legacyScanLookup() {
+        String filename = filename(next++ % postsPerUser);
+        return blogRepository.findByUserIdOrderByCreatedAtDesc(userId).stream()
+                .filter(blog -> filename.equals(blog.getFilename()))
+                .findFirst();
+    }
+
+    private static String filename(int index) {
+        return "post-" + index + ".md";
+    }
+}
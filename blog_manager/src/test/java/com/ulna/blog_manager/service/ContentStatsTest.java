@@ -0,0 +1,83 @@
+package com.ulna.blog_manager.service;
+
+import com.ulna.blog_manager.model.ContentStats;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 正文统计：中日韩文字按字计数、其他文字按词计数，摘要按字符截断并以“…”结尾
+ */
+class ContentStatsTest {
+
+    @Test
+    void cjkCharactersCountAsWords() {
+        ContentStats stats = ContentStats.of("你好世界");
+
+        assertEquals(4, stats.getWordCount());
+        assertEquals(4, stats.getCharCount());
+    }
+
+    @Test
+    void mixedTextCountsCjkPerCharacterAndOtherPerWord() {
+        ContentStats stats = ContentStats.of("使用 Spring Boot 开发，版本 3.4");
+
+        // 使用 开发 版本 = 6 个字，Spring Boot 3 4 = 4 个词
+        assertEquals(10, stats.getWordCount());
+    }
+
+    @Test
+    void kanaAndHangulAreCjk() {
+        assertEquals(5, ContentStats.of("こんにちは").getWordCount());
+        assertEquals(5, ContentStats.of("カタカナ語").getWordCount());
+        assertEquals(2, ContentStats.of("한국").getWordCount());
+    }
+
+    @Test
+    void markdownMarkupIsNotCounted() {
+        ContentStats stats = ContentStats.of("# 标题\n\n**加粗** [链接](https://example.com/很长的地址)");
+
+        assertEquals(6, stats.getWordCount());
+        assertEquals("标题 加粗 链接", stats.getExcerpt());
+    }
+
+    @Test
+    void shortExcerptIsNotTruncated() {
+        String text = "字".repeat(ContentStats.EXCERPT_LENGTH);
+
+        assertEquals(text, ContentStats.of(text).getExcerpt());
+    }
+
+    @Test
+    void longExcerptIsTruncatedWithEllipsis() {
+        String excerpt = ContentStats.of("字".repeat(ContentStats.EXCERPT_LENGTH + 1)).getExcerpt();
+
+        assertEquals("字".repeat(ContentStats.EXCERPT_LENGTH) + "…", excerpt);
+    }
+
+    @Test
+    void excerptDoesNotSplitSurrogatePairs() {
+        // 𠀀 在 BMP 之外，占两个 char
+        String excerpt = ContentStats.of("𠀀".repeat(ContentStats.EXCERPT_LENGTH + 10)).getExcerpt();
+
+        assertEquals(ContentStats.EXCERPT_LENGTH + 1, excerpt.codePointCount(0, excerpt.length()));
+        assertTrue(excerpt.endsWith("…"));
+        assertTrue(Character.isHighSurrogate(excerpt.charAt(excerpt.length() - 3)));
+    }
+
+    @Test
+    void readingTimeIsAtLeastOneMinute() {
+        assertEquals(1, ContentStats.of("短").getReadingMinutes());
+        assertEquals(2, ContentStats.of("字".repeat(301)).getReadingMinutes());
+    }
+
+    @Test
+    void emptyContent() {
+        ContentStats stats = ContentStats.of(null);
+
+        assertEquals("", stats.getExcerpt());
+        assertEquals(0, stats.getWordCount());
+        assertEquals(1, stats.getReadingMinutes());
+    }
+}
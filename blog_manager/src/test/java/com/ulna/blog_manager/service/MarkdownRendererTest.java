@@ -0,0 +1,59 @@
+package com.ulna.blog_manager.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Markdown 渲染：原始 HTML 转义、链接协议过滤、image/ 图片路径改写和缓存权重
+ */
+class MarkdownRendererTest {
+
+    private final MarkdownRenderer renderer = new MarkdownRenderer(1024);
+
+    @Test
+    void rawHtmlIsEscaped() {
+        String html = renderer.render("前文 <script>alert(1)</script>\n\n<div onclick=\"x()\">块</div>", null);
+
+        assertFalse(html.contains("<script>"));
+        assertFalse(html.contains("<div"));
+        assertTrue(html.contains("&lt;script&gt;"));
+    }
+
+    @Test
+    void unsafeUrlsAreSanitized() {
+        String html = renderer.render("[点击](javascript:alert(1)) [正常](https://example.com/a)", null);
+
+        assertFalse(html.contains("javascript:"));
+        assertTrue(html.contains("href=\"https://example.com/a\""));
+    }
+
+    @Test
+    void relativeImagePathIsRewritten() {
+        String html = renderer.render("![图](image/a.png) ![外链](https://example.com/image/b.png) ![其他](images/c.png)", null);
+
+        assertTrue(html.contains("src=\"/image/a.png\""));
+        assertTrue(html.contains("src=\"https://example.com/image/b.png\""));
+        assertTrue(html.contains("src=\"images/c.png\""));
+    }
+
+    @Test
+    void sameContentIsRenderedOnce() {
+        String first = renderer.render("# 标题", null);
+        String second = renderer.render("# 标题", ContentHash.sha256("# 标题"));
+
+        assertSame(first, second);
+        assertEquals(1L, renderer.stats().get("hitCount"));
+    }
+
+    @Test
+    void weightIsHtmlMemoryInKb() {
+        assertEquals(1, MarkdownRenderer.weightKb(""));
+        assertEquals(1, MarkdownRenderer.weightKb("a".repeat(512)));
+        assertEquals(2, MarkdownRenderer.weightKb("a".repeat(513)));
+        assertEquals(64, MarkdownRenderer.weightKb("a".repeat(32 * 1024)));
+    }
+}
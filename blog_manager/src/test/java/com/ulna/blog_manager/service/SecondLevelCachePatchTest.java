@@ -0,0 +1,125 @@
+package com.ulna.blog_manager.service;
+
+import com.ulna.blog_manager.model.Blog;
+import com.ulna.blog_manager.model.BlogEntity;
+import com.ulna.blog_manager.model.BlogPatch;
+import com.ulna.blog_manager.model.ContentDelta;
+import com.ulna.blog_manager.model.ContentDeltaResult;
+import com.ulna.blog_manager.model.ContentEdit;
+import com.ulna.blog_manager.model.User;
+import com.ulna.blog_manager.repository.BlogRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 部分更新和增量更新只失效被修改的博客，其他博客的二级缓存条目和其他用户的查询缓存仍然命中
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class SecondLevelCachePatchTest {
+
+    @Autowired
+    private BlogDatabaseService blogDatabaseService;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long userId;
+    private Long patchedId;
+    private Long otherId;
+    private Long otherUserId;
+    private Long otherUserBlogId;
+
+    @BeforeEach
+    void createBlogs() {
+        String username = "l2p" + System.nanoTime() % 1_000_000_000L;
+        User user = userService.createUser(username, username + "@test.com", "secret123");
+        userId = user.getId();
+        assertTrue(blogDatabaseService.saveBlog(blog("被修改的博客"), userId));
+        assertTrue(blogDatabaseService.saveBlog(blog("其他博客"), userId));
+        List<BlogEntity> blogs = blogRepository.findByUserIdOrderByCreatedAtDesc(userId);
+        patchedId = blogs.stream().filter(b -> b.getTitle().equals("被修改的博客")).findFirst().orElseThrow().getId();
+        otherId = blogs.stream().filter(b -> b.getTitle().equals("其他博客")).findFirst().orElseThrow().getId();
+
+        String otherName = "l2q" + System.nanoTime() % 1_000_000_000L;
+        otherUserId = userService.createUser(otherName, otherName + "@test.com", "secret123").getId();
+        assertTrue(blogDatabaseService.saveBlog(blog("其他用户的博客"), otherUserId));
+        otherUserBlogId = blogRepository.findByUserIdOrderByCreatedAtDesc(otherUserId).get(0).getId();
+
+        // 两篇都放入二级缓存
+        entityManagerFactory.getCache().evict(BlogEntity.class);
+        blogRepository.findById(patchedId);
+        blogRepository.findById(otherId);
+        assertTrue(entityManagerFactory.getCache().contains(BlogEntity.class, otherId));
+
+        // 其他用户的查询结果放入查询缓存，第二次读取命中
+        blogRepository.findByIdAndUserId(otherUserBlogId, otherUserId);
+        assertOtherUserQueryHits();
+    }
+
+    @Test
+    void patchKeepsOtherBlogsCached() {
+        BlogPatch patch = new BlogPatch();
+        patch.setTitle("已修改的标题");
+        assertTrue(blogDatabaseService.patchBlog(patchedId, patch, userId));
+
+        assertCachedAcrossWrite();
+        assertEquals("已修改的标题", blogRepository.findById(patchedId).orElseThrow().getTitle());
+    }
+
+    @Test
+    void contentDeltaKeepsOtherBlogsCached() {
+        ContentDelta delta = new ContentDelta();
+        delta.setBaseUpdatedAt(blogDatabaseService.getBlogUpdatedAt(patchedId, userId));
+        delta.setEdits(List.of(new ContentEdit(0, 0, "新增：")));
+        assertEquals(ContentDeltaResult.Status.APPLIED, blogDatabaseService.applyContentDelta(patchedId, delta, userId).getStatus());
+
+        assertCachedAcrossWrite();
+        assertEquals("新增：被修改的博客的正文", blogRepository.findById(patchedId).orElseThrow().getContent());
+    }
+
+    // 其他博客仍在缓存中且读取命中（批量 DML 会清空整个 blogs 区域）
+    private void assertCachedAcrossWrite() {
+        assertTrue(entityManagerFactory.getCache().contains(BlogEntity.class, otherId));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long hits = statistics.getSecondLevelCacheHitCount();
+        blogRepository.findById(otherId).orElseThrow();
+        assertTrue(statistics.getSecondLevelCacheHitCount() > hits);
+
+        assertOtherUserQueryHits();
+    }
+
+    // 修改一篇博客不清空 blog-queries，其他用户的查询仍然命中
+    private void assertOtherUserQueryHits() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long queryHits = statistics.getQueryCacheHitCount();
+        assertEquals("其他用户的博客", blogRepository.findByIdAndUserId(otherUserBlogId, otherUserId).orElseThrow().getTitle());
+        assertTrue(statistics.getQueryCacheHitCount() > queryHits);
+    }
+
+    private static Blog blog(String title) {
+        Blog blog = new Blog();
+        blog.setTitle(title);
+        blog.setContent(title + "的正文");
+        blog.setCategories("测试");
+        return blog;
+    }
+}
@@ -0,0 +1,68 @@
+package com.ulna.blog_manager.service;
+
+import com.ulna.blog_manager.model.Blog;
+import com.ulna.blog_manager.model.Tag;
+import com.ulna.blog_manager.model.User;
+import com.ulna.blog_manager.repository.BlogRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * 超长标签名在写入前截断，写入和查找使用同一个名字；标签迁移完成后不再扫描
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class TagServiceTest {
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private TagMigrationJob tagMigrationJob;
+
+    @Autowired
+    private BlogDatabaseService blogDatabaseService;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void overLongTagIsTruncatedAndLinked() {
+        String username = "tag" + System.nanoTime() % 1_000_000_000L;
+        User user = userService.createUser(username, username + "@test.com", "secret123");
+        Blog blog = new Blog();
+        blog.setTitle("长标签");
+        blog.setContent("正文");
+        blogDatabaseService.saveBlog(blog, user.getId());
+        Long blogId = blogRepository.findByUserIdOrderByCreatedAtDesc(user.getId()).get(0).getId();
+
+        String longTag = username + "x".repeat(Tag.MAX_NAME_LENGTH + 50);
+        tagService.syncBlogTags(blogId, user.getId(), new String[]{longTag});
+
+        List<String> names = jdbcTemplate.queryForList(
+                "SELECT t.name FROM blog_tag bt JOIN tag t ON t.id = bt.tag_id WHERE bt.blog_id = ?", String.class, blogId);
+        assertEquals(List.of(longTag.substring(0, Tag.MAX_NAME_LENGTH)), names);
+        assertEquals(1, blogDatabaseService.findBlogsByTags(user.getId(), List.of(longTag), "all", 0, 10).size());
+    }
+
+    @Test
+    void completedMigrationIsNotRescanned() {
+        tagMigrationJob.migrateIfPending();
+
+        assertFalse(tagMigrationJob.migrateIfPending());
+    }
+}
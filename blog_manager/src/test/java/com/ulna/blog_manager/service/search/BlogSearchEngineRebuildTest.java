@@ -0,0 +1,96 @@
+package com.ulna.blog_manager.service.search;
+
+import com.ulna.blog_manager.model.Blog;
+import com.ulna.blog_manager.model.BlogPatch;
+import com.ulna.blog_manager.model.User;
+import com.ulna.blog_manager.repository.BlogRepository;
+import com.ulna.blog_manager.service.BlogDatabaseService;
+import com.ulna.blog_manager.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.reset;
+
+/**
+ * 重建索引期间的写入不会被分批读取到的旧数据覆盖
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class BlogSearchEngineRebuildTest {
+
+    @Autowired
+    private BlogSearchEngine searchEngine;
+
+    @Autowired
+    private BlogDatabaseService blogDatabaseService;
+
+    @Autowired
+    private UserService userService;
+
+    @MockitoSpyBean
+    private BlogRepository blogRepository;
+
+    @Test
+    void writesDuringRebuildWinOverBatchedRows() {
+        reset(blogRepository);
+        String username = "rebuild" + System.nanoTime() % 1_000_000_000L;
+        User user = userService.createUser(username, username + "@test.com", "secret123");
+        Long userId = user.getId();
+        assertTrue(blogDatabaseService.saveBlog(blog("重建前标题 quartz"), userId));
+        assertTrue(blogDatabaseService.saveBlog(blog("将被删除 zircon"), userId));
+        Long patchedId = searchEngine.search(userId, "quartz", 0, 10).get(0).getId();
+        Long deletedId = searchEngine.search(userId, "zircon", 0, 10).get(0).getId();
+        Blog deleted = blogRepository.findByIdAndUserId(deletedId, userId).orElseThrow().toBlog();
+
+        // 包含这两篇博客的一批已经读出之后，另一个请求修改并删除了博客
+        AtomicBoolean written = new AtomicBoolean(false);
+        doAnswer(invocation -> {
+            @SuppressWarnings("unchecked")
+            List<Object[]> rows = (List<Object[]>) realRepository().answer(invocation);
+            boolean containsPatched = rows.stream().anyMatch(row -> patchedId.equals(row[0]));
+            if (containsPatched && !written.getAndSet(true)) {
+                BlogPatch patch = new BlogPatch();
+                patch.setTitle("重建期间标题 basalt");
+                assertTrue(blogDatabaseService.patchBlog(patchedId, patch, userId));
+                assertTrue(blogDatabaseService.deleteBlog(deleted, userId));
+            }
+            return rows;
+        }).when(blogRepository).findIndexColumnsAfter(anyLong(), any(Pageable.class));
+
+        searchEngine.rebuild();
+
+        assertTrue(written.get());
+        assertTrue(searchEngine.search(userId, "quartz", 0, 10).isEmpty());
+        assertTrue(searchEngine.search(userId, "zircon", 0, 10).isEmpty());
+        List<?> hits = searchEngine.search(userId, "basalt", 0, 10);
+        assertEquals(1, hits.size());
+    }
+
+    private static Blog blog(String title) {
+        Blog blog = new Blog();
+        blog.setTitle(title);
+        blog.setContent("正文");
+        return blog;
+    }
+
+    // BlogRepository 是接口代理，spy 上的 callRealMethod 无法调用；
+    // Spring 为这类 spy 设置的默认应答会转发给原来的仓库 Bean
+    @SuppressWarnings("unchecked")
+    private Answer<Object> realRepository() {
+        return (Answer<Object>) mockingDetails(blogRepository).getMockCreationSettings().getDefaultAnswer();
+    }
+}
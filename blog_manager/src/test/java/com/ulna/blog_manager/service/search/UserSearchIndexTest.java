@@ -0,0 +1,59 @@
+package com.ulna.blog_manager.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 中文检索：单字查询命中多字文本，多字查询仍按二元组排序
+ */
+class UserSearchIndexTest {
+
+    @Test
+    void singleCharacterQueryMatchesMultiCharacterText() {
+        UserSearchIndex index = new UserSearchIndex();
+        index.put(blog(1L, "中国历史", "从古代到近代的中国"));
+        index.put(blog(2L, "旅行笔记", "在日本的一周"));
+
+        assertEquals(List.of(1L), ids(index, "中"));
+        assertEquals(List.of(2L), ids(index, "日"));
+    }
+
+    @Test
+    void multiCharacterQueryStillUsesBigrams() {
+        UserSearchIndex index = new UserSearchIndex();
+        index.put(blog(1L, "中国历史", "中国"));
+        index.put(blog(2L, "国中", "中学和国家"));
+
+        // “中国”只切分为一个二元组，不会按单字命中第二篇
+        assertEquals(List.of(1L), ids(index, "中国"));
+    }
+
+    @Test
+    void snippetHighlightsSingleCharacterHit() {
+        Set<String> terms = new LinkedHashSet<>(SearchTokenizer.terms("史"));
+        String snippet = SnippetBuilder.build("中国历史很长", terms);
+        assertTrue(snippet.contains("<mark>史</mark>"), snippet);
+    }
+
+    private static IndexedBlog blog(Long id, String title, String content) {
+        LocalDateTime now = LocalDateTime.now();
+        return new IndexedBlog(id, 1L, title, null, null, null, content, now, now);
+    }
+
+    private static List<Long> ids(UserSearchIndex index, String query) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(SearchTokenizer.terms(query)));
+        List<Long> ids = new ArrayList<>();
+        for (UserSearchIndex.ScoredBlog scored : index.search(terms, 0, 10)) {
+            ids.add(scored.getDoc().getId());
+        }
+        return ids;
+    }
+}